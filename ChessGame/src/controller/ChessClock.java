@@ -0,0 +1,212 @@
+package controller;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Two-sided chess clock on a monotonic nanosecond time source.
+ *
+ * Elapsed time is charged exactly at move boundaries (press()); nothing polls.
+ * Flag-fall is scheduled for the precise instant the side to move runs out and
+ * rescheduled on every press/pause. Thread-safe: a GUI, a server session and the
+ * scheduler thread can all use the same clock.
+ */
+public final class ChessClock {
+
+    public enum Mode {
+        /** Fischer: the increment is added after each move. */
+        INCREMENT,
+        /** Simple (US) delay: the first `increment` of each move is not charged. */
+        DELAY
+    }
+
+    // one daemon thread for every clock's flag-fall timer
+    private static final ScheduledExecutorService FLAG_TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "chess-clock");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final LongSupplier nanoTime;
+    private final Mode mode;
+    private final long incrementNanos;
+
+    private long whiteNanos, blackNanos;
+    private boolean whiteActive = true;
+    private boolean running = false;
+    private long turnStart;            // nanoTime when the active side's current turn (re)started
+    private long delayLeftAtStart;     // DELAY mode: delay still available when the turn (re)started
+    private Boolean flaggedWhite = null;
+
+    private ScheduledFuture<?> flagTask;
+    private Consumer<Boolean> flagListener = whiteLost -> { };
+
+    public ChessClock(long initialMillis, long incrementMillis, Mode mode) {
+        this(initialMillis, incrementMillis, mode, System::nanoTime);
+    }
+
+    // time source injectable for deterministic use (replays, simulations)
+    public ChessClock(long initialMillis, long incrementMillis, Mode mode, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.mode = mode;
+        this.incrementNanos = TimeUnit.MILLISECONDS.toNanos(incrementMillis);
+        this.whiteNanos = TimeUnit.MILLISECONDS.toNanos(initialMillis);
+        this.blackNanos = this.whiteNanos;
+    }
+
+    /** Called (on the clock thread) with true if White lost on time, false if Black did. */
+    public synchronized void setFlagListener(Consumer<Boolean> listener) {
+        this.flagListener = listener;
+    }
+
+    // --------- Control ----------
+
+    /** Starts (or resumes) running the clock of the given side. */
+    public synchronized void start(boolean whiteToMove) {
+        if (flaggedWhite != null) return;
+        whiteActive = whiteToMove;
+        running = true;
+        turnStart = nanoTime.getAsLong();
+        delayLeftAtStart = mode == Mode.DELAY ? incrementNanos : 0L;
+        scheduleFlag();
+    }
+
+    public synchronized void pause() {
+        if (!running) return;
+        charge(nanoTime.getAsLong());
+        running = false;
+        cancelFlag();
+    }
+
+    public synchronized void resume() {
+        if (running || flaggedWhite != null) return;
+        running = true;
+        turnStart = nanoTime.getAsLong();
+        scheduleFlag();
+    }
+
+    /**
+     * The side to move has just moved: charges its exact elapsed time, applies the
+     * increment (or delay) and starts the opponent's clock.
+     * Returns false if the mover had already run out of time (the move does not count;
+     * the flag listener is notified as if the timer had fired).
+     */
+    public boolean press() {
+        Consumer<Boolean> listener;
+        synchronized (this) {
+            if (flaggedWhite != null) return false;
+            if (running) {
+                charge(nanoTime.getAsLong());
+                if (remainingActive() <= 0) {
+                    flag();
+                    listener = flagListener;
+                } else {
+                    listener = null;
+                }
+            } else {
+                listener = null;
+            }
+            if (listener == null) {
+                if (mode == Mode.INCREMENT) {
+                    if (whiteActive) whiteNanos += incrementNanos; else blackNanos += incrementNanos;
+                }
+                whiteActive = !whiteActive;
+                turnStart = nanoTime.getAsLong();
+                delayLeftAtStart = mode == Mode.DELAY ? incrementNanos : 0L;
+                if (running) scheduleFlag();
+                return true;
+            }
+        }
+        listener.accept(flaggedWhite());
+        return false;
+    }
+
+    /** Takeback: charges the time used so far and hands the turn to a side without increment. */
+    public synchronized void switchTo(boolean whiteToMove) {
+        if (flaggedWhite != null || whiteActive == whiteToMove) return;
+        if (running) charge(nanoTime.getAsLong());
+        whiteActive = whiteToMove;
+        turnStart = nanoTime.getAsLong();
+        delayLeftAtStart = mode == Mode.DELAY ? incrementNanos : 0L;
+        if (running) scheduleFlag();
+    }
+
+    // --------- Queries ----------
+
+    public synchronized boolean isRunning() { return running; }
+    public synchronized boolean whiteActive() { return whiteActive; }
+    public Mode mode() { return mode; }
+    public long incrementMillis() { return TimeUnit.NANOSECONDS.toMillis(incrementNanos); }
+
+    /** null while nobody has flagged; otherwise true if White lost on time. */
+    public synchronized Boolean flaggedWhite() { return flaggedWhite; }
+
+    /** Time left for a side right now (the running side's current turn included), in ns. */
+    public synchronized long remainingNanos(boolean white) {
+        long base = white ? whiteNanos : blackNanos;
+        if (!running || white != whiteActive) return Math.max(0, base);
+        long elapsed = nanoTime.getAsLong() - turnStart;
+        return Math.max(0, base - Math.max(0, elapsed - delayLeftAtStart));
+    }
+
+    public long remainingMillis(boolean white) {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos(white));
+    }
+
+    // --------- Internals ----------
+
+    // charges the active side up to `now` and restarts the turn accounting there
+    private void charge(long now) {
+        long elapsed = now - turnStart;
+        long usedDelay = Math.min(elapsed, delayLeftAtStart);
+        long charged = elapsed - usedDelay;
+        if (whiteActive) whiteNanos -= charged; else blackNanos -= charged;
+        delayLeftAtStart -= usedDelay;
+        turnStart = now;
+    }
+
+    private long remainingActive() {
+        return whiteActive ? whiteNanos : blackNanos;
+    }
+
+    private void scheduleFlag() {
+        cancelFlag();
+        long due = remainingActive() + delayLeftAtStart - (nanoTime.getAsLong() - turnStart);
+        flagTask = FLAG_TIMER.schedule(this::onFlagTimer, Math.max(0, due), TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelFlag() {
+        if (flagTask != null) {
+            flagTask.cancel(false);
+            flagTask = null;
+        }
+    }
+
+    private void onFlagTimer() {
+        Consumer<Boolean> listener;
+        boolean whiteLost;
+        synchronized (this) {
+            if (!running || flaggedWhite != null) return;
+            if (remainingNanos(whiteActive) > 0) {
+                scheduleFlag(); // the timer fired a little early
+                return;
+            }
+            charge(nanoTime.getAsLong());
+            flag();
+            listener = flagListener;
+            whiteLost = flaggedWhite;
+        }
+        listener.accept(whiteLost);
+    }
+
+    private void flag() {
+        if (whiteActive) whiteNanos = 0; else blackNanos = 0;
+        flaggedWhite = whiteActive;
+        running = false;
+        cancelFlag();
+    }
+}
@@ -1,10 +1,18 @@
 package controller;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import metrics.Metrics;
 import model.board.Board;
+import model.board.Material;
+import model.board.Move;
 import model.board.Position;
+import model.board.Zobrist;
 import model.pieces.*;
 
 public class Game {
@@ -12,12 +20,38 @@ public class Game {
     private Board board;
     private boolean whiteToMove = true;
     private boolean gameOver = false;
+    // Ended by flagTimeout: the flag fall is not a move, so undo/redo cannot step back past it
+    private boolean timedOut = false;
 
     // Square where an en-passant capture may land (the empty square)
     private Position enPassantTarget = null;
 
+    // SAN of every move played
     private final List<String> history = new ArrayList<>();
 
+    // Why the game ended ("Checkmate: White loses", "Draw: stalemate", "Timeout: ..."), or null
+    private String endReason = null;
+
+    // Legal moves of the side to move, keyed by origin square (null = not computed yet)
+    private Map<Position, List<Position>> legalCache = null;
+
+    // Reversible move records for takeback/rewind (undo) and replay (redo)
+    private final Deque<MoveRecord> undoStack = new ArrayDeque<>();
+    private final Deque<MoveRecord> redoStack = new ArrayDeque<>();
+
+    // Zobrist key of the current position (valid only while keyValid)
+    private long zobristKey;
+    private boolean keyValid = false;
+
+    // Pawn-only Zobrist key, updated incrementally by move/redo and restored by undo
+    // (valid only while pawnKeyValid; recomputed from the board after setup)
+    private long pawnKey;
+    private boolean pawnKeyValid = false;
+
+    // Immutable view of the current position (null = not built yet) and the SAN history it shares
+    private GameSnapshot snapshot = null;
+    private GameSnapshot.SanList sanTail = null;
+
     // Public ctor (starts a fresh game)
     public Game() {
         this.board = new Board();
@@ -32,21 +66,108 @@ public class Game {
     public boolean whiteToMove() { return whiteToMove; }
     public boolean isGameOver() { return gameOver; }
     public List<String> history() { return Collections.unmodifiableList(history); }
+    public String endReason() { return endReason; }
+
+    // Immutable, thread-safe view of the current position; cached until the position changes
+    public GameSnapshot snapshot() {
+        if (snapshot == null) snapshot = buildSnapshot();
+        return snapshot;
+    }
+
+    // Zobrist key of the position (pieces, side to move, castling rights, en passant file)
+    public long zobristKey() {
+        if (!keyValid) {
+            zobristKey = computeZobristKey();
+            keyValid = true;
+        }
+        return zobristKey;
+    }
+
+    // Zobrist key of the pawns alone (both colours); keys the engine's pawn-structure cache
+    public long pawnKey() {
+        if (!pawnKeyValid) {
+            pawnKey = computePawnKey();
+            pawnKeyValid = true;
+        }
+        return pawnKey;
+    }
+
+    // Castling right still available (king and that rook never moved and are in place)
+    public boolean hasCastlingRight(boolean white, boolean kingSide) {
+        int row = white ? 7 : 0;
+        Piece k = board.get(new Position(row, 4));
+        Piece r = board.get(new Position(row, kingSide ? 7 : 0));
+        return k instanceof King && k.isWhite() == white && !k.hasMoved()
+                && r instanceof Rook && r.isWhite() == white && !r.hasMoved();
+    }
+
+    public Position enPassantTarget() { return enPassantTarget; }
+
+    // PGN-style result: "1-0", "0-1", "1/2-1/2" or "*" while the game is running
+    public String result() {
+        if (!gameOver || endReason == null) return "*";
+        if (endReason.contains("White loses")) return "0-1";
+        if (endReason.contains("Black loses")) return "1-0";
+        return "1/2-1/2";
+    }
 
     // --------- New game ----------
     public void newGame() {
         this.board = new Board();
         this.whiteToMove = true;
         this.gameOver = false;
+        this.timedOut = false;
         this.enPassantTarget = null;
         this.history.clear();
+        this.sanTail = null;
+        this.endReason = null;
+        this.undoStack.clear();
+        this.redoStack.clear();
+        positionChanged();
+        pawnKeyValid = false;
         setupPieces();
     }
 
     // --------- Query legal moves ----------
     // Full legality including specials and "king safety"
     public List<Position> legalMovesFrom(Position from) {
-        return legalMovesFromWithSpecials(from);
+        return new ArrayList<>(legalMovesFromWithSpecials(from));
+    }
+
+    // All legal moves for the side to move (promotions expanded to Q/R/B/N)
+    public List<Move> legalMoves() {
+        List<Move> out = new ArrayList<>();
+        if (gameOver) return out;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Position from = new Position(r, c);
+                Piece p = board.get(from);
+                if (p == null || p.isWhite() != whiteToMove) continue;
+                for (Position to : legalMovesFromWithSpecials(from)) {
+                    out.addAll(toMoves(p, from, to));
+                }
+            }
+        }
+        return out;
+    }
+
+    private List<Move> toMoves(Piece p, Position from, Position to) {
+        Piece captured = board.get(to);
+        if (p instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            return List.of(Move.castle(from, to, p, to.getColumn() == 6));
+        }
+        if (p instanceof Pawn && captured == null && from.getColumn() != to.getColumn()) {
+            Piece victim = board.get(new Position(from.getRow(), to.getColumn()));
+            return List.of(Move.enPassant(from, to, p, victim));
+        }
+        if (isPromotion(from, to)) {
+            return List.of(
+                    Move.promotion(from, to, p, captured, 'Q'),
+                    Move.promotion(from, to, p, captured, 'R'),
+                    Move.promotion(from, to, p, captured, 'B'),
+                    Move.promotion(from, to, p, captured, 'N'));
+        }
+        return List.of(Move.normal(from, to, p, captured));
     }
 
     public boolean isPromotion(Position from, Position to) {
@@ -55,7 +176,58 @@ public class Game {
         return p.isWhite() ? to.getRow() == 0 : to.getRow() == 7;
     }
 
+    // --------- Staged generation for the engine ----------
+    // Pseudo-legal moves of the side to move, appended to `out` (king safety is not checked:
+    // test each move with isLegal just before playing it). captures = true gives captures,
+    // en passant and every promotion; false gives the remaining quiet moves and castling.
+    public void pseudoLegalMoves(boolean captures, List<Move> out) {
+        if (gameOver) return;
+        Metrics.STAGE_GENS.increment();
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Position from = new Position(r, c);
+                Piece p = board.get(from);
+                if (p == null || p.isWhite() != whiteToMove) continue;
+                for (Position to : pseudoMovesFrom(from, p)) {
+                    boolean tactical = board.get(to) != null || isPromotion(from, to)
+                            || (p instanceof Pawn && from.getColumn() != to.getColumn());
+                    if (tactical == captures) out.addAll(toMoves(p, from, to));
+                }
+            }
+        }
+    }
+
+    // The pseudo-legal move with this code (Move.code()) in the current position, or null
+    // (hash and killer moves come from other positions and must be checked before use)
+    public Move pseudoLegalMove(int code) {
+        if (gameOver || code == 0) return null;
+        int f = code >>> 9, t = (code >>> 3) & 63;
+        Position from = new Position(f / 8, f % 8);
+        Piece p = board.get(from);
+        if (p == null || p.isWhite() != whiteToMove) return null;
+        Position to = new Position(t / 8, t % 8);
+        if (!pseudoMovesFrom(from, p).contains(to)) return null;
+        for (Move m : toMoves(p, from, to)) {
+            if (m.code() == code) return m;
+        }
+        return null;
+    }
+
+    // King safety of a pseudo-legal move of the side to move
+    public boolean isLegal(Move m) {
+        return !leavesKingInCheck(m.getFrom(), m.getTo());
+    }
+
+    // True if a piece of that colour attacks `sq` (a cheap "is it defended" test for move ordering)
+    public boolean attackedBy(Position sq, boolean white) {
+        return isSquareAttacked(sq, !white);
+    }
+
     // --------- Make a move (only if legal) ----------
+    public void move(Move m) {
+        move(m.getFrom(), m.getTo(), m.getPromotion());
+    }
+
     public void move(Position from, Position to, Character promotion) {
         if (gameOver) return;
 
@@ -66,150 +238,301 @@ public class Game {
         List<Position> legal = legalMovesFromWithSpecials(from);
         if (!legal.contains(to)) return;
 
+        play(p, from, to, promotion, true);
+    }
+
+    // Fast make for the engine's search: `m` must come from pseudoLegalMoves/pseudoLegalMove
+    // and pass isLegal. No SAN, no history entry, no check/mate annotation and no game-end
+    // detection (the search finds mate, stalemate and dead draws itself); undo() takes it back.
+    public void makeSearchMove(Move m) {
+        play(board.get(m.getFrom()), m.getFrom(), m.getTo(), m.getPromotion(), false);
+    }
+
+    // `full` = a game move: SAN with +/#, game-end detection
+    private void play(Piece p, Position from, Position to, Character promotion, boolean full) {
         boolean isKing = p instanceof King;
         boolean isPawn = p instanceof Pawn;
         int dCol = Math.abs(to.getColumn() - from.getColumn());
 
-        Piece capturedBefore = board.get(to); // for SAN-ish history
+        Piece capturedBefore = board.get(to);
         boolean targetIsKing = (capturedBefore instanceof King);
 
-        // ------- Castling (already validated in legal moves) -------
+        boolean diagonal = from.getColumn() != to.getColumn();
+        boolean isEnPassant = isPawn && diagonal && capturedBefore == null && to.equals(enPassantTarget);
+        boolean isPromo = isPawn && isPromotion(from, to);
+        char promoCh = (promotion == null) ? 'Q' : Character.toUpperCase(promotion);
+
+        // SAN comes from the legal move map of the position *before* the move (no extra generation)
+        // (null for search moves, which stay out of the history)
+        String san = full ? sanFor(p, from, to, capturedBefore != null || isEnPassant, isPromo ? promoCh : 0) : null;
+
+        // Reversible record (undo/redo) captures the state before anything changes
+        MoveRecord rec = new MoveRecord(from, to, p);
+        rec.captured = capturedBefore;
+        rec.capturedAt = to;
+        rec.prevEnPassant = enPassantTarget;
+        rec.gameOverBefore = gameOver;
+        rec.endReasonBefore = endReason;
+        rec.legalBefore = legalCache;
+        rec.keyBefore = zobristKey;
+        rec.keyValidBefore = keyValid;
+        rec.snapshotBefore = snapshot;
+        rec.pawnKeyBefore = pawnKey;
+        rec.pawnKeyValidBefore = pawnKeyValid;
+        redoStack.clear();
+        positionChanged();
+
         if (isKing && dCol == 2) {
+            // ------- Castling (already validated in legal moves) -------
             int row = from.getRow();
             // Move king
             board.set(to, p);
             board.set(from, null);
             p.setMoved(true);
 
-            String san;
             if (to.getColumn() == 6) {
                 // Short castle: rook h->f
                 Piece rook = board.get(new Position(row, 7));
+                rec.setRook(rook, new Position(row, 7), new Position(row, 5));
                 board.set(new Position(row, 5), rook);
                 board.set(new Position(row, 7), null);
                 if (rook != null) rook.setMoved(true);
-                san = "O-O";
             } else {
                 // Long castle: rook a->d
                 Piece rook = board.get(new Position(row, 0));
+                rec.setRook(rook, new Position(row, 0), new Position(row, 3));
                 board.set(new Position(row, 3), rook);
                 board.set(new Position(row, 0), null);
                 if (rook != null) rook.setMoved(true);
-                san = "O-O-O";
             }
-
             enPassantTarget = null;
-            // Switch side
-            whiteToMove = !whiteToMove;
-
-            // annotate + or #
-            if (isCheckmate(whiteToMove)) {
-                san += "#";
-                gameOver = true;
-            } else if (inCheck(whiteToMove)) {
-                san += "+";
-            }
-            addHistory(san);
-
-            if (!gameOver) checkGameEnd();
-            return;
-        }
-
-        // ------- En Passant (already validated in legal moves) -------
-        boolean diagonal = from.getColumn() != to.getColumn();
-        boolean toIsEmpty = board.get(to) == null;
-        boolean isEnPassant = isPawn && diagonal && toIsEmpty && to.equals(enPassantTarget);
-
-        String moveStr;
-
-        if (isEnPassant) {
-            // Move pawn to target
+        } else if (isEnPassant) {
+            // ------- En Passant (already validated in legal moves) -------
             board.set(to, p);
             board.set(from, null);
             // Remove the pawn that moved two squares last turn (victim behind target)
             int dir = p.isWhite() ? 1 : -1;
             Position victim = new Position(to.getRow() + dir, to.getColumn());
+            rec.captured = board.get(victim);
+            rec.capturedAt = victim;
             board.set(victim, null);
             p.setMoved(true);
-            moveStr = coord(from) + "x" + coord(to) + " e.p.";
             enPassantTarget = null;
+        } else {
+            if (isPromo) {
+                // ------- Promotion (auto-queen if promotion is null) -------
+                Piece np = switch (promoCh) {
+                    case 'R' -> new Rook(board, p.isWhite());
+                    case 'B' -> new Bishop(board, p.isWhite());
+                    case 'N' -> new Knight(board, p.isWhite());
+                    default  -> new Queen(board, p.isWhite());
+                };
+                np.setMoved(true);
+                rec.promoted = np;
+                board.set(from, null);
+                board.set(to, np);
+            } else {
+                // Normal move / capture
+                board.set(to, p);
+                board.set(from, null);
+                p.setMoved(true);
+            }
 
-            // Switch side
-            whiteToMove = !whiteToMove;
+            // >>> segurança: se capturamos um Rei (não deveria acontecer), termina imediatamente
+            if (targetIsKing) {
+                gameOver = true;
+                endReason = "Checkmate: " + (p.isWhite() ? "Black" : "White") + " loses";
+                if (full) addHistory(san + "#");
+                pushRecord(rec, full ? san + "#" : null);
+                return;
+            }
+
+            // ------- En-passant availability after a double pawn push -------
+            if (isPawn && Math.abs(to.getRow() - from.getRow()) == 2) {
+                int mid = (to.getRow() + from.getRow()) / 2;
+                enPassantTarget = new Position(mid, from.getColumn());
+            } else {
+                enPassantTarget = null;
+            }
+        }
+
+        // Switch side
+        whiteToMove = !whiteToMove;
 
-            // annotate + or #
+        // annotate + or # (search moves skip it: the engine detects mate/stalemate itself)
+        if (full) {
             if (isCheckmate(whiteToMove)) {
-                moveStr += "#";
+                san += "#";
                 gameOver = true;
+                endReason = "Checkmate: " + (whiteToMove ? "White" : "Black") + " loses";
             } else if (inCheck(whiteToMove)) {
-                moveStr += "+";
+                san += "+";
             }
-            addHistory(moveStr);
+        }
 
+        if (full) {
+            addHistory(san);
             if (!gameOver) checkGameEnd();
-            return;
         }
+        pushRecord(rec, san);
+    }
 
-        // ------- Promotion (auto-queen if promotion is null) -------
-        if (isPawn && isPromotion(from, to)) {
-            char ch = (promotion == null) ? 'Q' : Character.toUpperCase(promotion);
-            Piece np = switch (ch) {
-                case 'R' -> new Rook(board, p.isWhite());
-                case 'B' -> new Bishop(board, p.isWhite());
-                case 'N' -> new Knight(board, p.isWhite());
-                default  -> new Queen(board, p.isWhite());
-            };
-            np.setMoved(true);
-            board.set(from, null);
-            board.set(to, np);
+    // --------- Undo / redo (O(1) per step, no replay) ----------
+    // Both false after a flag fall: the clock that flagged cannot be taken back with the moves
+    public boolean canUndo() { return !timedOut && !undoStack.isEmpty(); }
+    public boolean canRedo() { return !timedOut && !redoStack.isEmpty(); }
+
+    // Number of moves played (size of the undo stack)
+    public int ply() { return undoStack.size(); }
+
+    // Last move played (null at the start of the game)
+    public Move lastMove() {
+        MoveRecord r = undoStack.peek();
+        if (r == null) return null;
+        return new Move(r.from, r.to, r.mover, r.captured, r.rook != null && r.to.getColumn() == 6,
+                r.rook != null && r.to.getColumn() == 2, r.capturedAt != r.to,
+                r.promoted == null ? null : r.promoted.getSymbol().charAt(0));
+    }
 
-            // >>> segurança: se, por algum motivo, havia um Rei na casa alvo (não deveria), termina
-            if (targetIsKing) {
-                String san = coord(from) + "x" + coord(to) + "=" + np.getSymbol() + "#";
-                addHistory(san);
-                gameOver = true;
-                return;
-            }
+    public boolean undo() {
+        if (timedOut) return false;
+        MoveRecord r = undoStack.poll();
+        if (r == null) return false;
+
+        board.set(r.to, null);
+        board.set(r.from, r.mover);
+        r.mover.setMoved(r.moverMovedBefore);
+        if (r.captured != null) board.set(r.capturedAt, r.captured);
+        if (r.rook != null) {
+            board.set(r.rookTo, null);
+            board.set(r.rookFrom, r.rook);
+            r.rook.setMoved(r.rookMovedBefore);
+        }
 
-            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to) + "=" + np.getSymbol();
-        } else {
-            // Normal move / capture
-            board.set(to, p);
-            board.set(from, null);
-            p.setMoved(true);
+        whiteToMove = r.mover.isWhite();
+        enPassantTarget = r.prevEnPassant;
+        gameOver = r.gameOverBefore;
+        endReason = r.endReasonBefore;
+        if (r.san != null) {
+            history.remove(history.size() - 1);
+            sanTail = sanTail.prev;
+        }
 
-            // >>> segurança: se capturamos um Rei (não deveria acontecer), termina imediatamente
-            if (targetIsKing) {
-                String san = coord(from) + "x" + coord(to) + "#";
-                addHistory(san);
-                gameOver = true;
-                return;
-            }
+        // caches of the previous position come back with it
+        legalCache = r.legalBefore;
+        zobristKey = r.keyBefore;
+        keyValid = r.keyValidBefore;
+        snapshot = r.snapshotBefore;
+        pawnKey = r.pawnKeyBefore;
+        pawnKeyValid = r.pawnKeyValidBefore;
+
+        redoStack.push(r);
+        return true;
+    }
 
-            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to);
+    // Every position of the game, from the first one (before any move) to the current one.
+    // Rewinds with undo and replays with redo, so the redo stack and the end state
+    // (including a flag fall, which is not a move) come back exactly as they were.
+    public List<GameSnapshot> positions() {
+        boolean overNow = gameOver;
+        String reasonNow = endReason;
+        boolean timedOutNow = timedOut;
+        timedOut = false;
+        int plies = undoStack.size();
+        GameSnapshot[] out = new GameSnapshot[plies + 1];
+        for (int i = plies; i > 0; i--) {
+            out[i] = snapshot();
+            undo();
         }
+        out[0] = snapshot();
+        for (int i = 0; i < plies; i++) redo();
+        gameOver = overNow;
+        endReason = reasonNow;
+        timedOut = timedOutNow;
+        snapshot = out[plies];
+        return List.of(out);
+    }
 
-        // ------- En-passant availability after a double pawn push -------
-        if (isPawn && Math.abs(to.getRow() - from.getRow()) == 2) {
-            int mid = (to.getRow() + from.getRow()) / 2;
-            enPassantTarget = new Position(mid, from.getColumn());
-        } else {
-            enPassantTarget = null;
+    public boolean redo() {
+        if (timedOut) return false;
+        MoveRecord r = redoStack.poll();
+        if (r == null) return false;
+
+        r.legalBefore = legalCache;
+        r.keyBefore = zobristKey;
+        r.keyValidBefore = keyValid;
+        r.snapshotBefore = snapshot;
+        r.pawnKeyBefore = pawnKey;
+        r.pawnKeyValidBefore = pawnKeyValid;
+        if (pawnKeyValid) pawnKey ^= pawnDelta(r);
+
+        board.set(r.from, null);
+        if (r.captured != null) board.set(r.capturedAt, null);
+        board.set(r.to, r.promoted != null ? r.promoted : r.mover);
+        r.mover.setMoved(true);
+        if (r.rook != null) {
+            board.set(r.rookFrom, null);
+            board.set(r.rookTo, r.rook);
+            r.rook.setMoved(true);
         }
 
-        // Switch side
-        whiteToMove = !whiteToMove;
+        whiteToMove = r.whiteToMoveAfter;
+        enPassantTarget = r.newEnPassant;
+        gameOver = r.gameOverAfter;
+        endReason = r.endReasonAfter;
+        if (r.san != null) addHistory(r.san);
+        positionChanged();
 
-        // annotate + or #
-        if (isCheckmate(whiteToMove)) {
-            moveStr += "#";
-            gameOver = true;
-        } else if (inCheck(whiteToMove)) {
-            moveStr += "+";
+        undoStack.push(r);
+        return true;
+    }
+
+    private void pushRecord(MoveRecord rec, String san) {
+        if (pawnKeyValid) pawnKey ^= pawnDelta(rec);
+        rec.san = san;
+        rec.newEnPassant = enPassantTarget;
+        rec.whiteToMoveAfter = whiteToMove;
+        rec.gameOverAfter = gameOver;
+        rec.endReasonAfter = endReason;
+        undoStack.push(rec);
+    }
+
+    // Everything needed to take a move back and to play it again
+    private static final class MoveRecord {
+        final Position from, to;
+        final Piece mover;
+        final boolean moverMovedBefore;
+        Piece captured;            // null if no capture
+        Position capturedAt;       // differs from `to` only for en passant
+        Piece promoted;            // piece placed on `to` by a promotion
+        Piece rook;                // castling rook
+        Position rookFrom, rookTo;
+        boolean rookMovedBefore;
+        Position prevEnPassant, newEnPassant;
+        boolean gameOverBefore, gameOverAfter, whiteToMoveAfter;
+        String endReasonBefore, endReasonAfter;
+        String san;                // null for search moves (not in the history)
+        // caches of the position before the move
+        Map<Position, List<Position>> legalBefore;
+        long keyBefore;
+        boolean keyValidBefore;
+        GameSnapshot snapshotBefore;
+        long pawnKeyBefore;
+        boolean pawnKeyValidBefore;
+
+        MoveRecord(Position from, Position to, Piece mover) {
+            this.from = from;
+            this.to = to;
+            this.mover = mover;
+            this.moverMovedBefore = mover.hasMoved();
         }
 
-        addHistory(moveStr);
-        if (!gameOver) checkGameEnd();
+        void setRook(Piece rook, Position rookFrom, Position rookTo) {
+            this.rook = rook;
+            this.rookFrom = rookFrom;
+            this.rookTo = rookTo;
+            this.rookMovedBefore = rook != null && rook.hasMoved();
+        }
     }
 
     // --------- Checks / mates ----------
@@ -222,50 +545,30 @@ public class Game {
 
     public boolean isCheckmate(boolean whiteSide) {
         if (!inCheck(whiteSide)) return false;
-
-        // If the side has any legal move that avoids check, it's not mate
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position from = new Position(row, col);
-                Piece piece = board.get(from);
-                if (piece != null && piece.isWhite() == whiteSide) {
-                    for (Position to : legalMovesFromWithSpecials(from)) {
-                        Game g = snapshotShallow();
-                        g.forceMoveNoChecks(from, to);
-                        if (!g.inCheck(whiteSide)) return false;
-                    }
-                }
-            }
-        }
-        return true;
+        // Only the side to move has legal moves; the map is already king-safe
+        if (whiteSide != whiteToMove) return true;
+        return legalMap().isEmpty();
     }
 
     private void checkGameEnd() {
         // Checkmate
         if (isCheckmate(whiteToMove)) {
             gameOver = true;
-            addHistory("Checkmate: " + (whiteToMove ? "White" : "Black") + " loses");
+            endReason = "Checkmate: " + (whiteToMove ? "White" : "Black") + " loses";
             return;
         }
 
         // Stalemate: no legal moves and not in check
-        if (!inCheck(whiteToMove)) {
-            boolean hasAny = false;
-            for (int r = 0; r < 8 && !hasAny; r++) {
-                for (int c = 0; c < 8 && !hasAny; c++) {
-                    Position from = new Position(r, c);
-                    Piece piece = board.get(from);
-                    if (piece != null && piece.isWhite() == whiteToMove) {
-                        if (!legalMovesFromWithSpecials(from).isEmpty()) {
-                            hasAny = true;
-                        }
-                    }
-                }
-            }
-            if (!hasAny) {
-                gameOver = true;
-                addHistory("Draw: stalemate");
-            }
+        if (!inCheck(whiteToMove) && legalMap().isEmpty()) {
+            gameOver = true;
+            endReason = "Draw: stalemate";
+            return;
+        }
+
+        // Dead position by material (K v K, K+minor v K, same-coloured bishops only)
+        if (Material.insufficient(board)) {
+            gameOver = true;
+            endReason = "Draw: insufficient material";
         }
     }
 
@@ -273,7 +576,37 @@ public class Game {
     private List<Position> legalMovesFromWithSpecials(Position from) {
         Piece p = board.get(from);
         if (p == null || p.isWhite() != whiteToMove) return List.of();
+        return legalMap().getOrDefault(from, List.of());
+    }
+
+    // Legal moves of every piece of the side to move, computed once per position
+    private Map<Position, List<Position>> legalMap() {
+        if (legalCache == null) {
+            Metrics.MOVEGENS.increment();
+            Map<Position, List<Position>> map = new HashMap<>();
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    Position from = new Position(r, c);
+                    Piece p = board.get(from);
+                    if (p == null || p.isWhite() != whiteToMove) continue;
+                    List<Position> moves = computeLegalMovesFrom(from, p);
+                    if (!moves.isEmpty()) map.put(from, Collections.unmodifiableList(moves));
+                }
+            }
+            legalCache = map;
+        }
+        return legalCache;
+    }
+
+    private List<Position> computeLegalMovesFrom(Position from, Piece p) {
+        List<Position> moves = pseudoMovesFrom(from, p);
+        // Filter out moves que deixam o próprio rei em xeque
+        moves.removeIf(to -> leavesKingInCheck(from, to));
+        return moves;
+    }
 
+    // Target squares of `p` including en passant and castling, without the king-safety filter
+    private List<Position> pseudoMovesFrom(Position from, Piece p) {
         List<Position> moves = new ArrayList<>(p.getPossibleMoves());
 
         // En Passant candidate square
@@ -303,9 +636,6 @@ public class Game {
             Piece tgt = board.get(to);
             return (tgt instanceof King) && (tgt.isWhite() != p.isWhite());
         });
-
-        // Filter out moves que deixam o próprio rei em xeque
-        moves.removeIf(to -> leavesKingInCheck(from, to));
         return moves;
     }
 
@@ -327,13 +657,31 @@ public class Game {
         return true;
     }
 
+    // Plays from->to on this board just long enough to test the mover's king, then puts
+    // everything back (no copy). The castling rook can stay put: canCastle already checked
+    // the squares the king crosses, and an attack along the rank would also hit e1/e8.
     private boolean leavesKingInCheck(Position from, Position to) {
         Piece mover = board.get(from);
         if (mover == null) return true;
 
-        Game g = snapshotShallow();
-        g.forceMoveNoChecks(from, to);
-        return g.inCheck(mover.isWhite());
+        Piece captured = board.get(to);
+        Position victimAt = null;
+        Piece victim = null;
+        if (mover instanceof Pawn && captured == null && from.getColumn() != to.getColumn()) {
+            victimAt = new Position(from.getRow(), to.getColumn()); // en passant
+            victim = board.get(victimAt);
+            board.set(victimAt, null);
+        }
+        board.set(to, mover);
+        board.set(from, null);
+
+        Position king = mover instanceof King ? to : findKing(mover.isWhite());
+        boolean attacked = king == null || isSquareAttacked(king, mover.isWhite());
+
+        board.set(from, mover);
+        board.set(to, captured);
+        if (victimAt != null) board.set(victimAt, victim);
+        return attacked;
     }
 
     /**
@@ -407,56 +755,53 @@ if (rp >= 0 && rp < 8) {
         return false;
     }
 
-    // Executes a move on this.board without doing legality checks or specials.
-    // Used only inside snapshots where the move was already validated.
-    private void forceMoveNoChecks(Position from, Position to) {
-        Piece p = board.get(from);
-        if (p == null) return;
-
-        int dCol = Math.abs(to.getColumn() - from.getColumn());
-        boolean isPawn = p instanceof Pawn;
-        boolean isKing = p instanceof King;
-
-        // Detect en passant: pawn moves diagonally onto empty square that equals enPassantTarget
-        boolean diagonal = from.getColumn() != to.getColumn();
-        boolean toIsEmpty = board.get(to) == null;
-        boolean ep = isPawn && diagonal && toIsEmpty && enPassantTarget != null && to.equals(enPassantTarget);
-
-        // Detect castling: king moves two columns
-        boolean castle = isKing && dCol == 2;
-
-        // Base move
-        board.set(to, p);
-        board.set(from, null);
-        p.setMoved(true);
+    // Called whenever board, side to move or en passant changes
+    private void positionChanged() {
+        legalCache = null;
+        keyValid = false;
+        snapshot = null;
+    }
 
-        // Apply en passant capture
-        if (ep) {
-            int dir = p.isWhite() ? 1 : -1; // victim behind target
-            Position victim = new Position(to.getRow() + dir, to.getColumn());
-            board.set(victim, null);
+    // Pawn-key change of a move: the pawn leaves `from` and lands on `to` unless it
+    // promotes; a captured pawn leaves its square (behind `to` for en passant)
+    private static long pawnDelta(MoveRecord r) {
+        long d = 0L;
+        if (r.mover instanceof Pawn) {
+            d ^= Zobrist.piece(r.mover, r.from.getRow(), r.from.getColumn());
+            if (r.promoted == null) d ^= Zobrist.piece(r.mover, r.to.getRow(), r.to.getColumn());
+        }
+        if (r.captured instanceof Pawn) {
+            d ^= Zobrist.piece(r.captured, r.capturedAt.getRow(), r.capturedAt.getColumn());
         }
+        return d;
+    }
 
-        // Apply rook move for castling
-        if (castle) {
-            int row = to.getRow();
-            if (to.getColumn() == 6) {
-                // O-O: rook h -> f
-                Piece rook = board.get(new Position(row, 7));
-                board.set(new Position(row, 5), rook);
-                board.set(new Position(row, 7), null);
-                if (rook != null) rook.setMoved(true);
-            } else if (to.getColumn() == 2) {
-                // O-O-O: rook a -> d
-                Piece rook = board.get(new Position(row, 0));
-                board.set(new Position(row, 3), rook);
-                board.set(new Position(row, 0), null);
-                if (rook != null) rook.setMoved(true);
+    private long computePawnKey() {
+        long key = 0L;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(new Position(r, c));
+                if (p instanceof Pawn) key ^= Zobrist.piece(p, r, c);
             }
         }
+        return key;
+    }
 
-        // For snapshot simulation we don't keep EP availability
-        enPassantTarget = null;
+    private long computeZobristKey() {
+        long key = 0L;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(new Position(r, c));
+                if (p != null) key ^= Zobrist.piece(p, r, c);
+            }
+        }
+        if (!whiteToMove) key ^= Zobrist.blackToMove();
+        if (hasCastlingRight(true, true))   key ^= Zobrist.castling(0);
+        if (hasCastlingRight(true, false))  key ^= Zobrist.castling(1);
+        if (hasCastlingRight(false, true))  key ^= Zobrist.castling(2);
+        if (hasCastlingRight(false, false)) key ^= Zobrist.castling(3);
+        if (enPassantTarget != null) key ^= Zobrist.enPassantFile(enPassantTarget.getColumn());
+        return key;
     }
 
     // --------- King location ----------
@@ -474,21 +819,183 @@ if (rp >= 0 && rp < 8) {
     }
 
     // --------- Snapshot ----------
+    // Independent deep copy (board, side to move, en passant and history; no undo/redo stack)
+    public Game copy() {
+        return snapshotShallow();
+    }
+
     private Game snapshotShallow() {
         Game g = new Game(true);
         g.board = this.board.copy(); // IMPORTANT: Board.copy() must deep-copy pieces and fix their board refs.
         g.whiteToMove = this.whiteToMove;
         g.gameOver = this.gameOver;
+        g.timedOut = this.timedOut;
         g.enPassantTarget = (this.enPassantTarget == null)
                 ? null
                 : new Position(this.enPassantTarget.getRow(), this.enPassantTarget.getColumn());
         g.history.addAll(this.history);
+        g.sanTail = this.sanTail;
+        g.endReason = this.endReason;
+        g.pawnKey = this.pawnKey;
+        g.pawnKeyValid = this.pawnKeyValid;
+        return g;
+    }
+
+    // --------- FEN ----------
+    // Position from a FEN string. Castling rights become "moved" flags on kings/rooks;
+    // halfmove clock and move number are accepted but not tracked.
+    public static Game fromFen(String fen) {
+        String[] f = fen.trim().split("\\s+");
+        if (f.length < 2) throw new IllegalArgumentException("Invalid FEN: " + fen);
+
+        Game g = new Game(true);
+        g.board = new Board();
+        String[] ranks = f[0].split("/");
+        if (ranks.length != 8) throw new IllegalArgumentException("Invalid FEN board: " + f[0]);
+        for (int row = 0; row < 8; row++) {
+            int col = 0;
+            for (char ch : ranks[row].toCharArray()) {
+                if (ch >= '1' && ch <= '8') {
+                    col += ch - '0';
+                    continue;
+                }
+                if (col > 7) throw new IllegalArgumentException("Invalid FEN rank: " + ranks[row]);
+                placeSetupPiece(g.board, ch, row, col++);
+            }
+        }
+
+        g.whiteToMove = !f[1].equals("b");
+        String castling = f.length > 2 ? f[2] : "-";
+        grantCastling(g.board, castling.indexOf('K') >= 0, 7, 7);
+        grantCastling(g.board, castling.indexOf('Q') >= 0, 7, 0);
+        grantCastling(g.board, castling.indexOf('k') >= 0, 0, 7);
+        grantCastling(g.board, castling.indexOf('q') >= 0, 0, 0);
+
+        if (f.length > 3 && f[3].length() == 2) {
+            g.enPassantTarget = new Position('8' - f[3].charAt(1), f[3].charAt(0) - 'a');
+        }
+        g.checkGameEnd();
+        return g;
+    }
+
+    // FEN of the current position (halfmove clock 0, move number from the ply count)
+    public String fen() {
+        return snapshot().fen();
+    }
+
+    private GameSnapshot buildSnapshot() {
+        Metrics.SNAPSHOTS.increment();
+        byte[] squares = new byte[64];
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece p = board.get(new Position(row, col));
+                if (p == null) continue;
+                char sym = p.getSymbol().charAt(0);
+                squares[row * 8 + col] = (byte) (p.isWhite() ? sym : Character.toLowerCase(sym));
+            }
+        }
+        int castling = (hasCastlingRight(true, true) ? 1 : 0) | (hasCastlingRight(true, false) ? 2 : 0)
+                | (hasCastlingRight(false, true) ? 4 : 0) | (hasCastlingRight(false, false) ? 8 : 0);
+        int ep = enPassantTarget == null ? -1 : enPassantTarget.getRow() * 8 + enPassantTarget.getColumn();
+        return new GameSnapshot(squares, whiteToMove, castling, ep, gameOver, endReason, result(),
+                zobristKey(), sanTail);
+    }
+
+    // Mutable game rebuilt from a snapshot (see GameSnapshot.toGame)
+    static Game fromSnapshot(GameSnapshot s) {
+        Game g = new Game(true);
+        g.board = new Board();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                char ch = s.pieceAt(row, col);
+                if (ch != 0) placeSetupPiece(g.board, ch, row, col);
+            }
+        }
+        g.whiteToMove = s.whiteToMove();
+        grantCastling(g.board, s.hasCastlingRight(true, true), 7, 7);
+        grantCastling(g.board, s.hasCastlingRight(true, false), 7, 0);
+        grantCastling(g.board, s.hasCastlingRight(false, true), 0, 7);
+        grantCastling(g.board, s.hasCastlingRight(false, false), 0, 0);
+        g.enPassantTarget = s.enPassantTarget();
+        g.gameOver = s.isGameOver();
+        g.endReason = s.endReason();
+        g.history.addAll(s.history());
+        g.sanTail = s.sanList();
+        g.snapshot = s;
         return g;
     }
 
+    // Piece from a FEN letter; kings/rooks start "moved" until castling grants them
+    private static void placeSetupPiece(Board b, char ch, int row, int col) {
+        Piece p = pieceFor(b, ch);
+        b.placePiece(p, new Position(row, col));
+        // pawns off their start rank can no longer double-push
+        if (p instanceof Pawn) p.setMoved(row != (p.isWhite() ? 6 : 1));
+        if (p instanceof King || p instanceof Rook) p.setMoved(true);
+    }
+
+    private static Piece pieceFor(Board b, char ch) {
+        boolean white = Character.isUpperCase(ch);
+        switch (Character.toUpperCase(ch)) {
+            case 'K': return new King(b, white);
+            case 'Q': return new Queen(b, white);
+            case 'R': return new Rook(b, white);
+            case 'B': return new Bishop(b, white);
+            case 'N': return new Knight(b, white);
+            case 'P': return new Pawn(b, white);
+            default: throw new IllegalArgumentException("Invalid FEN piece: " + ch);
+        }
+    }
+
+    // King on e-file and rook on the corner keep their castling right
+    private static void grantCastling(Board b, boolean granted, int row, int rookCol) {
+        if (!granted) return;
+        Piece k = b.get(new Position(row, 4));
+        Piece r = b.get(new Position(row, rookCol));
+        if (k instanceof King && r instanceof Rook && k.isWhite() == r.isWhite()) {
+            k.setMoved(false);
+            r.setMoved(false);
+        }
+    }
+
     // --------- Notation helpers ----------
     private void addHistory(String moveStr) {
         history.add(moveStr);
+        sanTail = new GameSnapshot.SanList(sanTail, moveStr);
+    }
+
+    // SAN without the check suffix; disambiguation uses the current legal move map
+    private String sanFor(Piece p, Position from, Position to, boolean capture, char promo) {
+        if (p instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            return to.getColumn() == 6 ? "O-O" : "O-O-O";
+        }
+
+        StringBuilder sb = new StringBuilder(8);
+        String fromCoord = coord(from);
+        if (p instanceof Pawn) {
+            if (capture) sb.append(fromCoord.charAt(0));
+        } else {
+            sb.append(p.getSymbol());
+            boolean ambiguous = false, sameFile = false, sameRank = false;
+            for (Map.Entry<Position, List<Position>> e : legalMap().entrySet()) {
+                Position other = e.getKey();
+                if (other.equals(from)) continue;
+                Piece q = board.get(other);
+                if (q == null || q.getClass() != p.getClass() || !e.getValue().contains(to)) continue;
+                ambiguous = true;
+                if (other.getColumn() == from.getColumn()) sameFile = true;
+                if (other.getRow() == from.getRow()) sameRank = true;
+            }
+            if (ambiguous) {
+                if (!sameFile) sb.append(fromCoord.charAt(0));
+                else if (!sameRank) sb.append(fromCoord.charAt(1));
+                else sb.append(fromCoord);
+            }
+        }
+        if (capture) sb.append('x');
+        sb.append(coord(to));
+        if (promo != 0) sb.append('=').append(promo);
+        return sb.toString();
     }
 
     private String coord(Position p) {
@@ -501,7 +1008,9 @@ public void flagTimeout(boolean whiteLost) {
     // whiteLost == true  -> Brancas perderam por tempo
     // whiteLost == false -> Pretas perderam por tempo
     gameOver = true;
-    addHistory("Timeout: " + (whiteLost ? "White" : "Black") + " loses on time");
+    timedOut = true;
+    endReason = "Timeout: " + (whiteLost ? "White" : "Black") + " loses on time";
+    snapshot = null;
 }
 
     // --------- Initial setup ----------
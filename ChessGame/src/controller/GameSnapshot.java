@@ -0,0 +1,152 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import model.board.Position;
+
+/**
+ * Immutable view of a Game position that any number of threads can read without locks.
+ *
+ * Produced by Game.snapshot(): 64 bytes for the board plus flags, cached until the
+ * position changes (undo brings the previous snapshot back). The SAN history is a
+ * persistent list, so consecutive snapshots share every move but the last.
+ */
+public final class GameSnapshot {
+
+    // FEN letter per square (row * 8 + col), 0 = empty
+    private final byte[] squares;
+    private final boolean whiteToMove;
+    private final int castling; // bits: 1 = K, 2 = Q, 4 = k, 8 = q
+    private final int epSquare; // -1 = none
+    private final boolean gameOver;
+    private final String endReason;
+    private final String result;
+    private final long zobristKey;
+    private final SanList history;
+
+    /** Persistent SAN list (newest first). */
+    static final class SanList {
+        final SanList prev;
+        final String san;
+        final int size;
+
+        SanList(SanList prev, String san) {
+            this.prev = prev;
+            this.san = san;
+            this.size = prev == null ? 1 : prev.size + 1;
+        }
+    }
+
+    GameSnapshot(byte[] squares, boolean whiteToMove, int castling, int epSquare, boolean gameOver,
+                 String endReason, String result, long zobristKey, SanList history) {
+        this.squares = squares;
+        this.whiteToMove = whiteToMove;
+        this.castling = castling;
+        this.epSquare = epSquare;
+        this.gameOver = gameOver;
+        this.endReason = endReason;
+        this.result = result;
+        this.zobristKey = zobristKey;
+        this.history = history;
+    }
+
+    // --------- Queries ----------
+
+    /** FEN letter of the piece on (row, col) ('K', 'p', ...), or 0 if empty. */
+    public char pieceAt(int row, int col) {
+        return (char) squares[row * 8 + col];
+    }
+
+    public boolean whiteToMove() { return whiteToMove; }
+    public boolean isGameOver() { return gameOver; }
+    public String endReason() { return endReason; }
+    public String result() { return result; }
+    public long zobristKey() { return zobristKey; }
+
+    public boolean hasCastlingRight(boolean white, boolean kingSide) {
+        int bit = (white ? 0 : 2) + (kingSide ? 0 : 1);
+        return (castling & (1 << bit)) != 0;
+    }
+
+    public Position enPassantTarget() {
+        return epSquare < 0 ? null : new Position(epSquare / 8, epSquare % 8);
+    }
+
+    /** Number of half-moves played. */
+    public int ply() {
+        return history == null ? 0 : history.size;
+    }
+
+    /** SAN of the last move, or null at the start. */
+    public String lastSan() {
+        return history == null ? null : history.san;
+    }
+
+    /** SAN of every move, oldest first (built on demand). */
+    public List<String> history() {
+        return historyFrom(0);
+    }
+
+    /** SAN of the moves from `fromPly` on, oldest first; walks only those nodes. */
+    public List<String> historyFrom(int fromPly) {
+        String[] out = new String[Math.max(0, ply() - fromPly)];
+        int i = out.length;
+        for (SanList n = history; i > 0; n = n.prev) out[--i] = n.san;
+        return Collections.unmodifiableList(Arrays.asList(out));
+    }
+
+    /**
+     * Number of leading moves this history shares with `other`'s. Snapshots of the
+     * same Game share list nodes, so this usually stops after a node or two.
+     */
+    public int commonPlies(GameSnapshot other) {
+        SanList a = history, b = other.history;
+        if (a == null || b == null) return 0;
+        while (a != null && b != null && a.size > b.size) a = a.prev;
+        while (a != null && b != null && b.size > a.size) b = b.prev;
+        while (a != null && a != b) {
+            a = a.prev;
+            b = b.prev;
+        }
+        return a == null ? 0 : a.size;
+    }
+
+    SanList sanList() { return history; }
+
+    public String fen() {
+        StringBuilder sb = new StringBuilder(90);
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                char ch = pieceAt(row, col);
+                if (ch == 0) { empty++; continue; }
+                if (empty > 0) { sb.append(empty); empty = 0; }
+                sb.append(ch);
+            }
+            if (empty > 0) sb.append(empty);
+            if (row < 7) sb.append('/');
+        }
+        sb.append(whiteToMove ? " w " : " b ");
+        if (castling == 0) sb.append('-');
+        if ((castling & 1) != 0) sb.append('K');
+        if ((castling & 2) != 0) sb.append('Q');
+        if ((castling & 4) != 0) sb.append('k');
+        if ((castling & 8) != 0) sb.append('q');
+        sb.append(' ');
+        if (epSquare < 0) sb.append('-');
+        else sb.append((char) ('a' + epSquare % 8)).append(8 - epSquare / 8);
+        sb.append(" 0 ").append(1 + ply() / 2);
+        return sb.toString();
+    }
+
+    /** A new mutable Game at this position (with the same history, no undo stack). */
+    public Game toGame() {
+        return Game.fromSnapshot(this);
+    }
+
+    @Override
+    public String toString() {
+        return fen();
+    }
+}
@@ -0,0 +1,280 @@
+package db;
+
+import controller.Game;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import model.board.Move;
+import notation.PgnGame;
+import notation.PgnReader;
+import notation.San;
+
+/**
+ * Índice do explorador de aberturas: para cada (posição, lance) guarda quantas partidas
+ * terminaram em vitória das brancas, empate e vitória das pretas.
+ *
+ * O arquivo é uma sequência de registros de 24 bytes ordenados por (chave Zobrist, código do lance):
+ *   [long chave][int código][int vitórias brancas][int empates][int vitórias pretas]
+ * A leitura usa o arquivo mapeado (fora do heap) em janelas, como a GameStore, então o índice
+ * pode passar de 2 GB; find() é uma busca binária e os acessores por índice leem direto do
+ * mapeamento, sem alocar nada por consulta.
+ */
+public final class ExplorerIndex implements Closeable {
+
+    private static final int RECORD = 24;
+    // janelas de 768 MB: múltiplo de RECORD, nenhum registro fica entre duas janelas
+    private static final long MAP_CHUNK = RECORD * (1L << 25);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final int records;
+
+    private ExplorerIndex(FileChannel channel, MappedByteBuffer[] chunks, int records) {
+        this.channel = channel;
+        this.chunks = chunks;
+        this.records = records;
+    }
+
+    public static ExplorerIndex open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size / RECORD > Integer.MAX_VALUE) throw new IOException("Índice grande demais: " + size + " bytes");
+            MappedByteBuffer[] maps = new MappedByteBuffer[(int) ((size + MAP_CHUNK - 1) / MAP_CHUNK)];
+            for (int i = 0; i < maps.length; i++) {
+                long start = i * MAP_CHUNK;
+                maps[i] = ch.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAP_CHUNK, size - start));
+            }
+            return new ExplorerIndex(ch, maps, (int) (size / RECORD));
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    // --------- Consulta (sem alocação) ----------
+
+    /** Índice do primeiro registro da posição, ou -1 se a posição não está no índice. */
+    public int find(long key) {
+        int lo = 0, hi = records;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (key(mid) < key) lo = mid + 1; else hi = mid;
+        }
+        return (lo < records && key(lo) == key) ? lo : -1;
+    }
+
+    /** Número de registros (lances distintos) da posição a partir de `first`. */
+    public int count(int first, long key) {
+        int i = first;
+        while (i < records && key(i) == key) i++;
+        return i - first;
+    }
+
+    public long key(int i)       { long off = (long) i * RECORD; return chunk(off).getLong(offset(off)); }
+    public int moveCode(int i)   { return field(i, 8); }
+    public int whiteWins(int i)  { return field(i, 12); }
+    public int draws(int i)      { return field(i, 16); }
+    public int blackWins(int i)  { return field(i, 20); }
+    public int games(int i)      { return whiteWins(i) + draws(i) + blackWins(i); }
+    public int size()            { return records; }
+
+    /** Código de um lance no índice (mesma ordem canônica da base de partidas). */
+    public static int moveCode(Move m) {
+        return MoveCodec.sortKey(m);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // deslocamentos em long: i * RECORD estoura int acima de 2 GB
+    private int field(int i, int at) {
+        long off = (long) i * RECORD + at;
+        return chunk(off).getInt(offset(off));
+    }
+
+    private MappedByteBuffer chunk(long byteOff) { return chunks[(int) (byteOff / MAP_CHUNK)]; }
+    private static int offset(long byteOff)      { return (int) (byteOff % MAP_CHUNK); }
+
+    // --------- Construção ----------
+
+    /**
+     * Constrói o índice a partir de um PGN, reproduzindo partidas em paralelo
+     * (uma tabela de contagem primitiva por thread, depois mesclada e ordenada).
+     * Só os primeiros `maxPly` lances de cada partida entram, a partir da posição dela (tag FEN, se houver);
+     * partidas sem resultado ou que não podem ser reproduzidas são ignoradas.
+     */
+    public static void build(Path pgn, Path out, int maxPly, int threads) throws IOException, InterruptedException {
+        BlockingQueue<PgnGame> queue = new ArrayBlockingQueue<>(1024);
+        PgnGame poison = new PgnGame();
+        Counts[] partial = new Counts[threads];
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            Counts counts = partial[t] = new Counts(1 << 14);
+            workers[t] = new Thread(() -> {
+                try {
+                    PgnGame g;
+                    while ((g = queue.take()) != poison) {
+                        try {
+                            addGame(counts, g, maxPly);
+                        } catch (RuntimeException e) {
+                            // partida que quebra o replay (ex.: FEN inválido) é ignorada; o worker continua
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "explorer-build-" + t);
+            workers[t].start();
+        }
+
+        try (PgnReader reader = PgnReader.open(pgn)) {
+            PgnGame g;
+            while ((g = reader.next()) != null) queue.put(g);
+        }
+        for (int t = 0; t < threads; t++) queue.put(poison);
+        for (Thread w : workers) w.join();
+
+        Counts all = partial[0];
+        for (int t = 1; t < threads; t++) all.addAll(partial[t]);
+        all.writeSorted(out);
+    }
+
+    private static void addGame(Counts counts, PgnGame pgn, int maxPly) {
+        int outcome = switch (pgn.result()) {
+            case "1-0" -> 0;
+            case "1/2-1/2" -> 1;
+            case "0-1" -> 2;
+            default -> -1;
+        };
+        if (outcome < 0) return;
+
+        Game game = pgn.startingGame();
+        List<String> moves = pgn.moves();
+        for (int i = 0; i < moves.size() && i < maxPly; i++) {
+            Move m = San.parse(game, moves.get(i));
+            if (m == null) return; // partida inválida: mantém o que já foi contado
+            counts.add(game.zobristKey(), MoveCodec.sortKey(m), outcome, 1);
+            game.move(m);
+        }
+    }
+
+    /** Tabela hash aberta com chaves (posição, lance) e três contadores primitivos. */
+    static final class Counts {
+        private long[] keys;
+        private int[] codes;
+        private int[] wdl;
+        private boolean[] used;
+        private int size;
+
+        Counts(int capacity) {
+            alloc(capacity);
+        }
+
+        private void alloc(int capacity) {
+            keys = new long[capacity];
+            codes = new int[capacity];
+            wdl = new int[capacity * 3];
+            used = new boolean[capacity];
+            size = 0;
+        }
+
+        void add(long key, int code, int outcome, int n) {
+            if (size * 2 >= keys.length) grow();
+            int mask = keys.length - 1;
+            int i = (int) mix(key, code) & mask;
+            while (used[i] && (keys[i] != key || codes[i] != code)) i = (i + 1) & mask;
+            if (!used[i]) {
+                used[i] = true;
+                keys[i] = key;
+                codes[i] = code;
+                size++;
+            }
+            wdl[i * 3 + outcome] += n;
+        }
+
+        void addAll(Counts o) {
+            for (int i = 0; i < o.keys.length; i++) {
+                if (!o.used[i]) continue;
+                for (int r = 0; r < 3; r++) {
+                    if (o.wdl[i * 3 + r] != 0) add(o.keys[i], o.codes[i], r, o.wdl[i * 3 + r]);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] k = keys; int[] c = codes; int[] w = wdl; boolean[] u = used;
+            alloc(k.length * 2);
+            for (int i = 0; i < k.length; i++) {
+                if (!u[i]) continue;
+                for (int r = 0; r < 3; r++) if (w[i * 3 + r] != 0) add(k[i], c[i], r, w[i * 3 + r]);
+            }
+        }
+
+        private static long mix(long key, int code) {
+            long h = key ^ (code * 0x9E3779B97F4A7C15L);
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            return h ^ (h >>> 33);
+        }
+
+        void writeSorted(Path out) throws IOException {
+            // compacta e ordena por (chave, código)
+            int[] idx = new int[size];
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) if (used[i]) idx[n++] = i;
+            sort(idx, 0, n - 1);
+
+            try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.allocateDirect(RECORD * 4096);
+                for (int j = 0; j < n; j++) {
+                    int i = idx[j];
+                    buf.putLong(keys[i]).putInt(codes[i])
+                            .putInt(wdl[i * 3]).putInt(wdl[i * 3 + 1]).putInt(wdl[i * 3 + 2]);
+                    if (!buf.hasRemaining()) drain(ch, buf);
+                }
+                drain(ch, buf);
+            }
+        }
+
+        private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+
+        private int compare(int a, int b) {
+            int c = Long.compare(keys[a], keys[b]);
+            return c != 0 ? c : Integer.compare(codes[a], codes[b]);
+        }
+
+        // quicksort de índices (evita boxing de milhões de entradas)
+        private void sort(int[] a, int lo, int hi) {
+            while (lo < hi) {
+                int pivot = a[(lo + hi) >>> 1];
+                int i = lo, j = hi;
+                while (i <= j) {
+                    while (compare(a[i], pivot) < 0) i++;
+                    while (compare(a[j], pivot) > 0) j--;
+                    if (i <= j) {
+                        int t = a[i]; a[i] = a[j]; a[j] = t;
+                        i++; j--;
+                    }
+                }
+                if (j - lo < hi - i) { sort(a, lo, j); lo = i; }
+                else { sort(a, i, hi); hi = j; }
+            }
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package db;
+
+import controller.Game;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import model.board.Move;
+import notation.San;
+
+/**
+ * Base de partidas binária, append-only, com índice de posições.
+ *
+ * Layout do diretório:
+ *   seg-NNNNN.dat        registros [int tamanho][short plies][byte resultado][lances, 1-2 bytes cada]
+ *   positions-NNNNN.idx  runs do índice: pares (long chave Zobrist, long ponteiro) ordenados por chave
+ *
+ * Ponteiro de partida = (segmento << 32) | deslocamento. Leituras usam arquivos mapeados em memória;
+ * entradas novas do índice ficam em memória até flush() (ou close()), encadeadas por chave numa tabela
+ * hash para que consultas não varram o buffer, e flush() as grava como um run novo,
+ * sem reescrever os anteriores. Depois disso, runs vizinhos de tamanho parecido são intercalados
+ * (como num contador binário): ficam O(log n) runs e cada entrada é regravada O(log n) vezes.
+ * Consultas fazem uma busca binária por run; compact() intercala tudo num run só.
+ */
+public final class GameStore implements Closeable {
+
+    private static final long SEGMENT_LIMIT = 256L << 20;      // 256 MB por segmento
+    private static final long MAP_CHUNK = 1L << 30;            // janelas de 1 GB (múltiplo de 16)
+    private static final int AUTO_FLUSH_ENTRIES = 4_000_000;
+    private static final String INDEX_PREFIX = "positions-";
+    private static final String[] RESULTS = {"*", "1-0", "0-1", "1/2-1/2"};
+
+    private final Path dir;
+
+    // segmento corrente (escrita)
+    private int segment;
+    private FileChannel writer;
+    private long writerSize;
+
+    // segmentos mapeados para leitura (recriados quando o segmento cresce)
+    private final List<MappedByteBuffer> segmentMaps = new ArrayList<>();
+
+    // índice persistido (runs mapeados, do mais antigo ao mais novo) + entradas pendentes
+    private final List<IndexRun> runs = new ArrayList<>();
+    private int nextRun = 1;
+    private long[] pendingKeys = new long[1024];
+    private long[] pendingPtrs = new long[1024];
+    private int pending;
+    // hash aberto chave -> última pendente com a chave (índice + 1; 0 = vazio), encadeadas por pendingNext
+    private int[] pendingHeads = new int[1024];
+    private int[] pendingNext = new int[1024];
+    private int pendingDistinct;
+
+    private GameStore(Path dir) {
+        this.dir = dir;
+    }
+
+    public static GameStore open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        GameStore s = new GameStore(dir);
+        int last = 0;
+        while (Files.exists(s.segmentPath(last + 1))) last++;
+        s.openWriter(last);
+        s.openRuns();
+        return s;
+    }
+
+    // --------- Escrita ----------
+
+    /**
+     * Acrescenta uma partida dada em SAN. Retorna o ponteiro da partida,
+     * ou -1 se algum lance for ilegal (nada é gravado nesse caso).
+     */
+    public long append(List<String> sanMoves, String result) throws IOException {
+        // replay fora do lock: codifica lances e coleta as chaves das posições
+        byte[] moves = new byte[sanMoves.size() * 2];
+        long[] keys = new long[sanMoves.size() + 1];
+        int len = 0;
+        Game game = new Game();
+        for (int i = 0; i < sanMoves.size(); i++) {
+            keys[i] = game.zobristKey();
+            List<Move> legal = MoveCodec.canonical(game.legalMoves());
+            Move m = San.parse(legal, sanMoves.get(i));
+            if (m == null) return -1;
+            len += MoveCodec.encode(legal.indexOf(m), moves, len);
+            game.move(m);
+        }
+        keys[sanMoves.size()] = game.zobristKey();
+        int plies = sanMoves.size();
+
+        ByteBuffer rec = ByteBuffer.allocate(4 + 2 + 1 + len);
+        rec.putInt(2 + 1 + len).putShort((short) plies).put((byte) resultCode(result)).put(moves, 0, len).flip();
+
+        synchronized (this) {
+            if (writerSize + rec.remaining() > SEGMENT_LIMIT && writerSize > 0) openWriter(segment + 1);
+            long ptr = ((long) segment << 32) | writerSize;
+            while (rec.hasRemaining()) writerSize += writer.write(rec);
+            for (long k : keys) addPending(k, ptr);
+            if (pending >= AUTO_FLUSH_ENTRIES) flush();
+            return ptr;
+        }
+    }
+
+    /** Acrescenta a partida jogada em `game` (histórico SAN + resultado). */
+    public long append(Game game) throws IOException {
+        return append(game.history(), game.result());
+    }
+
+    /** Grava as entradas pendentes como um run novo do índice (sem reescrever os existentes). */
+    public synchronized void flush() throws IOException {
+        writer.force(false);
+        if (pending == 0) return;
+
+        sortPending(0, pending - 1);
+        Path path = runPath(nextRun++);
+        Path tmp = dir.resolve(path.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = openIndexOutput(tmp)) {
+                for (int i = 0; i < pending; i++) {
+                    out.writeLong(pendingKeys[i]);
+                    out.writeLong(pendingPtrs[i]);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+            runs.add(IndexRun.open(path));
+        } catch (IOException | RuntimeException e) {
+            rehashPending(pending); // a ordenação desfez os encadeamentos; as entradas continuam pendentes
+            throw e;
+        }
+        rehashPending(0);
+
+        // o run anterior não muito maior que o novo: intercala (custo total O(n log n))
+        while (runs.size() >= 2 && runs.get(runs.size() - 2).entries <= 2 * runs.get(runs.size() - 1).entries) {
+            mergeLastRuns();
+        }
+    }
+
+    /** Grava as pendentes e intercala todos os runs do índice num só (consulta com uma busca binária). */
+    public synchronized void compact() throws IOException {
+        flush();
+        while (runs.size() >= 2) mergeLastRuns();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        writer.close();
+    }
+
+    // --------- Leitura ----------
+
+    /** Ponteiros (sem repetição) de todas as partidas que passaram pela posição com esta chave. */
+    public synchronized long[] gamesWithPosition(long key) {
+        long[] out = new long[16];
+        int n = 0;
+
+        // índice em disco: busca binária pela primeira ocorrência em cada run
+        for (IndexRun run : runs) {
+            for (long i = run.first(key); i < run.entries && run.key(i) == key; i++) {
+                if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                out[n++] = run.ptr(i);
+            }
+        }
+        // pendentes: só a cadeia da chave
+        for (int j = pendingHeads[slot(key)] - 1; j >= 0; j = pendingNext[j]) {
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = pendingPtrs[j];
+        }
+
+        Arrays.sort(out, 0, n);
+        int d = 0;
+        for (int i = 0; i < n; i++) if (d == 0 || out[d - 1] != out[i]) out[d++] = out[i];
+        return Arrays.copyOf(out, d);
+    }
+
+    /** Lê e reproduz a partida apontada por `ptr`; retorna lances em SAN e resultado. */
+    public StoredGame read(long ptr) throws IOException {
+        int seg = (int) (ptr >>> 32);
+        int off = (int) ptr;
+        ByteBuffer b = segmentMap(seg, off).duplicate();
+        b.position(off);
+        int len = b.getInt();
+        int plies = b.getShort() & 0xFFFF;
+        String result = RESULTS[b.get()];
+
+        Game game = new Game();
+        List<String> san = new ArrayList<>(plies);
+        for (int i = 0; i < plies; i++) {
+            int idx = b.get() & 0xFF;
+            if (idx == MoveCodec.ESCAPE) idx = MoveCodec.ESCAPE + (b.get() & 0xFF);
+            Move m = MoveCodec.canonical(game.legalMoves()).get(idx);
+            game.move(m);
+            san.add(game.history().get(game.history().size() - 1));
+        }
+        return new StoredGame(ptr, san, result, len);
+    }
+
+    /** Número de entradas do índice (em disco + pendentes). */
+    public synchronized long indexSize() {
+        long n = pending;
+        for (IndexRun run : runs) n += run.entries;
+        return n;
+    }
+
+    /** Número de runs do índice em disco. */
+    public synchronized int indexRuns() {
+        return runs.size();
+    }
+
+    // --------- Internos ----------
+
+    private Path segmentPath(int n) {
+        return dir.resolve(String.format("seg-%05d.dat", n));
+    }
+
+    private void openWriter(int n) throws IOException {
+        if (writer != null) writer.close();
+        segment = n;
+        writer = FileChannel.open(segmentPath(n), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writerSize = writer.size();
+    }
+
+    private synchronized MappedByteBuffer segmentMap(int seg, int off) throws IOException {
+        while (segmentMaps.size() <= seg) segmentMaps.add(null);
+        MappedByteBuffer m = segmentMaps.get(seg);
+        if (m == null || m.capacity() <= off) {
+            if (seg == segment) writer.force(false);
+            try (FileChannel ch = FileChannel.open(segmentPath(seg), StandardOpenOption.READ)) {
+                m = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+            segmentMaps.set(seg, m);
+        }
+        return m;
+    }
+
+    private Path runPath(int n) {
+        return dir.resolve(String.format(INDEX_PREFIX + "%05d.idx", n));
+    }
+
+    private void openRuns() throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, INDEX_PREFIX + "*.idx")) {
+            for (Path p : ds) {
+                String name = p.getFileName().toString();
+                numbers.add(Integer.parseInt(name.substring(INDEX_PREFIX.length(), name.length() - 4)));
+            }
+        }
+        Collections.sort(numbers);
+        for (int n : numbers) runs.add(IndexRun.open(runPath(n)));
+        if (!numbers.isEmpty()) nextRun = numbers.get(numbers.size() - 1) + 1;
+    }
+
+    private static DataOutputStream openIndexOutput(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+    }
+
+    // Intercala os dois runs mais novos no arquivo do mais novo (a ordem por número se mantém).
+    // Se cair entre o move e o delete, o run antigo fica duplicado: consultas já removem repetidos.
+    private void mergeLastRuns() throws IOException {
+        IndexRun a = runs.get(runs.size() - 2), b = runs.get(runs.size() - 1);
+        Path tmp = dir.resolve(b.path.getFileName() + ".tmp");
+        try (DataOutputStream out = openIndexOutput(tmp)) {
+            long i = 0, j = 0;
+            while (i < a.entries || j < b.entries) {
+                boolean takeA = j >= b.entries || (i < a.entries && a.key(i) <= b.key(j));
+                IndexRun r = takeA ? a : b;
+                long k = takeA ? i++ : j++;
+                out.writeLong(r.key(k));
+                out.writeLong(r.ptr(k));
+            }
+        }
+        Files.move(tmp, b.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(a.path);
+        runs.remove(runs.size() - 1);
+        runs.set(runs.size() - 1, IndexRun.open(b.path));
+    }
+
+    // quicksort das pendentes por (chave, ponteiro), trocando os dois arrays primitivos juntos
+    private void sortPending(int lo, int hi) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            long pk = pendingKeys[mid], pp = pendingPtrs[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (comparePending(i, pk, pp) < 0) i++;
+                while (comparePending(j, pk, pp) > 0) j--;
+                if (i <= j) {
+                    long t = pendingKeys[i]; pendingKeys[i] = pendingKeys[j]; pendingKeys[j] = t;
+                    t = pendingPtrs[i]; pendingPtrs[i] = pendingPtrs[j]; pendingPtrs[j] = t;
+                    i++; j--;
+                }
+            }
+            if (j - lo < hi - i) { sortPending(lo, j); lo = i; }
+            else { sortPending(i, hi); hi = j; }
+        }
+    }
+
+    private int comparePending(int i, long key, long ptr) {
+        int c = Long.compare(pendingKeys[i], key);
+        return c != 0 ? c : Long.compare(pendingPtrs[i], ptr);
+    }
+
+    private void addPending(long key, long ptr) {
+        if (pending == pendingKeys.length) {
+            pendingKeys = Arrays.copyOf(pendingKeys, pending * 2);
+            pendingPtrs = Arrays.copyOf(pendingPtrs, pending * 2);
+            pendingNext = Arrays.copyOf(pendingNext, pending * 2);
+        }
+        if (pendingDistinct * 2 >= pendingHeads.length) growPendingHeads();
+        pendingKeys[pending] = key;
+        pendingPtrs[pending] = ptr;
+        int s = slot(key);
+        if (pendingHeads[s] == 0) pendingDistinct++;
+        pendingNext[pending] = pendingHeads[s] - 1;
+        pendingHeads[s] = ++pending;
+    }
+
+    // posição da chave na tabela de pendentes: a casa dela ou a primeira vazia da sondagem linear
+    private int slot(long key) {
+        int mask = pendingHeads.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int s = (int) (h ^ (h >>> 32)) & mask;
+        while (pendingHeads[s] != 0 && pendingKeys[pendingHeads[s] - 1] != key) s = (s + 1) & mask;
+        return s;
+    }
+
+    // refaz a tabela com as `n` primeiras pendentes (0 esvazia o buffer)
+    private void rehashPending(int n) {
+        pending = 0;
+        pendingDistinct = 0;
+        Arrays.fill(pendingHeads, 0);
+        for (int i = 0; i < n; i++) addPending(pendingKeys[i], pendingPtrs[i]);
+    }
+
+    private void growPendingHeads() {
+        int[] old = pendingHeads;
+        pendingHeads = new int[old.length * 2];
+        for (int head : old) if (head != 0) pendingHeads[slot(pendingKeys[head - 1])] = head;
+    }
+
+    private static int resultCode(String result) {
+        for (int i = 0; i < RESULTS.length; i++) if (RESULTS[i].equals(result)) return i;
+        return 0;
+    }
+
+    /** Run do índice em disco: pares (chave, ponteiro) ordenados, mapeados em janelas de MAP_CHUNK. */
+    private static final class IndexRun {
+        final Path path;
+        final MappedByteBuffer[] chunks;
+        final long entries;
+
+        private IndexRun(Path path, MappedByteBuffer[] chunks, long entries) {
+            this.path = path;
+            this.chunks = chunks;
+            this.entries = entries;
+        }
+
+        static IndexRun open(Path path) throws IOException {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = ch.size();
+                MappedByteBuffer[] maps = new MappedByteBuffer[(int) ((size + MAP_CHUNK - 1) / MAP_CHUNK)];
+                for (int i = 0; i < maps.length; i++) {
+                    long start = i * MAP_CHUNK;
+                    maps[i] = ch.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAP_CHUNK, size - start));
+                }
+                return new IndexRun(path, maps, size / 16);
+            }
+        }
+
+        long key(long i) { return at(i * 16); }
+        long ptr(long i) { return at(i * 16 + 8); }
+
+        private long at(long byteOff) {
+            return chunks[(int) (byteOff / MAP_CHUNK)].getLong((int) (byteOff % MAP_CHUNK));
+        }
+
+        // primeira entrada com chave >= key
+        long first(long key) {
+            long lo = 0, hi = entries;
+            while (lo < hi) {
+                long mid = (lo + hi) >>> 1;
+                if (key(mid) < key) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /** Partida lida da base. */
+    public static final class StoredGame {
+        private final long pointer;
+        private final List<String> moves;
+        private final String result;
+        private final int recordBytes;
+
+        StoredGame(long pointer, List<String> moves, String result, int recordBytes) {
+            this.pointer = pointer;
+            this.moves = moves;
+            this.result = result;
+            this.recordBytes = recordBytes;
+        }
+
+        public long getPointer() { return pointer; }
+        public List<String> getMoves() { return moves; }
+        public String getResult() { return result; }
+        public int getRecordBytes() { return recordBytes; }
+    }
+}
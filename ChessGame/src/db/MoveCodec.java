@@ -0,0 +1,38 @@
+package db;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.board.Move;
+
+/**
+ * Codifica um lance como seu índice na lista de lances legais da posição, ordenada de forma
+ * canônica (origem, destino, promoção). Como nenhuma posição tem mais de 218 lances legais,
+ * cada lance cabe em 1 byte; índices >= 255 usariam o escape de 2 bytes.
+ */
+final class MoveCodec {
+
+    static final int ESCAPE = 0xFF;
+
+    private MoveCodec() { /* utilitário */ }
+
+    static List<Move> canonical(List<Move> legal) {
+        List<Move> sorted = new ArrayList<>(legal);
+        sorted.sort((a, b) -> Integer.compare(sortKey(a), sortKey(b)));
+        return sorted;
+    }
+
+    static int sortKey(Move m) {
+        return m.code();
+    }
+
+    /** Escreve o índice em `out` a partir de `pos`; retorna o número de bytes usados. */
+    static int encode(int index, byte[] out, int pos) {
+        if (index < ESCAPE) {
+            out[pos] = (byte) index;
+            return 1;
+        }
+        out[pos] = (byte) ESCAPE;
+        out[pos + 1] = (byte) (index - ESCAPE);
+        return 2;
+    }
+}
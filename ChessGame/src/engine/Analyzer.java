@@ -0,0 +1,110 @@
+package engine;
+
+import controller.Game;
+import controller.GameSnapshot;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Análise assíncrona sobre uma Engine: cada pedido vira um CompletableFuture que roda
+ * numa thread dedicada, sobre um snapshot imutável do jogo (o Game do chamador pode mudar à vontade;
+ * só o snapshot é tirado na thread do chamador, a cópia mutável é montada na thread de análise).
+ *
+ * Cancelar o future (cancel(true) ou cancelAll()) aborta a busca de forma cooperativa:
+ * o token é verificado em todo nó da busca (o relógio é que só é lido a cada 1024 nós),
+ * então a busca para em um nó; pedidos ainda na fila nem chegam a rodar.
+ */
+public final class Analyzer implements AutoCloseable {
+
+    private final Engine engine;
+    private final ExecutorService executor;
+
+    // pedidos ainda não concluídos (a thread é única, então no máximo um está rodando)
+    private final Set<CompletableFuture<SearchResult>> pending = ConcurrentHashMap.newKeySet();
+
+    public Analyzer() {
+        this(new Engine());
+    }
+
+    public Analyzer(Engine engine) {
+        this.engine = engine;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "chess-analysis");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Engine getEngine() { return engine; }
+
+    public CompletableFuture<SearchResult> analyze(Game game, SearchLimits limits) {
+        return analyze(game, limits, null);
+    }
+
+    /**
+     * Agenda a análise da posição atual de `game`.
+     * `progress` (opcional) recebe o melhor lance de cada iteração completa, na thread de análise;
+     * quem atualiza Swing deve repassar com SwingUtilities.invokeLater.
+     */
+    public CompletableFuture<SearchResult> analyze(Game game, SearchLimits limits, Consumer<SearchResult> progress) {
+        return analyze(game.snapshot(), limits, progress);
+    }
+
+    public CompletableFuture<SearchResult> analyze(GameSnapshot snapshot, SearchLimits limits,
+                                                   Consumer<SearchResult> progress) {
+        return analyze(snapshot, limits, 1, progress);
+    }
+
+    /**
+     * Análise multi-PV: `progress` recebe um resultado a cada linha concluída
+     * (SearchResult.getLines() com as linhas já prontas da profundidade corrente).
+     */
+    public CompletableFuture<SearchResult> analyze(GameSnapshot snapshot, SearchLimits limits, int multiPv,
+                                                   Consumer<SearchResult> progress) {
+        AtomicBoolean cancel = new AtomicBoolean();
+        CompletableFuture<SearchResult> future = new CompletableFuture<>();
+        future.whenComplete((r, t) -> {
+            pending.remove(future);
+            if (t instanceof CancellationException) cancel.set(true);
+        });
+        pending.add(future);
+
+        executor.execute(() -> {
+            if (cancel.get()) return;
+            try {
+                SearchResult r = engine.search(snapshot.toGame(), limits, multiPv, cancel, progress == null ? null : info -> {
+                    if (!cancel.get()) progress.accept(info);
+                });
+                future.complete(r);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /** Ponder hit: a análise em andamento passa a respeitar `limits` (ver Engine.ponderHit). */
+    public void ponderHit(SearchLimits limits) {
+        engine.ponderHit(limits);
+    }
+
+    /** Cancela todas as análises pendentes ou em andamento (novo jogo, desfazer...). */
+    public void cancelAll() {
+        for (CompletableFuture<SearchResult> f : new ArrayList<>(pending)) {
+            f.cancel(true);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+}
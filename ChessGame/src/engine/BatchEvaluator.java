@@ -0,0 +1,152 @@
+package engine;
+
+import controller.Game;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import model.board.Move;
+import model.board.Position;
+import model.pieces.King;
+import model.pieces.Piece;
+
+/**
+ * Avaliação em lote de posições (FEN) num pool de threads, para rotular datasets e validar
+ * puzzles sem montar uma busca por posição na mão.
+ *
+ * Cada thread do pool guarda sua Engine (avaliador e TT próprios) e a reaproveita em todas as
+ * posições; a TT é limpa antes de cada posição, então o resultado não depende de qual thread
+ * nem em que ordem a posição foi avaliada.
+ *
+ * Saída na ordem de entrada, com contrapressão: no máximo `window` posições ficam em voo; a
+ * próxima FEN só é lida quando a mais antiga sai para o consumidor (que roda na thread de
+ * quem chamou evaluate). Um consumidor lento segura a leitura, sem acumular resultados.
+ */
+public final class BatchEvaluator implements AutoCloseable {
+
+    /** Resultado de uma posição; score em centipeões do lado a jogar. */
+    public static final class Result {
+        private final long index;
+        private final String fen;
+        private final Move bestMove;
+        private final int score;
+        private final int depth;
+        private final long nodes;
+        private final String error;
+
+        Result(long index, String fen, Move bestMove, int score, int depth, long nodes, String error) {
+            this.index = index;
+            this.fen = fen;
+            this.bestMove = bestMove;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.error = error;
+        }
+
+        /** Posição na entrada (0 = primeira). */
+        public long getIndex() { return index; }
+        public String getFen() { return fen; }
+        /** null se não há lances legais ou a FEN é inválida. */
+        public Move getBestMove() { return bestMove; }
+        public int getScore() { return score; }
+        public int getDepth() { return depth; }
+        public long getNodes() { return nodes; }
+        /** Mensagem de erro da FEN, ou null. */
+        public String getError() { return error; }
+        public boolean isValid() { return error == null; }
+    }
+
+    private final SearchLimits limits;
+    private final int window;
+    private final ExecutorService pool;
+    private final ThreadLocal<Engine> engines;
+
+    /**
+     * `evaluators` cria o avaliador de cada thread (o NNUE guarda acumuladores por instância);
+     * `hashMegabytes` é a TT de cada thread (pequena, já que é limpa a cada posição); `limits` é o
+     * orçamento por posição (normalmente SearchLimits.nodes); `window` deve ser pelo menos
+     * `threads` para manter o pool ocupado.
+     */
+    public BatchEvaluator(Supplier<Evaluator> evaluators, int threads, int hashMegabytes,
+                          SearchLimits limits, int window) {
+        this.limits = limits;
+        this.window = Math.max(1, window);
+        this.engines = ThreadLocal.withInitial(() ->
+                new Engine(evaluators.get(), new TranspositionTable(hashMegabytes)));
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "chess-batch");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Avalia todas as FENs de `fens` e entrega os resultados a `sink`, na ordem de entrada,
+     * na thread que chamou. FEN inválida, posição ilegal (reis faltando ou sobrando, lado que
+     * não joga em xeque) ou falha da busca viram um Result com erro, sem interromper o lote.
+     * Retorna o número de posições avaliadas.
+     */
+    public long evaluate(Iterator<String> fens, Consumer<Result> sink) {
+        ArrayDeque<CompletableFuture<Result>> inFlight = new ArrayDeque<>(window);
+        long count = 0;
+        try {
+            while (fens.hasNext()) {
+                if (inFlight.size() >= window) sink.accept(inFlight.poll().join());
+                long index = count++;
+                String fen = fens.next();
+                inFlight.add(CompletableFuture.supplyAsync(() -> evaluate(index, fen), pool));
+            }
+            while (!inFlight.isEmpty()) sink.accept(inFlight.poll().join());
+        } catch (RuntimeException e) {
+            // consumidor ou entrada falharam: o que ainda está na fila não precisa rodar
+            for (CompletableFuture<Result> f : inFlight) f.cancel(false);
+            throw e;
+        }
+        return count;
+    }
+
+    // Erro de FEN, posição ilegal ou falha da busca viram um Result de erro só desta posição
+    private Result evaluate(long index, String fen) {
+        try {
+            Game game = Game.fromFen(fen);
+            String invalid = invalidPosition(game);
+            if (invalid != null) return new Result(index, fen, null, 0, 0, 0, invalid);
+            Engine engine = engines.get();
+            engine.getTranspositionTable().clear();
+            SearchResult r = engine.search(game, limits);
+            return new Result(index, fen, r.getBestMove(), r.getScore(), r.getDepth(), r.getNodes(), null);
+        } catch (RuntimeException e) {
+            return new Result(index, fen, null, 0, 0, 0, e.getMessage() == null ? e.toString() : e.getMessage());
+        }
+    }
+
+    // A busca supõe um rei de cada cor e o lado que não joga fora de xeque (senão "mata" o rei)
+    private static String invalidPosition(Game game) {
+        int white = 0, black = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = game.board().get(new Position(r, c));
+                if (p instanceof King) {
+                    if (p.isWhite()) white++; else black++;
+                }
+            }
+        }
+        if (white != 1 || black != 1) {
+            return "Invalid position: expected one king per side, found " + white + " white and " + black + " black";
+        }
+        if (game.inCheck(!game.whiteToMove())) {
+            return "Invalid position: " + (game.whiteToMove() ? "black" : "white") + " king in check with "
+                    + (game.whiteToMove() ? "white" : "black") + " to move";
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
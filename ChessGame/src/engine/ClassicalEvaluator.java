@@ -0,0 +1,73 @@
+package engine;
+
+import controller.Game;
+import model.board.Board;
+import model.board.Position;
+import model.pieces.Piece;
+
+/**
+ * Avaliação clássica: material + bônus por casa, lidos da tabela gerada EvalParams
+ * (inicialmente os valores da heurística original do ChessGUI; reajustável com tools.Texel),
+ * mais estrutura de peões (dobrados, isolados, passados) vinda do cache PawnTable.
+ *
+ * O cache é por instância: use um ClassicalEvaluator por Engine.
+ */
+public class ClassicalEvaluator implements Evaluator {
+
+    // 2^14 entradas (~400 KB)
+    private static final int PAWN_TABLE_BITS = 14;
+    // passado com a casa da frente livre, por fileira relativa (depende das peças: fora do cache)
+    private static final int[] FREE_PASSER = { 0, 0, 5, 10, 15, 25, 40, 0 };
+
+    private final PawnTable pawns = new PawnTable(PAWN_TABLE_BITS);
+
+    @Override
+    public int evaluate(Game game) {
+        Board board = game.board();
+        int score = 0;
+        long whitePawns = 0, blackPawns = 0, occupied = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(new Position(r, c));
+                if (p == null) continue;
+                long bit = 1L << (r * 8 + c);
+                occupied |= bit;
+                int t = typeIndex(p);
+                if (t == 0) {
+                    if (p.isWhite()) whitePawns |= bit; else blackPawns |= bit;
+                }
+                int sq = (p.isWhite() ? r : 7 - r) * 8 + c;
+                int v = EvalParams.PIECE_VALUE[t] + EvalParams.PST[t * 64 + sq];
+                score += p.isWhite() ? v : -v;
+            }
+        }
+
+        pawns.probe(game.pawnKey(), whitePawns, blackPawns);
+        score += pawns.score();
+        for (long m = pawns.passedWhite(); m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            if ((occupied & (1L << (sq - 8))) == 0) score += FREE_PASSER[7 - sq / 8];
+        }
+        for (long m = pawns.passedBlack(); m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            if ((occupied & (1L << (sq + 8))) == 0) score -= FREE_PASSER[sq / 8];
+        }
+        return game.whiteToMove() ? score : -score;
+    }
+
+    public static int pieceValue(Piece p) {
+        return p == null ? 0 : EvalParams.PIECE_VALUE[typeIndex(p)];
+    }
+
+    // índice do tipo nas tabelas de EvalParams: P, N, B, R, Q, K
+    static int typeIndex(Piece p) {
+        switch (p.getSymbol()) {
+            case "P": return 0;
+            case "N": return 1;
+            case "B": return 2;
+            case "R": return 3;
+            case "Q": return 4;
+            default:  return 5;
+        }
+    }
+}
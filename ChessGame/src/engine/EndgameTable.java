@@ -0,0 +1,189 @@
+package engine;
+
+import controller.Game;
+import model.board.Board;
+import model.board.Material;
+import model.board.Position;
+import model.pieces.Piece;
+
+/**
+ * Finais sem peões resolvidos por consulta, indexados pela assinatura material do Board.
+ *
+ * Para cada combinação (até 2 cavalos, 2 bispos, 2 torres e 1 dama por lado) a tabela,
+ * calculada uma vez, guarda:
+ *   DRAWN  - material insuficiente (K x K, K + peça menor x K): nenhum mate é possível e a busca nem desce;
+ *   KXK    - mate forçado contra rei sozinho: avaliador que empurra o rei para a borda;
+ *   KBNK   - idem, para o canto da cor do bispo;
+ *   NONE   - avaliação normal, multiplicada pela escala (em 64 avos) do lado que está melhor.
+ *
+ * Só com bispos no tabuleiro o veredito depende da cor das casas: todos na mesma cor é empate
+ * morto (como em Material.insufficient), então KBB x K só é KXK com bispos de cores opostas.
+ * Finais em que o mate existe mas não pode ser forçado (menor x menor, KNN x K) não são DRAWN:
+ * a escala leva a avaliação para perto de 0 e a busca ainda acha os mates de ajuda.
+ */
+final class EndgameTable {
+
+    static final byte NONE = 0, DRAWN = 1, KXK = 2, KBNK = 3;
+
+    private static final int FULL_SCALE = 64;
+    // mate possível, mas não forçado
+    private static final int NEAR_DRAW = 2;
+    // acima de qualquer avaliação comum e bem abaixo dos scores de mate
+    private static final int KNOWN_WIN = 2000;
+
+    // por lado: cavalos 0..2, bispos 0..2, torres 0..2, damas 0..1
+    private static final int SIDE = 3 * 3 * 3 * 2;
+
+    private static final byte[] KIND = new byte[SIDE * SIDE];
+    private static final byte[] SCALE_WHITE = new byte[SIDE * SIDE]; // aplicada quando as brancas estão melhor
+    private static final byte[] SCALE_BLACK = new byte[SIDE * SIDE];
+    // só bispos em jogo: empate se estiverem todos na mesma cor de casa
+    private static final boolean[] BISHOPS_ONLY = new boolean[SIDE * SIDE];
+
+    static {
+        for (int w = 0; w < SIDE; w++) {
+            for (int b = 0; b < SIDE; b++) build(w * SIDE + b, w, b);
+        }
+    }
+
+    private EndgameTable() { /* tabela */ }
+
+    /** Índice na tabela, ou -1 se a posição tem peões ou material fora da faixa coberta. */
+    static int index(long signature) {
+        if (Material.hasPawns(signature)) return -1;
+        int w = side(signature, true), b = side(signature, false);
+        return w < 0 || b < 0 ? -1 : w * SIDE + b;
+    }
+
+    /** Empate morto: material insuficiente, inclusive bispos todos na mesma cor. */
+    static boolean isDrawn(Board board) {
+        int i = index(board.materialSignature());
+        return i >= 0 && isDrawn(i, board);
+    }
+
+    private static boolean isDrawn(int i, Board board) {
+        return KIND[i] == DRAWN || (BISHOPS_ONLY[i] && Material.insufficient(board));
+    }
+
+    /**
+     * Avaliação do ponto de vista de quem joga: veredito ou avaliador especializado
+     * da tabela quando houver; senão a do `evaluator`, escalada.
+     */
+    static int evaluate(Game game, Evaluator evaluator) {
+        int i = index(game.board().materialSignature());
+        if (i < 0) return evaluator.evaluate(game);
+        if (isDrawn(i, game.board())) return 0;
+        switch (KIND[i]) {
+            case KXK:
+            case KBNK: {
+                int white = mateScore(game.board(), KIND[i] == KBNK);
+                return game.whiteToMove() ? white : -white;
+            }
+            default: {
+                int v = evaluator.evaluate(game);
+                boolean whiteBetter = (v > 0) == game.whiteToMove();
+                int scale = whiteBetter ? SCALE_WHITE[i] : SCALE_BLACK[i];
+                return v * scale / FULL_SCALE;
+            }
+        }
+    }
+
+    // --------- Construção ----------
+
+    private static int side(long sig, boolean white) {
+        int n = Material.count(sig, white, Material.KNIGHT), b = Material.count(sig, white, Material.BISHOP);
+        int r = Material.count(sig, white, Material.ROOK), q = Material.count(sig, white, Material.QUEEN);
+        if (n > 2 || b > 2 || r > 2 || q > 1) return -1;
+        return ((n * 3 + b) * 3 + r) * 2 + q;
+    }
+
+    private static void build(int i, int w, int b) {
+        int wq = w % 2, wr = w / 2 % 3, wb = w / 6 % 3, wn = w / 18;
+        int bq = b % 2, br = b / 2 % 3, bb = b / 6 % 3, bn = b / 18;
+        int scaleW = scale(wn, wb, wr, wq, bn, bb, br, bq);
+        int scaleB = scale(bn, bb, br, bq, wn, wb, wr, wq);
+        SCALE_WHITE[i] = (byte) scaleW;
+        SCALE_BLACK[i] = (byte) scaleB;
+
+        boolean whiteBare = w == 0, blackBare = b == 0;
+        BISHOPS_ONLY[i] = wn + wr + wq + bn + br + bq == 0 && wb + bb >= 2;
+        if (wr + wq + br + bq == 0 && wn + wb + bn + bb <= 1) {
+            KIND[i] = DRAWN;
+        } else if (blackBare != whiteBare && (whiteBare ? scaleB : scaleW) == FULL_SCALE) {
+            boolean bn1 = whiteBare ? bn == 1 && bb == 1 && br == 0 && bq == 0 : wn == 1 && wb == 1 && wr == 0 && wq == 0;
+            KIND[i] = bn1 ? KBNK : KXK;
+        } else {
+            KIND[i] = NONE;
+        }
+    }
+
+    // quanto da vantagem de "s" (contra "o") vale, em 64 avos; sem peões em jogo
+    private static int scale(int sn, int sb, int sr, int sq, int on, int ob, int or, int oq) {
+        int minors = sn + sb;
+        if (sr + sq == 0 && minors <= 1) return NEAR_DRAW;         // uma peça menor não força mate
+        if (sr + sq == 0 && sb == 0 && sn == 2 && on + ob + or + oq == 0) return NEAR_DRAW; // KNN x K
+        if (sq == 0 && sr == 1 && minors == 0 && or + oq == 0 && on + ob == 1) return 16; // KR x menor
+        if (sq == 0 && sr == 1 && minors == 1 && or == 1 && oq + on + ob == 0) return 16; // KR+menor x KR
+        if (sr + sq == 0 && minors == 2 && on + ob + or + oq > 0) return 8;     // duas menores contra peça
+        return FULL_SCALE;
+    }
+
+    // --------- Avaliadores de mate (do ponto de vista das brancas) ----------
+
+    private static int mateScore(Board board, boolean bishopKnight) {
+        int wk = -1, bk = -1, material = 0, bishopColour = 0;
+        int[] pieces = new int[4]; // casas das peças do lado forte (só ele tem peças além do rei)
+        int count = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(new Position(r, c));
+                if (p == null) continue;
+                int t = ClassicalEvaluator.typeIndex(p);
+                int sq = r * 8 + c;
+                if (t == 5) {
+                    if (p.isWhite()) wk = sq; else bk = sq;
+                    continue;
+                }
+                material += p.isWhite() ? EvalParams.PIECE_VALUE[t] : -EvalParams.PIECE_VALUE[t];
+                if (t == 2) bishopColour = (r + c) & 1;
+                if (count < pieces.length) pieces[count++] = sq;
+            }
+        }
+        boolean whiteStrong = material > 0;
+        int strong = whiteStrong ? wk : bk, weak = whiteStrong ? bk : wk;
+        if (strong < 0 || weak < 0) return 0;
+
+        int push = bishopKnight ? 40 * (7 - cornerDistance(weak, bishopColour)) : 40 * (3 - edgeDistance(weak)) + 20 * centreDistance(weak);
+        int close = 20 * (7 - distance(strong, weak));
+        // peças perto do rei fraco fecham a rede de mate
+        for (int i = 0; i < count; i++) close += 4 * (7 - distance(pieces[i], weak));
+        int s = KNOWN_WIN + Math.abs(material) + push + close;
+        return whiteStrong ? s : -s;
+    }
+
+    // 1..6: distância de Manhattan ao centro (borda = longe)
+    private static int centreDistance(int sq) {
+        int r = sq / 8, c = sq % 8;
+        return (Math.abs(2 * r - 7) + Math.abs(2 * c - 7)) / 2;
+    }
+
+    // 0 na borda .. 3 no centro
+    private static int edgeDistance(int sq) {
+        int r = sq / 8, c = sq % 8;
+        return Math.min(Math.min(r, 7 - r), Math.min(c, 7 - c));
+    }
+
+    // distância de Manhattan ao canto mais próximo com a cor do bispo (só lá o mate é possível)
+    private static int cornerDistance(int sq, int bishopColour) {
+        int r = sq / 8, c = sq % 8;
+        // (0,0) e (7,7) têm (linha + coluna) par; (0,7) e (7,0) ímpar
+        return bishopColour == 0
+                ? Math.min(r + c, 14 - r - c)
+                : Math.min(r + 7 - c, 7 - r + c);
+    }
+
+    // distância de rei (Chebyshev)
+    private static int distance(int a, int b) {
+        return Math.max(Math.abs(a / 8 - b / 8), Math.abs(a % 8 - b % 8));
+    }
+}
@@ -0,0 +1,389 @@
+package engine;
+
+import controller.Game;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import metrics.Metrics;
+import metrics.SearchEvent;
+import model.board.Move;
+
+/**
+ * Busca headless (sem Swing): negamax com poda alfa-beta, aprofundamento iterativo,
+ * busca quiescente (capturas/promoções) nas folhas e tabela de transposição; os lances de cada nó
+ * saem em estágios (MovePicker: TT, capturas, killers, quietos), gerados e validados sob demanda; finais sem peões
+ * conhecidos (EndgameTable) são resolvidos por consulta. A tabela persiste entre buscas da mesma instância (ponder, análise).
+ * Cada instância guarda estado de busca próprio, então use uma Engine por thread.
+ */
+public class Engine {
+
+    public static final int MATE = 100_000;
+    public static final int INF = 1_000_000;
+    public static final int DEFAULT_HASH_MB = 16;
+    private static final int QSEARCH_PLIES = 6;
+    private static final int[] NO_KILLERS = new int[0];
+
+    private final Evaluator evaluator;
+    private final TranspositionTable tt;
+
+    // estado da busca corrente
+    private long nodes;
+    private long nodeLimit;
+    private boolean aborted;
+    private int completedDepth;
+    private AtomicBoolean cancel;
+    // dois lances quietos que causaram corte, por ply (valem entre iterações da mesma busca)
+    private final int[][] killers = new int[SearchLimits.MAX_DEPTH + 1][2];
+
+    // podem ser alterados de outra thread durante a busca (stop, ponderhit)
+    private volatile boolean stopRequested;
+    private volatile long deadlineNanos;
+    private volatile int depthLimit;
+
+    public Engine() {
+        this(new ClassicalEvaluator());
+    }
+
+    public Engine(Evaluator evaluator) {
+        this(evaluator, new TranspositionTable(DEFAULT_HASH_MB));
+    }
+
+    public Engine(Evaluator evaluator, TranspositionTable tt) {
+        this.evaluator = evaluator;
+        this.tt = tt;
+    }
+
+    public Evaluator getEvaluator() { return evaluator; }
+    public TranspositionTable getTranspositionTable() { return tt; }
+
+    /** Nós visitados pela busca corrente/última (leitura aproximada de outra thread). */
+    public long getNodes() { return nodes; }
+
+    /** Pede para a busca em andamento terminar o quanto antes (thread-safe). */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Ponder hit: a busca em andamento (iniciada com limites infinitos sobre o lance esperado
+     * do adversário) passa a respeitar estes limites, contados a partir de agora.
+     */
+    public void ponderHit(SearchLimits limits) {
+        deadlineNanos = limits.getMillis() > 0 ? System.nanoTime() + limits.getMillis() * 1_000_000L : 0L;
+        depthLimit = limits.getDepth();
+    }
+
+    public SearchResult search(Game game, SearchLimits limits) {
+        return search(game, limits, new AtomicBoolean());
+    }
+
+    public SearchResult search(Game game, SearchLimits limits, AtomicBoolean cancel) {
+        return search(game, limits, cancel, null);
+    }
+
+    /**
+     * Procura o melhor lance para quem tem a vez em `game` (o objeto não é alterado).
+     * `cancel` é verificado em todo nó; quem criou a tarefa pode abortá-la mesmo antes de ela começar.
+     * `progress` (opcional) recebe o resultado de cada iteração completa, na thread da busca.
+     * Retorna o resultado da última iteração completa; bestMove é null se não há lances.
+     */
+    public SearchResult search(Game game, SearchLimits limits, AtomicBoolean cancel,
+                               Consumer<SearchResult> progress) {
+        return search(game, limits, 1, cancel, progress);
+    }
+
+    /**
+     * Busca multi-PV: a cada profundidade calcula as `multiPv` melhores linhas, uma por vez
+     * (a k-ésima exclui os primeiros lances das anteriores), todas sobre a mesma TT, de modo que
+     * as linhas seguintes reaproveitam quase toda a árvore da primeira. `progress` recebe um
+     * resultado a cada linha concluída, com as linhas já prontas daquela profundidade.
+     * O resultado final traz as linhas da última profundidade completa.
+     */
+    public SearchResult search(Game game, SearchLimits limits, int multiPv, AtomicBoolean cancel,
+                               Consumer<SearchResult> progress) {
+        long start = System.nanoTime();
+        Metrics.Sample before = Metrics.sample();
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        this.cancel = cancel;
+        nodes = 0;
+        nodeLimit = limits.getNodes();
+        deadlineNanos = limits.getMillis() > 0 ? start + limits.getMillis() * 1_000_000L : 0L;
+        depthLimit = limits.getDepth();
+        aborted = false;
+        stopRequested = false;
+        completedDepth = 0;
+        for (int[] k : killers) Arrays.fill(k, 0);
+
+        // a busca faz/desfaz lances numa cópia privada (undo é O(1), sem copiar o tabuleiro por nó)
+        Game work = game.copy();
+        evaluator.reset(work);
+        List<Move> rootMoves = orderMoves(work.legalMoves(), TranspositionTable.move(tt.probe(work.zobristKey())));
+        if (rootMoves.isEmpty()) {
+            return new SearchResult(null, game.isGameOver() ? terminalScore(game, 0) : 0, 0, 0, 0, null);
+        }
+
+        Move best = rootMoves.get(0);
+        int bestScore = 0;
+        int lineCount = Math.max(1, Math.min(multiPv, rootMoves.size()));
+        List<PvLine> lines = new ArrayList<>();
+
+        for (int depth = 1; depth <= depthLimit && !cancel.get(); depth++) {
+            List<PvLine> iterLines = new ArrayList<>(lineCount);
+            List<Move> remaining = new ArrayList<>(rootMoves);
+            for (int k = 0; k < lineCount && !aborted; k++) {
+                Move iterBest = null;
+                int alpha = -INF;
+                for (Move m : remaining) {
+                    work.makeSearchMove(m);
+                    evaluator.moved(work, m);
+                    int score = -negamax(work, depth - 1, -INF, -alpha, 1);
+                    work.undo();
+                    evaluator.undone();
+                    if (aborted) break;
+                    if (score > alpha) {
+                        alpha = score;
+                        iterBest = m;
+                    }
+                }
+                if (aborted) break;
+
+                if (k == 0) {
+                    best = iterBest;
+                    bestScore = alpha;
+                    tt.store(work.zobristKey(), depth, TranspositionTable.EXACT, alpha, best.code());
+                }
+                remaining.remove(iterBest);
+                iterLines.add(new PvLine(k + 1, alpha, depth, principalVariation(work, iterBest, depth)));
+
+                if (progress != null) {
+                    long ms = (System.nanoTime() - start) / 1_000_000L;
+                    progress.accept(new SearchResult(best, bestScore, depth, nodes, ms, null, iterLines));
+                }
+            }
+            if (aborted) break;
+
+            completedDepth = depth;
+            lines = iterLines;
+
+            // próximo nível começa pelos melhores lances desta iteração, na ordem das linhas
+            for (int k = iterLines.size() - 1; k >= 0; k--) {
+                Move m = iterLines.get(k).getFirstMove();
+                rootMoves.remove(m);
+                rootMoves.add(0, m);
+            }
+
+            // com várias linhas, um mate na primeira não encerra a análise das outras
+            if (lineCount == 1 && Math.abs(bestScore) >= MATE - SearchLimits.MAX_DEPTH) break;
+        }
+
+        Move ponder = expectedReply(work, best);
+        long millis = (System.nanoTime() - start) / 1_000_000L;
+        commit(event, before, best, bestScore);
+        return new SearchResult(best, bestScore, completedDepth, nodes, millis, ponder, lines);
+    }
+
+    private int negamax(Game g, int depth, int alpha, int beta, int ply) {
+        if (depth == 0) return quiesce(g, alpha, beta, ply, QSEARCH_PLIES);
+        nodes++;
+        // flags de parada a cada nó (stop responde em um nó); relógio a cada 1024
+        if (stopRequested || cancel.get() || (nodeLimit > 0 && nodes >= nodeLimit) || (nodes & 1023) == 0) {
+            checkLimits();
+        }
+        if (aborted) return 0;
+
+        Metrics.NODES.increment();
+        // empate morto (material insuficiente): os lances da busca não marcam fim de jogo
+        if (EndgameTable.isDrawn(g.board())) return 0;
+
+        long key = g.zobristKey();
+        long entry = tt.probe(key);
+        int ttMove = 0;
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int s = fromTT(TranspositionTable.score(entry), ply);
+                int flag = TranspositionTable.flag(entry);
+                if (flag == TranspositionTable.EXACT
+                        || (flag == TranspositionTable.LOWER && s >= beta)
+                        || (flag == TranspositionTable.UPPER && s <= alpha)) {
+                    return s;
+                }
+            }
+        }
+
+        int alphaOrig = alpha;
+        int best = -INF;
+        int bestMove = 0;
+        int[] plyKillers = killers[Math.min(ply, killers.length - 1)];
+        MovePicker picker = new MovePicker(g, ttMove, plyKillers, false);
+        for (Move m = picker.next(); m != null; m = picker.next()) {
+            g.makeSearchMove(m);
+            evaluator.moved(g, m);
+            int score = -negamax(g, depth - 1, -beta, -alpha, ply + 1);
+            g.undo();
+            evaluator.undone();
+            if (aborted) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = m.code();
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) {
+                Metrics.CUTOFFS.increment();
+                if (!MovePicker.isTactical(m) && plyKillers[0] != m.code()) {
+                    plyKillers[1] = plyKillers[0];
+                    plyKillers[0] = m.code();
+                }
+                break;
+            }
+        }
+        // nenhum lance legal: mate ou afogamento (lances da busca não marcam fim de jogo)
+        if (bestMove == 0) return terminalScore(g, ply);
+
+        int flag = best <= alphaOrig ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        tt.store(key, depth, flag, toTT(best, ply), bestMove);
+        return best;
+    }
+
+    // Só capturas e promoções (todos os lances se em xeque) até a posição "acalmar"
+    private int quiesce(Game g, int alpha, int beta, int ply, int pliesLeft) {
+        nodes++;
+        Metrics.QNODES.increment();
+        if (stopRequested || cancel.get() || (nodes & 1023) == 0) checkLimits();
+        if (aborted) return 0;
+        if (EndgameTable.isDrawn(g.board())) return 0;
+
+        boolean inCheck = g.inCheck(g.whiteToMove());
+        if (!inCheck) {
+            int standPat = EndgameTable.evaluate(g, evaluator);
+            if (standPat >= beta || pliesLeft == 0) return standPat;
+            if (standPat > alpha) alpha = standPat;
+        } else if (pliesLeft == 0) {
+            return EndgameTable.evaluate(g, evaluator);
+        }
+
+        // em xeque todos os lances (sem nenhum, é mate); senão só capturas e promoções
+        MovePicker picker = new MovePicker(g, 0, NO_KILLERS, !inCheck);
+        boolean any = false;
+        for (Move m = picker.next(); m != null; m = picker.next()) {
+            any = true;
+            g.makeSearchMove(m);
+            evaluator.moved(g, m);
+            int score = -quiesce(g, -beta, -alpha, ply + 1, pliesLeft - 1);
+            g.undo();
+            evaluator.undone();
+            if (aborted) return 0;
+            if (score >= beta) {
+                Metrics.CUTOFFS.increment();
+                return score;
+            }
+            if (score > alpha) alpha = score;
+        }
+        if (inCheck && !any) return -(MATE - ply);
+        return alpha;
+    }
+
+    private void commit(SearchEvent event, Metrics.Sample before, Move best, int score) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        // contadores globais: com várias threads buscando ao mesmo tempo, inclui as demais
+        Metrics.Sample d = Metrics.sample().since(before);
+        event.depth = completedDepth;
+        event.nodes = nodes;
+        event.qnodes = d.qnodes;
+        event.ttProbes = d.ttProbes;
+        event.ttHits = d.ttHits;
+        event.cutoffs = d.cutoffs;
+        event.score = score;
+        event.bestMove = best == null ? null : best.getFrom() + "" + best.getTo();
+        event.commit();
+    }
+
+    private void checkLimits() {
+        if (stopRequested
+                || cancel.get()
+                || (nodeLimit > 0 && nodes >= nodeLimit)
+                || completedDepth >= depthLimit
+                || (deadlineNanos != 0L && System.nanoTime() >= deadlineNanos)) {
+            aborted = true;
+        }
+    }
+
+    // Lance esperado do adversário depois de `best` (tirado da TT), usado para ponder
+    private Move expectedReply(Game work, Move best) {
+        if (best == null) return null;
+        work.move(best);
+        Move reply = null;
+        int code = TranspositionTable.move(tt.probe(work.zobristKey()));
+        if (code != 0) {
+            for (Move m : work.legalMoves()) {
+                if (m.code() == code) {
+                    reply = m;
+                    break;
+                }
+            }
+        }
+        work.undo();
+        return reply;
+    }
+
+    // Variação a partir de `first`, seguindo os lances da TT (até `maxPlies`, sem repetir posição)
+    private List<Move> principalVariation(Game work, Move first, int maxPlies) {
+        List<Move> pv = new ArrayList<>();
+        List<Long> seen = new ArrayList<>();
+        seen.add(work.zobristKey());
+        Move m = first;
+        while (m != null && pv.size() < maxPlies) {
+            work.move(m);
+            pv.add(m);
+            if (seen.contains(work.zobristKey())) break;
+            seen.add(work.zobristKey());
+            int code = TranspositionTable.move(tt.probe(work.zobristKey()));
+            m = null;
+            if (code != 0) {
+                for (Move r : work.legalMoves()) {
+                    if (r.code() == code) {
+                        m = r;
+                        break;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < pv.size(); i++) work.undo();
+        return pv;
+    }
+
+    // Mate (lado a jogar sem saída e em xeque) ou empate (afogamento, material insuficiente)
+    private int terminalScore(Game g, int ply) {
+        return g.inCheck(g.whiteToMove()) ? -(MATE - ply) : 0;
+    }
+
+    // Scores de mate são guardados relativos ao nó (independentes do ply da raiz)
+    private static int toTT(int score, int ply) {
+        if (score >= MATE - SearchLimits.MAX_DEPTH * 2) return score + ply;
+        if (score <= -MATE + SearchLimits.MAX_DEPTH * 2) return score - ply;
+        return score;
+    }
+
+    private static int fromTT(int score, int ply) {
+        if (score >= MATE - SearchLimits.MAX_DEPTH * 2) return score - ply;
+        if (score <= -MATE + SearchLimits.MAX_DEPTH * 2) return score + ply;
+        return score;
+    }
+
+    // Lance da TT primeiro, depois capturas (MVV-LVA), promoções e o resto
+    private List<Move> orderMoves(List<Move> moves, int ttMove) {
+        List<Move> out = new ArrayList<>(moves);
+        out.sort((a, b) -> Integer.compare(orderKey(b, ttMove), orderKey(a, ttMove)));
+        return out;
+    }
+
+    private int orderKey(Move m, int ttMove) {
+        if (ttMove != 0 && m.code() == ttMove) return Integer.MAX_VALUE;
+        return MovePicker.score(m);
+    }
+}
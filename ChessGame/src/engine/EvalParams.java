@@ -0,0 +1,71 @@
+package engine;
+
+/**
+ * Parâmetros da avaliação clássica. Gerado por tools.Texel; não edite à mão.
+ * Origem: valores da heurística original (material + bônus de centralização), sem ajuste.
+ */
+public final class EvalParams {
+
+    private EvalParams() { /* tabela */ }
+
+    /** Valor material por tipo: P, N, B, R, Q, K. */
+    public static final int[] PIECE_VALUE = { 100, 300, 300, 500, 900, 20000 };
+
+    /** Bônus por casa do ponto de vista das brancas (linha 0 = 8ª fileira), 64 por tipo na ordem acima. */
+    public static final int[] PST = {
+        // P
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+        // N
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+        // B
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+        // R
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+        // Q
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+        // K
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,   10,   10,    4,    0,    0,
+           0,    0,    4,    4,    4,    4,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+           0,    0,    0,    0,    0,    0,    0,    0,
+    };
+}
@@ -0,0 +1,26 @@
+package engine;
+
+import controller.Game;
+import model.board.Move;
+
+/**
+ * Função de avaliação estática usada pela busca.
+ * O valor é sempre do ponto de vista de quem tem a vez (positivo = bom para o lado a jogar).
+ *
+ * Avaliadores incrementais (NNUE) acompanham a busca pelos ganchos abaixo: a Engine chama
+ * reset na raiz e moved/undone a cada lance feito/desfeito na cópia de trabalho.
+ * Uma instância com estado pertence a uma única Engine (uma por thread).
+ */
+public interface Evaluator {
+
+    int evaluate(Game game);
+
+    /** Início de uma busca: `game` é a cópia de trabalho que será feita/desfeita. */
+    default void reset(Game game) { }
+
+    /** Depois de game.move(m) na cópia de trabalho. */
+    default void moved(Game game, Move m) { }
+
+    /** Depois de game.undo() na cópia de trabalho. */
+    default void undone() { }
+}
@@ -0,0 +1,195 @@
+package engine;
+
+import controller.Game;
+import controller.GameSnapshot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import notation.San;
+
+/**
+ * Revisão de uma partida terminada: cada posição (Game.positions()) é analisada com o mesmo
+ * orçamento num pool de threads, uma Engine por thread, todas sobre uma única TT
+ * (posições vizinhas compartilham quase toda a árvore).
+ *
+ * O lance do ply i é julgado assim que as posições i e i+1 estão prontas, pela queda da
+ * avaliação do ponto de vista de quem jogou (scores limitados a ±CAP, para que mates não
+ * distorçam a queda); os lances saem por `progress` na ordem em que ficam prontos.
+ */
+public final class GameReview implements AutoCloseable {
+
+    /** Queda mínima (centipeões) de cada veredito. */
+    public static final int INACCURACY_DROP = 50;
+    public static final int MISTAKE_DROP = 100;
+    public static final int BLUNDER_DROP = 200;
+    private static final int CAP = 1000;
+
+    public enum Verdict {
+        BEST(""), GOOD(""), INACCURACY("?!"), MISTAKE("?"), BLUNDER("??");
+
+        private final String symbol;
+
+        Verdict(String symbol) { this.symbol = symbol; }
+
+        public String symbol() { return symbol; }
+    }
+
+    /** Julgamento de um lance; scores em centipeões do ponto de vista de quem jogou. */
+    public static final class MoveReview {
+        private final int ply;
+        private final boolean white;
+        private final int moveNumber;
+        private final String san;
+        private final int before;
+        private final int after;
+        private final String bestSan;
+        private final Verdict verdict;
+
+        MoveReview(int ply, boolean white, int moveNumber, String san, int before, int after,
+                   String bestSan, Verdict verdict) {
+            this.ply = ply;
+            this.white = white;
+            this.moveNumber = moveNumber;
+            this.san = san;
+            this.before = before;
+            this.after = after;
+            this.bestSan = bestSan;
+            this.verdict = verdict;
+        }
+
+        /** 0 = primeiro lance da partida (das pretas, se ela começa num FEN com as pretas a jogar). */
+        public int getPly() { return ply; }
+        /** Quem jogou o lance, pelo lado a jogar na posição anterior. */
+        public boolean isWhite() { return white; }
+        /** Número do lance na notação (1 para o primeiro lance de cada lado). */
+        public int getMoveNumber() { return moveNumber; }
+        public String getSan() { return san; }
+        public int getBefore() { return before; }
+        public int getAfter() { return after; }
+        public int getLoss() { return Math.max(0, before - after); }
+        public String getBestSan() { return bestSan; }
+        public Verdict getVerdict() { return verdict; }
+
+        @Override
+        public String toString() {
+            return moveNumber + (white ? ". " : "... ") + san + verdict.symbol()
+                    + " (" + before + " -> " + after + ", melhor " + bestSan + ")";
+        }
+    }
+
+    private final TranspositionTable tt;
+    private final ExecutorService pool;
+    // estado de busca reaproveitado entre posições e revisões (uma Engine por thread do pool)
+    private final ThreadLocal<Engine> engines;
+
+    public GameReview() {
+        this(Runtime.getRuntime().availableProcessors(), 64);
+    }
+
+    public GameReview(int threads, int hashMegabytes) {
+        this.tt = new TranspositionTable(hashMegabytes);
+        this.engines = ThreadLocal.withInitial(() -> new Engine(new ClassicalEvaluator(), tt));
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "chess-review");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Agenda a revisão de `positions` (da primeira à final, como em Game.positions()), cada
+     * posição com os limites `perPosition`. `progress` (opcional) recebe cada lance julgado,
+     * numa thread do pool e fora de ordem; o future completa com todos os lances em ordem.
+     * Cancelar o future aborta as buscas em andamento e as que ainda não começaram.
+     */
+    public CompletableFuture<List<MoveReview>> review(List<GameSnapshot> positions, SearchLimits perPosition,
+                                                      Consumer<MoveReview> progress) {
+        int plies = positions.size() - 1;
+        CompletableFuture<List<MoveReview>> future = new CompletableFuture<>();
+        if (plies < 1) {
+            future.complete(List.of());
+            return future;
+        }
+
+        AtomicBoolean cancel = new AtomicBoolean();
+        future.whenComplete((r, t) -> {
+            if (t instanceof CancellationException) cancel.set(true);
+        });
+
+        int[] scores = new int[plies + 1];
+        String[] bestSan = new String[plies + 1];
+        MoveReview[] reviews = new MoveReview[plies];
+        AtomicIntegerArray ready = new AtomicIntegerArray(plies); // posições prontas de cada lance (0..2)
+        AtomicInteger remaining = new AtomicInteger(plies);
+
+        for (int i = 0; i <= plies; i++) {
+            final int index = i;
+            pool.execute(() -> {
+                if (cancel.get()) return;
+                try {
+                    analyse(positions.get(index), perPosition, cancel, scores, bestSan, index);
+                    if (cancel.get()) return;
+                    // o lance que chega nesta posição e o que sai dela
+                    for (int ply = Math.max(0, index - 1); ply <= Math.min(plies - 1, index); ply++) {
+                        if (ready.incrementAndGet(ply) < 2) continue;
+                        reviews[ply] = judge(positions, ply, scores, bestSan);
+                        if (progress != null) progress.accept(reviews[ply]);
+                        if (remaining.decrementAndGet() == 0) future.complete(Arrays.asList(reviews));
+                    }
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        }
+        return future;
+    }
+
+    // Score (lado a jogar) e melhor lance de uma posição; a escrita nos arrays é publicada
+    // para quem julga o lance pelo incrementAndGet de `ready`
+    private void analyse(GameSnapshot position, SearchLimits limits, AtomicBoolean cancel,
+                         int[] scores, String[] bestSan, int index) {
+        Game g = position.toGame();
+        SearchResult r = engines.get().search(g, limits, cancel);
+        scores[index] = Math.max(-CAP, Math.min(CAP, r.getScore()));
+        bestSan[index] = r.getBestMove() == null ? "-" : San.format(g, r.getBestMove());
+    }
+
+    private static MoveReview judge(List<GameSnapshot> positions, int ply, int[] scores, String[] bestSan) {
+        String san = positions.get(ply + 1).lastSan();
+        boolean white = positions.get(ply).whiteToMove();
+        // partida que começa com as pretas a jogar: o ply 0 é "1...", o ply 1 é "2."
+        int moveNumber = (ply + (positions.get(0).whiteToMove() ? 0 : 1)) / 2 + 1;
+        int before = scores[ply];
+        int after = -scores[ply + 1];
+        int loss = before - after;
+        Verdict v;
+        if (san.equals(bestSan[ply])) v = Verdict.BEST;
+        else if (loss >= BLUNDER_DROP) v = Verdict.BLUNDER;
+        else if (loss >= MISTAKE_DROP) v = Verdict.MISTAKE;
+        else if (loss >= INACCURACY_DROP) v = Verdict.INACCURACY;
+        else v = Verdict.GOOD;
+        return new MoveReview(ply, white, moveNumber, san, before, after, bestSan[ply], v);
+    }
+
+    /** Lances marcados (imprecisões, erros e erros graves), em ordem. */
+    public static List<MoveReview> flagged(List<MoveReview> reviews) {
+        List<MoveReview> out = new ArrayList<>();
+        for (MoveReview r : reviews) {
+            if (r != null && r.getVerdict().compareTo(Verdict.INACCURACY) >= 0) out.add(r);
+        }
+        return out;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
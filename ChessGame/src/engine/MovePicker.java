@@ -0,0 +1,162 @@
+package engine;
+
+import controller.Game;
+import java.util.ArrayList;
+import java.util.List;
+import model.board.Move;
+
+/**
+ * Seletor de lances em estágios para a busca, na ordem:
+ *   1. lance da TT;
+ *   2. capturas boas (e promoções a dama), por MVV-LVA;
+ *   3. killers (lances quietos que causaram corte no mesmo ply);
+ *   4. lances quietos;
+ *   5. capturas ruins: peça mais valiosa tomando peça defendida, e subpromoções.
+ *
+ * Cada estágio só é gerado quando o anterior se esgota, e a legalidade (rei em xeque) é
+ * testada lance a lance, na hora de entregar: num corte beta logo no lance da TT nada mais
+ * é gerado nem verificado. Lances da TT e killers vêm de outras posições e são validados
+ * contra a posição atual antes de sair. Um picker por nó (não é reutilizável).
+ *
+ * capturesOnly (busca quiescente): só os estágios 1 e 2, com todas as capturas e promoções.
+ */
+final class MovePicker {
+
+    private static final int TT = 0, GEN_CAPTURES = 1, GOOD_CAPTURES = 2, KILLERS = 3,
+            GEN_QUIETS = 4, QUIETS = 5, BAD_CAPTURES = 6, DONE = 7;
+
+    private final Game game;
+    private final int ttMove;
+    private final int[] killers;
+    private final boolean capturesOnly;
+    private int stage = TT;
+
+    private final List<Move> moves = new ArrayList<>();
+    private int[] scores;
+    private int cursor;
+    private final List<Move> badCaptures = new ArrayList<>();
+    private int killerIndex;
+
+    MovePicker(Game game, int ttMove, int[] killers, boolean capturesOnly) {
+        this.game = game;
+        this.ttMove = ttMove;
+        this.killers = killers;
+        this.capturesOnly = capturesOnly;
+    }
+
+    /** Próximo lance legal, ou null quando não há mais. */
+    Move next() {
+        while (true) {
+            switch (stage) {
+                case TT: {
+                    stage = GEN_CAPTURES;
+                    Move m = game.pseudoLegalMove(ttMove);
+                    if (m != null && (!capturesOnly || isTactical(m)) && game.isLegal(m)) return m;
+                    break;
+                }
+                case GEN_CAPTURES:
+                    game.pseudoLegalMoves(true, moves);
+                    scores = new int[moves.size()];
+                    for (int i = 0; i < scores.length; i++) scores[i] = score(moves.get(i));
+                    stage = GOOD_CAPTURES;
+                    break;
+                case GOOD_CAPTURES: {
+                    Move m = pickBest();
+                    if (m == null) {
+                        stage = capturesOnly ? DONE : KILLERS;
+                    } else if (m.code() == ttMove) {
+                        continue;
+                    } else if (!capturesOnly && isBad(m)) {
+                        badCaptures.add(m); // já em ordem de score
+                    } else if (game.isLegal(m)) {
+                        return m;
+                    }
+                    break;
+                }
+                case KILLERS: {
+                    if (killerIndex == killers.length) {
+                        stage = GEN_QUIETS;
+                        break;
+                    }
+                    int code = killers[killerIndex++];
+                    if (code == 0 || code == ttMove) break;
+                    Move m = game.pseudoLegalMove(code);
+                    if (m != null && !isTactical(m) && game.isLegal(m)) return m;
+                    break;
+                }
+                case GEN_QUIETS:
+                    moves.clear();
+                    cursor = 0;
+                    game.pseudoLegalMoves(false, moves);
+                    stage = QUIETS;
+                    break;
+                case QUIETS: {
+                    if (cursor == moves.size()) {
+                        cursor = 0;
+                        stage = BAD_CAPTURES;
+                        break;
+                    }
+                    Move m = moves.get(cursor++);
+                    if (m.code() != ttMove && !isKiller(m.code()) && game.isLegal(m)) return m;
+                    break;
+                }
+                case BAD_CAPTURES: {
+                    if (cursor == badCaptures.size()) {
+                        stage = DONE;
+                        break;
+                    }
+                    Move m = badCaptures.get(cursor++);
+                    if (game.isLegal(m)) return m;
+                    break;
+                }
+                default:
+                    return null;
+            }
+        }
+    }
+
+    // Seleção do maior score restante (troca para a posição do cursor): só ordena o que for usado
+    private Move pickBest() {
+        if (cursor == moves.size()) return null;
+        int best = cursor;
+        for (int i = cursor + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        Move m = moves.get(best);
+        moves.set(best, moves.get(cursor));
+        moves.set(cursor, m);
+        int s = scores[best];
+        scores[best] = scores[cursor];
+        scores[cursor] = s;
+        cursor++;
+        return m;
+    }
+
+    private boolean isKiller(int code) {
+        for (int k : killers) {
+            if (k == code) return true;
+        }
+        return false;
+    }
+
+    // Peça mais valiosa tomando peça defendida (perde material se houver recaptura), ou subpromoção
+    private boolean isBad(Move m) {
+        if (m.getPromotion() != null) return m.getPromotion() != 'Q';
+        return ClassicalEvaluator.pieceValue(m.getCaptured()) < ClassicalEvaluator.pieceValue(m.getMoved())
+                && game.attackedBy(m.getTo(), !m.getMoved().isWhite());
+    }
+
+    static boolean isTactical(Move m) {
+        return m.getCaptured() != null || m.getPromotion() != null;
+    }
+
+    /** MVV-LVA: vítima mais valiosa primeiro, atacante mais barato desempata; dama promovida no topo. */
+    static int score(Move m) {
+        int key = 0;
+        if (m.getCaptured() != null) {
+            key += 10 * ClassicalEvaluator.pieceValue(m.getCaptured()) - ClassicalEvaluator.pieceValue(m.getMoved()) / 100;
+        }
+        if (m.getPromotion() != null && m.getPromotion() == 'Q') key += 8000;
+        return key;
+    }
+}
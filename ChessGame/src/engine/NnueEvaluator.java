@@ -0,0 +1,188 @@
+package engine;
+
+import controller.Game;
+import java.util.Arrays;
+import model.board.Board;
+import model.board.Move;
+import model.board.Position;
+import model.pieces.Piece;
+
+/**
+ * Avaliação neural (NNUE) com acumulador incremental.
+ *
+ * A cada lance da busca (moved) o acumulador do nível de cima é copiado e só as
+ * entradas que mudaram (origem, destino, captura, torre do roque) são somadas ou
+ * subtraídas; undone apenas volta um nível. Quando o rei de um lado se move, as
+ * entradas daquele lado mudam todas e só a perspectiva dele é recalculada.
+ *
+ * Estado por instância: use um NnueEvaluator por Engine. A rede é compartilhada.
+ */
+public final class NnueEvaluator implements Evaluator {
+
+    private static final int WHITE = 0, BLACK = 1;
+
+    private final NnueNetwork net;
+    private final NnueKernel kernel;
+
+    // pilha de acumuladores por nível: acc[nível][perspectiva][neurônio]
+    private short[][][] acc = new short[64][][];
+    private int[][] kingSq = new int[64][];   // casa do rei de cada lado, relativa à perspectiva
+    private int top;
+    private Game tracked;                      // cópia de trabalho acompanhada (null = nenhuma)
+
+    public NnueEvaluator() {
+        this(NnueNetwork.classical());
+    }
+
+    public NnueEvaluator(NnueNetwork net) {
+        this.net = net;
+        this.kernel = NnueKernel.best();
+    }
+
+    public String kernelName() { return kernel.name(); }
+
+    @Override
+    public int evaluate(Game game) {
+        if (game != tracked) {
+            // fora da busca: calcula do zero num nível de rascunho
+            top = 0;
+            tracked = null;
+            refresh(game.board(), 0, WHITE);
+            refresh(game.board(), 0, BLACK);
+        }
+        short[][] a = acc[top];
+        int us = game.whiteToMove() ? WHITE : BLACK;
+        long sum = kernel.clippedDot(a[us], net.clip, net.output, 0)
+                + kernel.clippedDot(a[us ^ 1], net.clip, net.output, net.hidden)
+                + net.outBias;
+        return (int) (sum / net.outDiv);
+    }
+
+    @Override
+    public void reset(Game game) {
+        top = 0;
+        tracked = game;
+        refresh(game.board(), 0, WHITE);
+        refresh(game.board(), 0, BLACK);
+    }
+
+    @Override
+    public void moved(Game game, Move m) {
+        if (game != tracked) return;
+        int prev = top++;
+        ensureLevel(top);
+        short[][] a = acc[top];
+        System.arraycopy(acc[prev][WHITE], 0, a[WHITE], 0, net.hidden);
+        System.arraycopy(acc[prev][BLACK], 0, a[BLACK], 0, net.hidden);
+        kingSq[top][WHITE] = kingSq[prev][WHITE];
+        kingSq[top][BLACK] = kingSq[prev][BLACK];
+
+        Piece mover = m.getMoved();
+        int side = mover.isWhite() ? WHITE : BLACK;
+        int type = ClassicalEvaluator.typeIndex(mover);
+        Position from = m.getFrom(), to = m.getTo();
+
+        if (type == 5) {
+            // rei: a perspectiva do dono é recalculada; para o outro lado o rei não é entrada
+            refresh(game.board(), top, side);
+            update(top, side ^ 1, m, side);
+            return;
+        }
+        boolean promo = type == 0 && (to.getRow() == 0 || to.getRow() == 7); // sem letra = dama, como no Game
+        int toType = promo ? promotedType(m.getPromotion() == null ? 'Q' : m.getPromotion()) : type;
+        for (int p = WHITE; p <= BLACK; p++) {
+            remove(top, p, side, type, from);
+            add(top, p, side, toType, to);
+            update(top, p, m, side);
+        }
+    }
+
+    @Override
+    public void undone() {
+        if (tracked != null && top > 0) top--;
+    }
+
+    // --------- Acumulador ----------
+
+    // captura e torre do roque, para a perspectiva `p` (o lance é de `side`)
+    private void update(int level, int p, Move m, int side) {
+        Piece cap = m.getCaptured();
+        if (cap != null) {
+            Position at = m.isEnPassant()
+                    ? new Position(m.getTo().getRow() + (side == WHITE ? 1 : -1), m.getTo().getColumn())
+                    : m.getTo();
+            remove(level, p, side ^ 1, ClassicalEvaluator.typeIndex(cap), at);
+        }
+        if (m.isCastleKingSide() || m.isCastleQueenSide()) {
+            int row = m.getFrom().getRow();
+            boolean king = m.isCastleKingSide();
+            remove(level, p, side, 3, new Position(row, king ? 7 : 0));
+            add(level, p, side, 3, new Position(row, king ? 5 : 3));
+        }
+    }
+
+    private void add(int level, int p, int owner, int type, Position sq) {
+        kernel.add(acc[level][p], net.weights, row(level, p, owner, type, sq));
+    }
+
+    private void remove(int level, int p, int owner, int type, Position sq) {
+        kernel.sub(acc[level][p], net.weights, row(level, p, owner, type, sq));
+    }
+
+    private int row(int level, int p, int owner, int type, Position sq) {
+        int kind = owner == p ? type : 5 + type;
+        return NnueNetwork.feature(kingSq[level][p], kind, relative(p, sq.getRow(), sq.getColumn())) * net.hidden;
+    }
+
+    // perspectiva `p` do zero a partir do tabuleiro (acha também o rei)
+    private void refresh(Board board, int level, int p) {
+        ensureLevel(level);
+        short[] a = acc[level][p];
+        System.arraycopy(net.bias, 0, a, 0, net.hidden);
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece pc = board.get(new Position(r, c));
+                if (pc != null && ClassicalEvaluator.typeIndex(pc) == 5) {
+                    kingSq[level][pc.isWhite() ? WHITE : BLACK] = relative(pc.isWhite() ? WHITE : BLACK, r, c);
+                }
+            }
+        }
+        int ksq = kingSq[level][p];
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece pc = board.get(new Position(r, c));
+                if (pc == null) continue;
+                int type = ClassicalEvaluator.typeIndex(pc);
+                if (type == 5) continue;
+                int owner = pc.isWhite() ? WHITE : BLACK;
+                int kind = owner == p ? type : 5 + type;
+                kernel.add(a, net.weights, NnueNetwork.feature(ksq, kind, relative(p, r, c)) * net.hidden);
+            }
+        }
+    }
+
+    private void ensureLevel(int level) {
+        if (level >= acc.length) {
+            acc = Arrays.copyOf(acc, acc.length * 2);
+            kingSq = Arrays.copyOf(kingSq, kingSq.length * 2);
+        }
+        if (acc[level] == null) {
+            acc[level] = new short[][] { new short[net.hidden], new short[net.hidden] };
+            kingSq[level] = new int[2];
+        }
+    }
+
+    // casa relativa à perspectiva: as pretas veem o tabuleiro espelhado na vertical
+    private static int relative(int p, int row, int col) {
+        return (p == WHITE ? row : 7 - row) * 8 + col;
+    }
+
+    private static int promotedType(char promo) {
+        switch (Character.toUpperCase(promo)) {
+            case 'R': return 3;
+            case 'B': return 2;
+            case 'N': return 1;
+            default:  return 4;
+        }
+    }
+}
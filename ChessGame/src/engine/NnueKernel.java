@@ -0,0 +1,66 @@
+package engine;
+
+/**
+ * Operações vetoriais da inferência NNUE sobre int16.
+ *
+ * best() usa NnueVectorKernel (jdk.incubator.vector) quando essa classe foi compilada e o
+ * módulo está presente em tempo de execução (--add-modules jdk.incubator.vector);
+ * caso contrário, o laço escalar abaixo (que o JIT ainda pode autovetorizar).
+ */
+interface NnueKernel {
+
+    /** acc[i] += w[off + i] para i < acc.length. */
+    void add(short[] acc, short[] w, int off);
+
+    /** acc[i] -= w[off + i] para i < acc.length. */
+    void sub(short[] acc, short[] w, int off);
+
+    /** Soma de clamp(acc[i], 0, clip) * w[off + i] (ReLU recortada + camada de saída). */
+    int clippedDot(short[] acc, int clip, short[] w, int off);
+
+    String name();
+
+    NnueKernel SCALAR = new NnueKernel() {
+        @Override
+        public void add(short[] acc, short[] w, int off) {
+            for (int i = 0; i < acc.length; i++) acc[i] += w[off + i];
+        }
+
+        @Override
+        public void sub(short[] acc, short[] w, int off) {
+            for (int i = 0; i < acc.length; i++) acc[i] -= w[off + i];
+        }
+
+        @Override
+        public int clippedDot(short[] acc, int clip, short[] w, int off) {
+            int sum = 0;
+            for (int i = 0; i < acc.length; i++) {
+                sum += Math.max(0, Math.min(clip, acc[i])) * w[off + i];
+            }
+            return sum;
+        }
+
+        @Override
+        public String name() { return "scalar"; }
+    };
+
+    static NnueKernel best() {
+        return Holder.BEST;
+    }
+
+    // resolvido uma vez, na primeira avaliação NNUE
+    final class Holder {
+        static final NnueKernel BEST = load();
+
+        private Holder() { }
+
+        private static NnueKernel load() {
+            try {
+                return (NnueKernel) Class.forName("engine.NnueVectorKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // classe não compilada ou módulo incubator ausente
+                return SCALAR;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pesos quantizados (int16) de uma rede estilo NNUE com entradas HalfKP:
+ * para cada perspectiva, (casa do próprio rei, tipo da peça e de quem é, casa da peça),
+ * reis excluídos: 64 × 10 × 64 = 40960 entradas, todas esparsas.
+ *
+ *   acumulador[p] = bias + soma das linhas de pesos das entradas ativas de p
+ *   saída = (clippedDot(acc[lado a jogar], saída[0..H)) + clippedDot(acc[outro], saída[H..2H)) + outBias) / outDiv
+ *
+ * Casas são relativas à perspectiva (espelhadas na vertical para as pretas), então uma
+ * única matriz serve aos dois lados. Imutável e compartilhável entre threads.
+ *
+ * Arquivo (little-endian): "XNN1", int hidden, int clip, int outBias, int outDiv,
+ * short[40960 * hidden] pesos (por entrada), short[hidden] bias, short[2 * hidden] saída.
+ */
+public final class NnueNetwork {
+
+    public static final int KINDS = 10;           // P N B R Q próprios, depois P N B R Q do adversário
+    public static final int FEATURES = 64 * KINDS * 64;
+    private static final int MAGIC = 0x314E4E58; // "XNN1"
+
+    final int hidden;
+    final int clip;
+    final int outBias;
+    final int outDiv;
+    final short[] weights;    // [feature * hidden + j]
+    final short[] bias;       // [hidden]
+    final short[] output;     // [2 * hidden]
+
+    private static NnueNetwork classical;
+
+    NnueNetwork(int hidden, int clip, int outBias, int outDiv, short[] weights, short[] bias, short[] output) {
+        if (weights.length != FEATURES * hidden || bias.length != hidden || output.length != 2 * hidden || outDiv <= 0) {
+            throw new IllegalArgumentException("Dimensões inválidas para a rede NNUE");
+        }
+        this.hidden = hidden;
+        this.clip = clip;
+        this.outBias = outBias;
+        this.outDiv = outDiv;
+        this.weights = weights;
+        this.bias = bias;
+        this.output = output;
+    }
+
+    public int hidden() { return hidden; }
+
+    /** Índice da entrada HalfKP; casas já relativas à perspectiva, kind em 0..9. */
+    static int feature(int kingSq, int kind, int sq) {
+        return (kingSq * KINDS + kind) * 64 + sq;
+    }
+
+    // --------- Arquivo ----------
+
+    public static NnueNetwork load(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.remaining() < 20 || map.getInt() != MAGIC) throw new IOException("Não é uma rede XNN1: " + file);
+            int hidden = map.getInt(), clip = map.getInt(), outBias = map.getInt(), outDiv = map.getInt();
+            long expected = 20L + 2L * ((long) FEATURES * hidden + 3L * hidden);
+            if (hidden <= 0 || ch.size() != expected) throw new IOException("Tamanho inesperado da rede: " + file);
+            short[] w = new short[FEATURES * hidden], b = new short[hidden], o = new short[2 * hidden];
+            map.asShortBuffer().get(w).get(b).get(o);
+            return new NnueNetwork(hidden, clip, outBias, outDiv, w, b, o);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(20 + 2 * (weights.length + bias.length + output.length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(hidden).putInt(clip).putInt(outBias).putInt(outDiv);
+        buf.asShortBuffer().put(weights).put(bias).put(output);
+        buf.rewind(); // a visão de shorts não move a posição do buffer: grava desde o cabeçalho
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    // --------- Rede derivada da avaliação clássica ----------
+
+    /**
+     * Rede que reproduz o material e as casas de EvalParams (sem o bônus de casa dos reis
+     * nem a estrutura de peões), para uso sem arquivo treinado. Cada perspectiva soma o valor (material + casa) das
+     * próprias peças e das do adversário em duas faixas de `SEGMENTS` neurônios: o neurônio k
+     * vale clamp(total - clip·k, 0, clip), então a soma da faixa devolve o total exato.
+     */
+    public static synchronized NnueNetwork classical() {
+        if (classical == null) classical = fromEvalParams();
+        return classical;
+    }
+
+    private static final int SEGMENTS = 40;
+    private static final int CLASSICAL_CLIP = 255;
+
+    private static NnueNetwork fromEvalParams() {
+        int hidden = 2 * SEGMENTS;
+        short[] w = new short[FEATURES * hidden];
+        for (int k = 0; k < 64; k++) {
+            for (int kind = 0; kind < KINDS; kind++) {
+                boolean own = kind < 5;
+                int type = own ? kind : kind - 5;
+                for (int sq = 0; sq < 64; sq++) {
+                    // tabela do ponto de vista do dono da peça: a do adversário está espelhada
+                    int v = EvalParams.PIECE_VALUE[type] + EvalParams.PST[type * 64 + (own ? sq : sq ^ 56)];
+                    int base = feature(k, kind, sq) * hidden + (own ? 0 : SEGMENTS);
+                    for (int j = 0; j < SEGMENTS; j++) w[base + j] = (short) v;
+                }
+            }
+        }
+        short[] b = new short[hidden], o = new short[2 * hidden];
+        for (int j = 0; j < SEGMENTS; j++) {
+            b[j] = b[SEGMENTS + j] = (short) (-CLASSICAL_CLIP * j);
+            o[j] = 1;              // próprias peças do lado a jogar
+            o[SEGMENTS + j] = -1;  // peças do adversário
+        }
+        return new NnueNetwork(hidden, CLASSICAL_CLIP, 0, 1, w, b, o);
+    }
+}
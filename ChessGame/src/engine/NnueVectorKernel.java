@@ -0,0 +1,63 @@
+package engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * NnueKernel com a Vector API (incubator no JDK 17), na largura preferida da CPU
+ * (SSE/AVX2/AVX-512 no x86, NEON no ARM).
+ *
+ * Fica fora de sources.txt para o build padrão não depender do módulo incubator:
+ *   javac --add-modules jdk.incubator.vector -encoding UTF-8 -cp out -d out @sources-simd.txt
+ *   java --add-modules jdk.incubator.vector -cp out ...
+ * Sem isso NnueKernel.best() cai no kernel escalar.
+ */
+final class NnueVectorKernel implements NnueKernel {
+
+    private static final VectorSpecies<Short> S = ShortVector.SPECIES_PREFERRED;
+    // mesma largura em bits: cada vetor de shorts vira `PARTS` vetores de ints
+    private static final VectorSpecies<Integer> I = IntVector.SPECIES_PREFERRED;
+    private static final int PARTS = S.length() / I.length();
+
+    @Override
+    public void add(short[] acc, short[] w, int off) {
+        int i = 0;
+        for (int bound = S.loopBound(acc.length); i < bound; i += S.length()) {
+            ShortVector.fromArray(S, acc, i).add(ShortVector.fromArray(S, w, off + i)).intoArray(acc, i);
+        }
+        for (; i < acc.length; i++) acc[i] += w[off + i];
+    }
+
+    @Override
+    public void sub(short[] acc, short[] w, int off) {
+        int i = 0;
+        for (int bound = S.loopBound(acc.length); i < bound; i += S.length()) {
+            ShortVector.fromArray(S, acc, i).sub(ShortVector.fromArray(S, w, off + i)).intoArray(acc, i);
+        }
+        for (; i < acc.length; i++) acc[i] -= w[off + i];
+    }
+
+    @Override
+    public int clippedDot(short[] acc, int clip, short[] w, int off) {
+        IntVector sum = IntVector.zero(I);
+        short lo = 0, hi = (short) clip;
+        int i = 0;
+        for (int bound = S.loopBound(acc.length); i < bound; i += S.length()) {
+            ShortVector a = ShortVector.fromArray(S, acc, i).max(lo).min(hi);
+            ShortVector b = ShortVector.fromArray(S, w, off + i);
+            for (int p = 0; p < PARTS; p++) {
+                IntVector ai = (IntVector) a.convertShape(VectorOperators.S2I, I, p);
+                IntVector bi = (IntVector) b.convertShape(VectorOperators.S2I, I, p);
+                sum = sum.add(ai.mul(bi));
+            }
+        }
+        int total = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < acc.length; i++) total += Math.max(0, Math.min(clip, acc[i])) * w[off + i];
+        return total;
+    }
+
+    @Override
+    public String name() { return "vector-" + S.vectorBitSize(); }
+}
@@ -0,0 +1,103 @@
+package engine;
+
+import metrics.Metrics;
+
+/**
+ * Cache da estrutura de peões, indexado pela chave Zobrist só dos peões (Game.pawnKey()).
+ *
+ * A estrutura muda em poucos lances (só lances e capturas de peão), então quase toda
+ * avaliação da busca acha a entrada pronta. Tabela de tamanho fixo em arrays primitivos,
+ * substituição sempre; cada entrada guarda a chave completa, o score (brancas - pretas)
+ * e as máscaras de peões passados (bit = linha * 8 + coluna).
+ *
+ * Não é thread-safe: uma tabela por avaliador (uma por Engine).
+ */
+final class PawnTable {
+
+    // --------- Termos de estrutura (centipeões, por peão) ----------
+    static final int DOUBLED = 12;
+    static final int ISOLATED = 10;
+    // peão passado por fileira relativa (0 = 1ª fileira do dono ... 7 = 8ª)
+    static final int[] PASSED = { 0, 5, 10, 15, 25, 45, 75, 0 };
+
+    private static final long FILE_A = 0x0101010101010101L;
+
+    private final long[] keys;
+    private final int[] scores;
+    private final long[] passedWhite, passedBlack;
+    private final int mask;
+
+    // resultado da última consulta
+    private int score;
+    private long lastPassedWhite, lastPassedBlack;
+
+    PawnTable(int entriesLog2) {
+        int n = 1 << entriesLog2;
+        keys = new long[n];
+        scores = new int[n];
+        passedWhite = new long[n];
+        passedBlack = new long[n];
+        mask = n - 1;
+        keys[0] = 1L; // a chave 0 (sem peões) não pode achar a entrada vazia por engano
+    }
+
+    /**
+     * Carrega a estrutura para a chave `key`; em caso de falta calcula a partir dos
+     * bitboards de peões (só são lidos numa falta) e grava a entrada.
+     */
+    void probe(long key, long whitePawns, long blackPawns) {
+        Metrics.PAWN_PROBES.increment();
+        int i = (int) key & mask;
+        if (keys[i] == key) {
+            Metrics.PAWN_HITS.increment();
+        } else {
+            evaluate(whitePawns, blackPawns);
+            keys[i] = key;
+            scores[i] = score;
+            passedWhite[i] = lastPassedWhite;
+            passedBlack[i] = lastPassedBlack;
+        }
+        score = scores[i];
+        lastPassedWhite = passedWhite[i];
+        lastPassedBlack = passedBlack[i];
+    }
+
+    int score() { return score; }
+    long passedWhite() { return lastPassedWhite; }
+    long passedBlack() { return lastPassedBlack; }
+
+    // --------- Cálculo (falta na tabela) ----------
+
+    private void evaluate(long white, long black) {
+        lastPassedWhite = passed(white, black, true);
+        lastPassedBlack = passed(black, white, false);
+        int s = 0;
+        for (int col = 0; col < 8; col++) {
+            long file = FILE_A << col;
+            long adj = (col > 0 ? file >>> 1 : 0) | (col < 7 ? file << 1 : 0);
+            int w = Long.bitCount(white & file), b = Long.bitCount(black & file);
+            if (w > 1) s -= DOUBLED * (w - 1);
+            if (b > 1) s += DOUBLED * (b - 1);
+            if (w > 0 && (white & adj) == 0) s -= ISOLATED * w;
+            if (b > 0 && (black & adj) == 0) s += ISOLATED * b;
+        }
+        for (long m = lastPassedWhite; m != 0; m &= m - 1) s += PASSED[7 - Long.numberOfTrailingZeros(m) / 8];
+        for (long m = lastPassedBlack; m != 0; m &= m - 1) s -= PASSED[Long.numberOfTrailingZeros(m) / 8];
+        score = s;
+    }
+
+    // peões sem peão adversário à frente na mesma coluna ou nas vizinhas (brancas andam para a linha 0)
+    private static long passed(long own, long enemy, boolean white) {
+        long out = 0;
+        for (long m = own; m != 0; m &= m - 1) {
+            int sq = Long.numberOfTrailingZeros(m);
+            int row = sq / 8, col = sq % 8;
+            long files = FILE_A << col;
+            if (col > 0) files |= FILE_A << (col - 1);
+            if (col < 7) files |= FILE_A << (col + 1);
+            long ahead = white ? (row == 0 ? 0 : -1L >>> (64 - row * 8)) : (row == 7 ? 0 : -1L << ((row + 1) * 8));
+            if ((enemy & files & ahead) == 0) out |= 1L << sq;
+        }
+        return out;
+    }
+}
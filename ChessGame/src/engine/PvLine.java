@@ -0,0 +1,35 @@
+package engine;
+
+import java.util.Collections;
+import java.util.List;
+import model.board.Move;
+
+/**
+ * Uma linha da análise multi-PV: posição no ranking (1 = melhor), score (centipeões,
+ * lado a jogar), profundidade em que foi calculada e a variação principal (lances).
+ */
+public final class PvLine {
+
+    private final int rank;
+    private final int score;
+    private final int depth;
+    private final List<Move> moves;
+
+    public PvLine(int rank, int score, int depth, List<Move> moves) {
+        this.rank = rank;
+        this.score = score;
+        this.depth = depth;
+        this.moves = Collections.unmodifiableList(moves);
+    }
+
+    public int getRank() { return rank; }
+    public int getScore() { return score; }
+    public int getDepth() { return depth; }
+    public List<Move> getMoves() { return moves; }
+    public Move getFirstMove() { return moves.isEmpty() ? null : moves.get(0); }
+
+    @Override
+    public String toString() {
+        return rank + ". score=" + score + " depth=" + depth + " pv=" + moves;
+    }
+}
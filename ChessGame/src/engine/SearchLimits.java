@@ -0,0 +1,56 @@
+package engine;
+
+/**
+ * Orçamento de uma busca: profundidade máxima, nós e tempo (ms).
+ * Zero significa "sem limite" para nós/tempo.
+ */
+public final class SearchLimits {
+
+    public static final int MAX_DEPTH = 64;
+
+    private final int depth;
+    private final long nodes;
+    private final long millis;
+
+    public SearchLimits(int depth, long nodes, long millis) {
+        this.depth = Math.max(1, Math.min(depth, MAX_DEPTH));
+        this.nodes = Math.max(0, nodes);
+        this.millis = Math.max(0, millis);
+    }
+
+    public int getDepth() { return depth; }
+    public long getNodes() { return nodes; }
+    public long getMillis() { return millis; }
+
+    // --- Fábricas convenientes ---
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, nodes, 0);
+    }
+
+    public static SearchLimits millis(long millis) {
+        return new SearchLimits(MAX_DEPTH, 0, millis);
+    }
+
+    /**
+     * Gerência de tempo: fração do tempo restante do relógio mais 3/4 do incremento,
+     * com margem de 50 ms para latência. movesToGo = 0 assume ~30 lances restantes.
+     */
+    public static SearchLimits fromClock(int depth, long remainingMillis, long incrementMillis, int movesToGo) {
+        long slice = remainingMillis / (movesToGo > 0 ? movesToGo + 1 : 30) + incrementMillis * 3 / 4;
+        return new SearchLimits(depth, 0, Math.max(1, Math.min(slice, remainingMillis - 50)));
+    }
+
+    /** Sem limites: a busca só termina com stop() ou ponderHit(). */
+    public static SearchLimits infinite() {
+        return new SearchLimits(MAX_DEPTH, 0, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "depth=" + depth + " nodes=" + nodes + " millis=" + millis;
+    }
+}
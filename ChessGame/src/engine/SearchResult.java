@@ -0,0 +1,50 @@
+package engine;
+
+import java.util.List;
+import model.board.Move;
+
+/**
+ * Resultado de uma busca: melhor lance, avaliação (centipeões, lado a jogar), profundidade e nós,
+ * além do lance esperado do adversário (ponderMove, pode ser null) e, em multi-PV, as linhas
+ * calculadas (melhor primeiro).
+ */
+public final class SearchResult {
+
+    private final Move bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long millis;
+    private final Move ponderMove;
+    private final List<PvLine> lines;
+
+    public SearchResult(Move bestMove, int score, int depth, long nodes, long millis, Move ponderMove) {
+        this(bestMove, score, depth, nodes, millis, ponderMove, List.of());
+    }
+
+    public SearchResult(Move bestMove, int score, int depth, long nodes, long millis, Move ponderMove,
+                        List<PvLine> lines) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.millis = millis;
+        this.ponderMove = ponderMove;
+        this.lines = List.copyOf(lines);
+    }
+
+    public Move getBestMove() { return bestMove; }
+    public int getScore() { return score; }
+    public int getDepth() { return depth; }
+    public long getNodes() { return nodes; }
+    public long getMillis() { return millis; }
+    public Move getPonderMove() { return ponderMove; }
+
+    /** Linhas multi-PV (rank 1 = melhor); durante a busca, só as já concluídas na profundidade corrente. */
+    public List<PvLine> getLines() { return lines; }
+
+    @Override
+    public String toString() {
+        return "best=" + bestMove + " score=" + score + " depth=" + depth + " nodes=" + nodes + " ms=" + millis;
+    }
+}
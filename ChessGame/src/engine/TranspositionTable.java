@@ -0,0 +1,81 @@
+package engine;
+
+import metrics.Metrics;
+
+/**
+ * Tabela de transposição de tamanho fixo em arrays primitivos (sem objetos por entrada).
+ *
+ * Cada entrada guarda chave e dados em dois longs; a chave é gravada como (chave ^ dados),
+ * então leituras concorrentes "rasgadas" entre threads são detectadas e tratadas como miss
+ * (esquema lockless, a tabela pode ser compartilhada entre buscas).
+ *
+ * Dados: [score 32 bits][profundidade 8][flag 2][lance 16] (do bit alto para o baixo).
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2; // score >= valor (falhou alto)
+    public static final int UPPER = 3; // score <= valor (falhou baixo)
+    public static final long MISS = 0L;
+
+    private long[] keys;
+    private long[] data;
+    private int mask;
+
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /** Redimensiona (e limpa) a tabela; o número de entradas é arredondado para potência de 2. */
+    public synchronized void resize(int megabytes) {
+        long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+        int entries = Integer.highestOneBit((int) Math.min(bytes / 16, 1 << 28));
+        keys = new long[entries];
+        data = new long[entries];
+        mask = entries - 1;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    /** Dados da entrada para esta chave, ou MISS. */
+    public long probe(long key) {
+        int i = (int) key & mask;
+        long d = data[i];
+        Metrics.TT_PROBES.increment();
+        if ((keys[i] ^ d) != key) return MISS;
+        Metrics.TT_HITS.increment();
+        return d;
+    }
+
+    /** Grava a entrada; substitui se a chave for outra ou a nova busca for pelo menos tão profunda. */
+    public void store(long key, int depth, int flag, int score, int move) {
+        int i = (int) key & mask;
+        long old = data[i];
+        boolean same = (keys[i] ^ old) == key;
+        if (same && depth < depth(old) && flag != EXACT) return;
+        if (same && move == 0) move = move(old); // preserva o melhor lance conhecido
+        long d = ((long) score << 32) | ((long) (depth & 0xFF) << 18) | ((long) flag << 16) | (move & 0xFFFF);
+        data[i] = d;
+        keys[i] = key ^ d;
+    }
+
+    /** Permil de entradas ocupadas numa amostra (estilo "hashfull" do UCI). */
+    public int hashfull() {
+        int n = Math.min(1000, keys.length), used = 0;
+        for (int i = 0; i < n; i++) if (data[i] != 0L) used++;
+        return used * 1000 / n;
+    }
+
+    // --- Decodificação ---
+    public static int score(long d) { return (int) (d >> 32); }
+    public static int depth(long d) { return (int) ((d >>> 18) & 0xFF); }
+    public static int flag(long d)  { return (int) ((d >>> 16) & 0x3); }
+    public static int move(long d)  { return (int) (d & 0xFFFF); }
+}
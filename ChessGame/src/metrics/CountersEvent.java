@@ -0,0 +1,77 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR periódico (1 s) com os contadores cumulativos de Metrics,
+ * para correlacionar a engine com GC/CPU numa gravação.
+ * Ative com -XX:StartFlightRecording; o registro acontece em register().
+ */
+@Name("xadrez.Counters")
+@Label("Chess Counters")
+@Category("Xadrez")
+@Description("Contadores cumulativos de busca e geração de lances")
+@Period("1 s")
+@StackTrace(false)
+public class CountersEvent extends Event {
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Quiescence Nodes")
+    public long qnodes;
+
+    @Label("TT Probes")
+    public long ttProbes;
+
+    @Label("TT Hits")
+    public long ttHits;
+
+    @Label("Beta Cutoffs")
+    public long cutoffs;
+
+    @Label("Legal Move Generations")
+    public long movegens;
+
+    @Label("Pseudo-Legal Stage Generations")
+    public long stageGens;
+
+    @Label("Snapshots")
+    public long snapshots;
+
+    @Label("Pawn Hash Probes")
+    public long pawnProbes;
+
+    @Label("Pawn Hash Hits")
+    public long pawnHits;
+
+    private static boolean registered;
+
+    /** Registra o hook periódico (idempotente). */
+    public static synchronized void register() {
+        if (registered) return;
+        registered = true;
+        FlightRecorder.addPeriodicEvent(CountersEvent.class, () -> {
+            CountersEvent e = new CountersEvent();
+            Metrics.Sample s = Metrics.sample();
+            e.nodes = s.nodes;
+            e.qnodes = s.qnodes;
+            e.ttProbes = s.ttProbes;
+            e.ttHits = s.ttHits;
+            e.cutoffs = s.cutoffs;
+            e.movegens = s.movegens;
+            e.stageGens = s.stageGens;
+            e.snapshots = s.snapshots;
+            e.pawnProbes = s.pawnProbes;
+            e.pawnHits = s.pawnHits;
+            e.commit();
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores globais de busca e geração de lances, seguros entre threads (LongAdder:
+ * incremento sem disputa de cache entre as threads de busca).
+ *
+ * São cumulativos desde o início do processo; quem quer taxas tira duas amostras
+ * com sample() e usa Sample.since(anterior).
+ */
+public final class Metrics {
+
+    public static final LongAdder NODES = new LongAdder();       // nós da busca principal
+    public static final LongAdder QNODES = new LongAdder();      // nós da busca quiescente
+    public static final LongAdder TT_PROBES = new LongAdder();
+    public static final LongAdder TT_HITS = new LongAdder();
+    public static final LongAdder CUTOFFS = new LongAdder();     // cortes beta
+    public static final LongAdder MOVEGENS = new LongAdder();    // gerações de lances legais (Game.legalMap)
+    public static final LongAdder STAGE_GENS = new LongAdder();  // gerações pseudo-legais por estágio (MovePicker)
+    public static final LongAdder SNAPSHOTS = new LongAdder();   // GameSnapshot criados
+    public static final LongAdder PAWN_PROBES = new LongAdder(); // consultas à tabela de estrutura de peões
+    public static final LongAdder PAWN_HITS = new LongAdder();
+
+    private Metrics() { /* utilitário */ }
+
+    public static Sample sample() {
+        return new Sample(System.nanoTime(), NODES.sum(), QNODES.sum(), TT_PROBES.sum(), TT_HITS.sum(),
+                CUTOFFS.sum(), MOVEGENS.sum(), STAGE_GENS.sum(), SNAPSHOTS.sum(), PAWN_PROBES.sum(), PAWN_HITS.sum());
+    }
+
+    /** Valores dos contadores num instante (ou a diferença entre dois instantes). */
+    public static final class Sample {
+        public final long nanos, nodes, qnodes, ttProbes, ttHits, cutoffs, movegens, stageGens, snapshots, pawnProbes, pawnHits;
+
+        Sample(long nanos, long nodes, long qnodes, long ttProbes, long ttHits,
+               long cutoffs, long movegens, long stageGens, long snapshots, long pawnProbes, long pawnHits) {
+            this.nanos = nanos;
+            this.nodes = nodes;
+            this.qnodes = qnodes;
+            this.ttProbes = ttProbes;
+            this.ttHits = ttHits;
+            this.cutoffs = cutoffs;
+            this.movegens = movegens;
+            this.stageGens = stageGens;
+            this.snapshots = snapshots;
+            this.pawnProbes = pawnProbes;
+            this.pawnHits = pawnHits;
+        }
+
+        public Sample since(Sample earlier) {
+            return new Sample(nanos - earlier.nanos, nodes - earlier.nodes, qnodes - earlier.qnodes,
+                    ttProbes - earlier.ttProbes, ttHits - earlier.ttHits, cutoffs - earlier.cutoffs,
+                    movegens - earlier.movegens, stageGens - earlier.stageGens, snapshots - earlier.snapshots,
+                    pawnProbes - earlier.pawnProbes, pawnHits - earlier.pawnHits);
+        }
+
+        /** Nós (principais + quiescentes) por segundo, para uma diferença obtida com since(). */
+        public long nodesPerSecond() {
+            return nanos <= 0 ? 0 : (nodes + qnodes) * 1_000_000_000L / nanos;
+        }
+
+        /** Taxa por segundo de um dos contadores desta diferença. */
+        public long perSecond(long count) {
+            return nanos <= 0 ? 0 : count * 1_000_000_000L / nanos;
+        }
+
+        public int ttHitPercent() {
+            return ttProbes == 0 ? 0 : (int) (100 * ttHits / ttProbes);
+        }
+
+        public int pawnHitPercent() {
+            return pawnProbes == 0 ? 0 : (int) (100 * pawnHits / pawnProbes);
+        }
+
+        @Override
+        public String toString() {
+            return "nodes=" + nodes + " qnodes=" + qnodes + " ttProbes=" + ttProbes + " ttHits=" + ttHits
+                    + " cutoffs=" + cutoffs + " movegens=" + movegens + " stageGens=" + stageGens + " snapshots=" + snapshots
+                    + " pawnProbes=" + pawnProbes + " pawnHits=" + pawnHits;
+        }
+    }
+}
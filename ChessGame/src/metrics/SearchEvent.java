@@ -0,0 +1,41 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Evento JFR de uma busca completa (duração = início/fim da busca). */
+@Name("xadrez.Search")
+@Label("Chess Search")
+@Category("Xadrez")
+@Description("Uma busca da engine: profundidade alcançada, nós e estatísticas da TT")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Nodes")
+    public long nodes;
+
+    @Label("Quiescence Nodes")
+    public long qnodes;
+
+    @Label("TT Probes")
+    public long ttProbes;
+
+    @Label("TT Hits")
+    public long ttHits;
+
+    @Label("Beta Cutoffs")
+    public long cutoffs;
+
+    @Label("Score")
+    public int score;
+
+    @Label("Best Move")
+    public String bestMove;
+}
@@ -9,6 +9,9 @@ public class Board {
 
     private final Piece[][] grid = new Piece[8][8];
 
+    // contagem de peças por tipo e cor (ver Material), mantida a cada set/remove
+    private long materialSignature = 0L;
+
     /** Verifica se a posição está dentro do tabuleiro (0..7). */
     public boolean isInside(Position p) {
         return p != null && p.isValid();
@@ -25,8 +28,11 @@ public class Board {
      */
     public void set(Position p, Piece piece) {
         if (!isInside(p)) return;
+        Piece old = grid[p.getRow()][p.getColumn()];
+        if (old != null) materialSignature -= Material.unit(old);
         grid[p.getRow()][p.getColumn()] = piece;
         if (piece != null) {
+            materialSignature += Material.unit(piece);
             // Mantém referência de posição da peça sincronizada
             piece.setPosition(p);
         }
@@ -37,6 +43,7 @@ public class Board {
         if (!isInside(p)) return null;
         Piece old = grid[p.getRow()][p.getColumn()];
         grid[p.getRow()][p.getColumn()] = null;
+        if (old != null) materialSignature -= Material.unit(old);
         return old;
     }
 
@@ -57,6 +64,12 @@ public class Board {
                 grid[r][c] = null;
             }
         }
+        materialSignature = 0L;
+    }
+
+    /** Assinatura material da posição (decodificada com Material.count). */
+    public long materialSignature() {
+        return materialSignature;
     }
 
     /** Lista todas as peças de uma cor. */
@@ -93,6 +106,7 @@ public class Board {
                 }
             }
         }
+        b.materialSignature = materialSignature;
         return b;
     }
 }
@@ -0,0 +1,58 @@
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Assinatura material: quantidade de peões, cavalos, bispos, torres e damas de cada cor,
+ * 4 bits por contador num long (reis não contam). O Board a mantém incrementalmente.
+ *
+ * Contador = (branca ? 0 : 5) + tipo, com tipo 0..4 = P, N, B, R, Q.
+ */
+public final class Material {
+
+    public static final int PAWN = 0, KNIGHT = 1, BISHOP = 2, ROOK = 3, QUEEN = 4;
+
+    private Material() { /* utilitário */ }
+
+    /** Quanto a peça soma à assinatura (0 para o rei). */
+    public static long unit(Piece p) {
+        int t = "PNBRQ".indexOf(p.getSymbol().charAt(0));
+        return t < 0 ? 0L : 1L << (4 * ((p.isWhite() ? 0 : 5) + t));
+    }
+
+    public static int count(long signature, boolean white, int type) {
+        return (int) (signature >>> (4 * ((white ? 0 : 5) + type))) & 15;
+    }
+
+    public static boolean hasPawns(long signature) {
+        return count(signature, true, PAWN) + count(signature, false, PAWN) > 0;
+    }
+
+    /**
+     * Nenhuma sequência de lances pode dar mate (regra de material insuficiente):
+     * K x K, K + uma peça menor x K, e K + bispos x K + bispos com todos os bispos
+     * em casas da mesma cor.
+     */
+    public static boolean insufficient(Board board) {
+        long sig = board.materialSignature();
+        int minors = 0, knights = 0;
+        for (int white = 0; white < 2; white++) {
+            boolean w = white == 0;
+            if (count(sig, w, PAWN) + count(sig, w, ROOK) + count(sig, w, QUEEN) > 0) return false;
+            knights += count(sig, w, KNIGHT);
+            minors += count(sig, w, KNIGHT) + count(sig, w, BISHOP);
+        }
+        if (minors <= 1) return true;
+        if (knights > 0) return false;
+
+        // só bispos: empate se todos estiverem na mesma cor de casa
+        int colours = 0;
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.get(new Position(r, c));
+                if (p != null && p.getSymbol().equals("B")) colours |= 1 << ((r + c) & 1);
+            }
+        }
+        return colours != 3;
+    }
+}
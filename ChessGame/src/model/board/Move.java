@@ -40,6 +40,18 @@ public class Move {
 
     // --- Utilidades ---
 
+    /**
+     * Código compacto do lance: (origem << 9) | (destino << 3) | promoção,
+     * com casas 0..63 (linha * 8 + coluna) e promoção 0 = nenhuma, 1..4 = Q,R,B,N.
+     * Nunca é 0 para um lance real (origem e destino diferentes).
+     */
+    public int code() {
+        int f = from.getRow() * 8 + from.getColumn();
+        int t = to.getRow() * 8 + to.getColumn();
+        int p = promotion == null ? 0 : 1 + "QRBN".indexOf(Character.toUpperCase(promotion));
+        return (f << 9) | (t << 3) | p;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,57 @@
+package model.board;
+
+import java.util.Random;
+import model.pieces.Piece;
+
+/**
+ * Chaves Zobrist (64 bits) para identificar posições.
+ * As tabelas usam semente fixa, então a mesma posição tem a mesma chave em qualquer execução
+ * (necessário para índices persistidos em disco).
+ */
+public final class Zobrist {
+
+    // [peça 0..11][casa 0..63]; peça = tipo (P,N,B,R,Q,K) + 6 se preta
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[4]; // K, Q, k, q
+    private static final long[] EP_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        Random rnd = new Random(0x5EED_C0DEL);
+        for (int p = 0; p < 12; p++) {
+            for (int sq = 0; sq < 64; sq++) PIECE_SQUARE[p][sq] = rnd.nextLong();
+        }
+        for (int i = 0; i < 4; i++) CASTLING[i] = rnd.nextLong();
+        for (int i = 0; i < 8; i++) EP_FILE[i] = rnd.nextLong();
+        BLACK_TO_MOVE = rnd.nextLong();
+    }
+
+    private Zobrist() { /* utilitário */ }
+
+    /** Índice 0..11 da peça (tipo + cor). */
+    public static int pieceIndex(Piece p) {
+        int t = "PNBRQK".indexOf(p.getSymbol().charAt(0));
+        return p.isWhite() ? t : t + 6;
+    }
+
+    public static long piece(Piece p, int row, int col) {
+        return PIECE_SQUARE[pieceIndex(p)][row * 8 + col];
+    }
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    /** 0 = roque curto brancas, 1 = longo brancas, 2 = curto pretas, 3 = longo pretas. */
+    public static long castling(int right) {
+        return CASTLING[right];
+    }
+
+    public static long enPassantFile(int file) {
+        return EP_FILE[file];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
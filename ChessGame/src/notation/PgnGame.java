@@ -0,0 +1,37 @@
+package notation;
+
+import controller.Game;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Uma partida lida de PGN: tags (Seven Tag Roster e extras), lances em SAN e resultado. */
+public final class PgnGame {
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final List<String> moves = new ArrayList<>();
+    private String result = "*";
+
+    public Map<String, String> tags() { return Collections.unmodifiableMap(tags); }
+    public List<String> moves() { return Collections.unmodifiableList(moves); }
+    public String result() { return result; }
+
+    public String tag(String name) { return tags.get(name); }
+
+    /** A partida começa numa posição própria: tem tag FEN (e SetUp não é "0"). */
+    public boolean hasSetUp() { return tags.containsKey("FEN") && !"0".equals(tags.get("SetUp")); }
+
+    /**
+     * Jogo na posição inicial da partida: a do tag FEN, se houver, senão a posição padrão.
+     * Lança IllegalArgumentException se o FEN for inválido.
+     */
+    public Game startingGame() { return hasSetUp() ? Game.fromFen(tags.get("FEN")) : new Game(); }
+
+    void putTag(String name, String value) { tags.put(name, value); }
+    void addMove(String san) { moves.add(san); }
+    void setResult(String result) { this.result = result; }
+
+    boolean isEmpty() { return tags.isEmpty() && moves.isEmpty(); }
+}
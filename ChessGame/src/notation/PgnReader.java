@@ -0,0 +1,182 @@
+package notation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitor PGN em streaming: tokeniza direto de um canal NIO com um buffer fixo,
+ * sem carregar o arquivo inteiro na memória. Use next() até retornar null.
+ *
+ * Comentários ({...} e ;), variações (...), NAGs ($n), anotações (!?) e
+ * números de lance são descartados; só as tags, os lances principais em SAN
+ * e o resultado são mantidos.
+ */
+public final class PgnReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private boolean eof = false;
+
+    // bytes de um token/valor em construção (tags podem ter UTF-8)
+    private byte[] tok = new byte[256];
+    private int tokLen;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buf.flip(); // começa vazio
+    }
+
+    public static PgnReader open(Path file) throws IOException {
+        return new PgnReader(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /** Próxima partida do arquivo, ou null no fim. */
+    public PgnGame next() throws IOException {
+        PgnGame game = new PgnGame();
+        boolean inMoves = false;
+
+        int ch;
+        while ((ch = read()) >= 0) {
+            switch (ch) {
+                case '[' -> {
+                    if (inMoves) {
+                        // partida sem resultado explícito: nova seção de tags começa outra
+                        unread();
+                        return game;
+                    }
+                    readTag(game);
+                }
+                case '{' -> skipUntil('}');
+                case ';' -> skipUntil('\n');
+                case '(' -> skipVariation();
+                case '$' -> { while ((ch = read()) >= '0' && ch <= '9') { } if (ch >= 0) unread(); }
+                case '%' -> skipUntil('\n');
+                case ' ', '\t', '\r', '\n', '!', '?', '.' -> { }
+                default -> {
+                    unread();
+                    readSymbol();
+                    String s = symbolWithoutMoveNumber();
+                    if (s.isEmpty()) continue;
+                    inMoves = true;
+                    if (isResult(s)) {
+                        game.setResult(s);
+                        return game;
+                    }
+                    game.addMove(s);
+                }
+            }
+        }
+        return game.isEmpty() ? null : game;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // --------- Tokenização ----------
+
+    private void readTag(PgnGame game) throws IOException {
+        int ch;
+        while ((ch = read()) == ' ' || ch == '\t') { }
+        tokLen = 0;
+        while (ch > ' ' && ch != '"' && ch != ']') { append(ch); ch = read(); }
+        String name = new String(tok, 0, tokLen, StandardCharsets.US_ASCII);
+
+        while (ch >= 0 && ch != '"' && ch != ']') ch = read();
+        tokLen = 0;
+        if (ch == '"') {
+            while ((ch = read()) >= 0 && ch != '"') {
+                if (ch == '\\') ch = read();
+                if (ch >= 0) append(ch);
+            }
+            ch = read();
+        }
+        String value = new String(tok, 0, tokLen, StandardCharsets.UTF_8);
+        while (ch >= 0 && ch != ']' && ch != '\n') ch = read();
+        if (!name.isEmpty()) game.putTag(name, value);
+    }
+
+    private void readSymbol() throws IOException {
+        tokLen = 0;
+        int ch;
+        while ((ch = read()) >= 0 && isSymbolChar(ch)) append(ch);
+        if (ch >= 0) unread();
+        if (tokLen == 0) read(); // caractere desconhecido: descarta
+    }
+
+    // "12." / "12..." / "12.e4" -> remove o número do lance
+    private String symbolWithoutMoveNumber() {
+        int i = 0;
+        while (i < tokLen && tok[i] >= '0' && tok[i] <= '9') i++;
+        if (i > 0 && i < tokLen && tok[i] == '.') {
+            while (i < tokLen && tok[i] == '.') i++;
+        } else {
+            i = 0;
+        }
+        return new String(tok, i, tokLen - i, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isSymbolChar(int ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+                || ch == '+' || ch == '#' || ch == '=' || ch == '-' || ch == '/' || ch == '*'
+                || ch == '.' || ch == ':' || ch == '_';
+    }
+
+    private static boolean isResult(String s) {
+        return s.equals("1-0") || s.equals("0-1") || s.equals("1/2-1/2") || s.equals("*");
+    }
+
+    private void skipUntil(int end) throws IOException {
+        int ch;
+        while ((ch = read()) >= 0 && ch != end) { }
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1, ch;
+        while (depth > 0 && (ch = read()) >= 0) {
+            if (ch == '(') depth++;
+            else if (ch == ')') depth--;
+            else if (ch == '{') skipUntil('}');
+        }
+    }
+
+    private void append(int ch) {
+        if (tokLen == tok.length) {
+            byte[] bigger = new byte[tok.length * 2];
+            System.arraycopy(tok, 0, bigger, 0, tokLen);
+            tok = bigger;
+        }
+        tok[tokLen++] = (byte) ch;
+    }
+
+    // --------- Buffer ----------
+
+    private int read() throws IOException {
+        if (!buf.hasRemaining()) {
+            if (eof) return -1;
+            buf.clear();
+            int n;
+            do { n = channel.read(buf); } while (n == 0);
+            buf.flip();
+            if (n < 0) {
+                eof = true;
+                return -1;
+            }
+        }
+        return buf.get() & 0xFF;
+    }
+
+    // volta um byte (sempre chamado logo após um read() bem-sucedido)
+    private void unread() {
+        buf.position(buf.position() - 1);
+    }
+}
@@ -0,0 +1,77 @@
+package notation;
+
+import controller.Game;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exporta partidas (Game.history em SAN) no formato PGN, com o Seven Tag Roster.
+ * Partidas que não começam na posição inicial padrão (Game.fromFen) levam as tags SetUp e FEN.
+ */
+public final class PgnWriter {
+
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    private static final int LINE_WIDTH = 80;
+    private static final String STANDARD_START = new Game().fen();
+
+    private PgnWriter() { /* utilitário */ }
+
+    /**
+     * Texto PGN completo da partida; `tags` pode ser null ou parcial (faltantes viram "?").
+     * O resultado vem do Game quando a partida terminou; senão, da tag Result (adjudicação) ou "*".
+     */
+    public static String toPgn(Game game, Map<String, String> tags) {
+        StringBuilder sb = new StringBuilder(256 + game.history().size() * 8);
+
+        Map<String, String> all = new LinkedHashMap<>();
+        for (String t : SEVEN_TAG_ROSTER) all.put(t, t.equals("Date") ? "????.??.??" : "?");
+        if (tags != null) all.putAll(tags);
+        String startFen = game.positions().get(0).fen();
+        if (!startFen.equals(STANDARD_START) && !all.containsKey("FEN")) {
+            all.put("SetUp", "1");
+            all.put("FEN", startFen);
+        }
+        if (game.isGameOver() || !all.containsKey("Result") || all.get("Result").equals("?")) {
+            all.put("Result", game.result());
+        }
+        String result = all.get("Result");
+        for (Map.Entry<String, String> e : all.entrySet()) {
+            sb.append('[').append(e.getKey()).append(" \"").append(escape(e.getValue())).append("\"]\n");
+        }
+        sb.append('\n');
+
+        int lineStart = sb.length();
+        List<String> moves = game.history();
+        // quem começou sai do lado a jogar agora e da paridade; começando com as pretas, o primeiro é "1..."
+        int offset = game.whiteToMove() == (moves.size() % 2 == 1) ? 1 : 0;
+        for (int i = 0; i <= moves.size(); i++) {
+            String token;
+            int p = i + offset;
+            if (i == moves.size()) token = result;
+            else if (p % 2 == 0) token = (p / 2 + 1) + ". " + moves.get(i);
+            else if (i == 0) token = "1... " + moves.get(i);
+            else token = moves.get(i);
+
+            if (sb.length() > lineStart && sb.length() - lineStart + 1 + token.length() > LINE_WIDTH) {
+                sb.append('\n');
+                lineStart = sb.length();
+            } else if (sb.length() > lineStart) {
+                sb.append(' ');
+            }
+            sb.append(token);
+        }
+        sb.append("\n\n");
+        return sb.toString();
+    }
+
+    public static void write(Writer out, Game game, Map<String, String> tags) throws IOException {
+        out.write(toPgn(game, tags));
+    }
+
+    private static String escape(String v) {
+        return v == null ? "" : v.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,114 @@
+package notation;
+
+import controller.Game;
+import java.util.ArrayList;
+import java.util.List;
+import model.board.Move;
+
+/** Notação algébrica padrão (SAN): conversão entre texto e lances legais de um Game. */
+public final class San {
+
+    private San() { /* utilitário */ }
+
+    /** SAN (com + ou #) de um lance legal na posição atual; o Game não é alterado. */
+    public static String format(Game game, Move move) {
+        Game g = game.copy();
+        int before = g.history().size();
+        g.move(move);
+        List<String> h = g.history();
+        return h.size() > before ? h.get(h.size() - 1) : null;
+    }
+
+    /**
+     * SAN de cada lance de `moves` (legais na posição atual), na mesma ordem: uma única cópia do
+     * jogo, fazendo e desfazendo cada lance, em vez de uma cópia por lance como em format().
+     */
+    public static List<String> formatAll(Game game, List<Move> moves) {
+        Game g = game.copy();
+        List<String> out = new ArrayList<>(moves.size());
+        for (Move m : moves) {
+            int before = g.history().size();
+            g.move(m);
+            List<String> h = g.history();
+            out.add(h.size() > before ? h.get(h.size() - 1) : null);
+            if (h.size() > before) g.undo();
+        }
+        return out;
+    }
+
+    /**
+     * Resolve um lance SAN ("e4", "Nbd7", "exd6", "e8=Q+", "O-O-O") contra a posição atual.
+     * Retorna null se o lance for ilegal, ambíguo ou mal formado.
+     */
+    public static Move parse(Game game, String san) {
+        return parse(game.legalMoves(), san);
+    }
+
+    /** Igual a parse(Game, String), mas usando uma lista de lances legais já gerada. */
+    public static Move parse(List<Move> legal, String san) {
+        if (san == null) return null;
+
+        // remove sufixos de xeque/mate/anotação
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        if (end < 2) return null;
+        String s = san.substring(0, end);
+
+        if (s.equals("O-O") || s.equals("0-0")) return findCastle(legal, true);
+        if (s.equals("O-O-O") || s.equals("0-0-0")) return findCastle(legal, false);
+
+        // peça (P implícito)
+        int i = 0;
+        char piece = 'P';
+        if ("KQRBN".indexOf(s.charAt(0)) >= 0) {
+            piece = s.charAt(0);
+            i = 1;
+        }
+
+        // promoção: "=Q" ou "Q" no fim
+        Character promo = null;
+        int j = s.length();
+        char last = s.charAt(j - 1);
+        if (piece == 'P' && "QRBNqrbn".indexOf(last) >= 0) {
+            promo = Character.toUpperCase(last);
+            j--;
+            if (j > 0 && s.charAt(j - 1) == '=') j--;
+        }
+
+        // casa de destino = dois últimos caracteres restantes
+        if (j - i < 2) return null;
+        int toFile = s.charAt(j - 2) - 'a';
+        int toRank = s.charAt(j - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) return null;
+        int toRow = 7 - toRank;
+
+        // desambiguação: arquivo e/ou fileira de origem (ignora 'x' e '-')
+        int fromFile = -1, fromRow = -1;
+        for (int k = i; k < j - 2; k++) {
+            char c = s.charAt(k);
+            if (c >= 'a' && c <= 'h') fromFile = c - 'a';
+            else if (c >= '1' && c <= '8') fromRow = 7 - (c - '1');
+            else if (c != 'x' && c != '-' && c != ':') return null;
+        }
+
+        Move found = null;
+        for (Move m : legal) {
+            if (m.getTo().getRow() != toRow || m.getTo().getColumn() != toFile) continue;
+            if (m.getMoved().getSymbol().charAt(0) != piece) continue;
+            if (fromFile >= 0 && m.getFrom().getColumn() != fromFile) continue;
+            if (fromRow >= 0 && m.getFrom().getRow() != fromRow) continue;
+            if (m.getPromotion() != null && !m.getPromotion().equals(promo == null ? 'Q' : promo)) continue;
+            if (m.getPromotion() == null && promo != null) continue;
+            if (found != null) return null; // ambíguo
+            found = m;
+        }
+        return found;
+    }
+
+    private static Move findCastle(List<Move> legal, boolean kingSide) {
+        for (Move m : legal) {
+            if (kingSide ? m.isCastleKingSide() : m.isCastleQueenSide()) return m;
+        }
+        return null;
+    }
+}
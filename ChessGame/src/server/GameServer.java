@@ -0,0 +1,326 @@
+package server;
+
+import controller.Game;
+import controller.GameSnapshot;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import model.board.Move;
+
+/**
+ * Servidor headless de partidas simultâneas sobre TCP (protocolo de linhas, ASCII).
+ *
+ * Comandos (uma linha cada; respostas "OK ..." ou "ERR ..."):
+ *   NEW                 -> OK <id>
+ *   MOVE <id> <e2e4>    -> OK <SAN> [resultado, se a partida acabou]
+ *   LEGAL <id>          -> OK <lances em coordenadas>
+ *   FEN <id>            -> OK <fen>
+ *   CLOSE <id>          -> OK
+ *   STATS               -> OK sessions=N moves=M mps=X p50us=Y p99us=Z
+ *
+ * As sessões (partidas) são independentes das conexões: um cliente pode jogar
+ * milhares de partidas pela mesma conexão e duas conexões podem jogar a mesma partida.
+ * Cada laço de eventos NIO (um por núcleo) atende suas conexões sem bloquear; a
+ * validação de lances trava só a sessão envolvida, nunca um lock global.
+ *
+ * Uso: java -cp out server.GameServer [--port 7878] [--loops N] [--stats-every 5]
+ */
+public final class GameServer {
+
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final LongAdder moves = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final long startNanos = System.nanoTime();
+
+    private final ServerSocketChannel server;
+    private final EventLoop[] loops;
+
+    /**
+     * Uma partida; o monitor do objeto serializa lances concorrentes na mesma partida.
+     * `view` é republicado a cada lance para leitores (FEN, espectadores) que não travam a sessão.
+     */
+    static final class Session {
+        final Game game = new Game();
+        volatile GameSnapshot view = game.snapshot();
+    }
+
+    public GameServer(int port, int loopCount) throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress("127.0.0.1", port), 1024);
+        loops = new EventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            loops[i] = new EventLoop(Selector.open());
+            Thread t = new Thread(loops[i], "game-server-loop-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 7878;
+        int loops = Runtime.getRuntime().availableProcessors();
+        int statsEvery = 5;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port"        -> port = Integer.parseInt(args[++i]);
+                case "--loops"       -> loops = Integer.parseInt(args[++i]);
+                case "--stats-every" -> statsEvery = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Argumento desconhecido: " + args[i]);
+                    return;
+                }
+            }
+        }
+
+        GameServer gs = new GameServer(port, loops);
+        System.out.println("Servidor em 127.0.0.1:" + port + " com " + loops + " laços de eventos");
+
+        final int every = statsEvery;
+        Thread stats = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(every * 1000L);
+                    System.out.println(gs.stats());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "game-server-stats");
+        stats.setDaemon(true);
+        stats.start();
+
+        gs.acceptLoop();
+    }
+
+    public int port() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /** Aceita conexões (bloqueante) e as distribui entre os laços de eventos. */
+    public void acceptLoop() throws IOException {
+        int next = 0;
+        while (server.isOpen()) {
+            SocketChannel ch = server.accept();
+            ch.configureBlocking(false);
+            ch.socket().setTcpNoDelay(true);
+            loops[next].register(ch);
+            next = (next + 1) % loops.length;
+        }
+    }
+
+    public String stats() {
+        double secs = (System.nanoTime() - startNanos) / 1e9;
+        long m = moves.sum();
+        return String.format("sessions=%d moves=%d mps=%.0f p50us=%.1f p99us=%.1f",
+                sessions.size(), m, secs <= 0 ? 0 : m / secs,
+                latency.percentile(0.50) / 1000.0, latency.percentile(0.99) / 1000.0);
+    }
+
+    // --------- Comandos ----------
+
+    // Trata uma linha de comando e devolve a resposta (sem \n)
+    String handle(String line) {
+        String[] t = line.trim().split(" +");
+        switch (t[0].toUpperCase()) {
+            case "NEW": {
+                long id = nextId.incrementAndGet();
+                sessions.put(id, new Session());
+                return "OK " + id;
+            }
+            case "MOVE": {
+                if (t.length < 3) return "ERR usage: MOVE <id> <move>";
+                Session s = session(t[1]);
+                if (s == null) return "ERR no such session";
+                return move(s, t[2]);
+            }
+            case "LEGAL": {
+                Session s = session(t.length > 1 ? t[1] : "");
+                if (s == null) return "ERR no such session";
+                StringBuilder sb = new StringBuilder("OK");
+                synchronized (s) {
+                    for (Move m : s.game.legalMoves()) sb.append(' ').append(coordinate(m));
+                }
+                return sb.toString();
+            }
+            case "FEN": {
+                Session s = session(t.length > 1 ? t[1] : "");
+                if (s == null) return "ERR no such session";
+                return "OK " + s.view.fen();
+            }
+            case "CLOSE": {
+                Session s = t.length > 1 ? remove(t[1]) : null;
+                return s == null ? "ERR no such session" : "OK";
+            }
+            case "STATS":
+                return "OK " + stats();
+            default:
+                return "ERR unknown command";
+        }
+    }
+
+    private String move(Session s, String uci) {
+        long start = System.nanoTime();
+        String reply;
+        synchronized (s) {
+            Game g = s.game;
+            Move m = find(g, uci);
+            if (m == null) {
+                reply = g.isGameOver() ? "ERR game over" : "ERR illegal move";
+            } else {
+                g.move(m);
+                GameSnapshot view = g.snapshot();
+                s.view = view;
+                reply = view.isGameOver() ? "OK " + view.lastSan() + " " + view.result() : "OK " + view.lastSan();
+            }
+        }
+        latency.record(System.nanoTime() - start);
+        if (reply.startsWith("OK")) moves.increment();
+        return reply;
+    }
+
+    private static Move find(Game g, String uci) {
+        for (Move m : g.legalMoves()) {
+            if (coordinate(m).equals(uci)) return m;
+        }
+        return null;
+    }
+
+    static String coordinate(Move m) {
+        String s = m.getFrom().toString() + m.getTo();
+        if (m.getPromotion() != null) s += Character.toLowerCase(m.getPromotion());
+        return s;
+    }
+
+    private Session session(String id) {
+        try {
+            return sessions.get(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Session remove(String id) {
+        try {
+            return sessions.remove(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // --------- Laço de eventos NIO ----------
+
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(SocketChannel ch) {
+            pending.add(ch);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (selector.isOpen()) {
+                    selector.select();
+                    SocketChannel ch;
+                    while ((ch = pending.poll()) != null) {
+                        ch.register(selector, SelectionKey.OP_READ, new Connection(ch));
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        Connection c = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) c.read(key);
+                            if (key.isValid() && key.isWritable()) c.flush(key);
+                        } catch (IOException e) {
+                            c.close(key);
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException e) {
+                System.err.println("Laço de eventos encerrado: " + e.getMessage());
+            }
+        }
+    }
+
+    // Buffers de uma conexão; usados só pelo laço de eventos dono dela
+    private final class Connection {
+        private static final int MAX_LINE = 4096;
+
+        private final SocketChannel ch;
+        private final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        private ByteBuffer out = ByteBuffer.allocate(MAX_LINE);
+
+        Connection(SocketChannel ch) {
+            this.ch = ch;
+        }
+
+        void read(SelectionKey key) throws IOException {
+            if (ch.read(in) < 0) {
+                close(key);
+                return;
+            }
+            in.flip();
+            int lineStart = 0;
+            for (int i = in.position(); i < in.limit(); i++) {
+                if (in.get(i) != '\n') continue;
+                int end = i > lineStart && in.get(i - 1) == '\r' ? i - 1 : i;
+                String line = new String(in.array(), lineStart, end - lineStart, StandardCharsets.US_ASCII);
+                lineStart = i + 1;
+                if (!line.isBlank()) reply(handle(line));
+            }
+            in.position(lineStart);
+            in.compact();
+            if (!in.hasRemaining()) {
+                // linha maior que o buffer: protocolo violado
+                close(key);
+                return;
+            }
+            flush(key);
+        }
+
+        private void reply(String s) {
+            byte[] b = (s + "\n").getBytes(StandardCharsets.US_ASCII);
+            if (out.remaining() < b.length) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + b.length));
+                out.flip();
+                bigger.put(out);
+                out = bigger;
+            }
+            out.put(b);
+        }
+
+        void flush(SelectionKey key) throws IOException {
+            out.flip();
+            ch.write(out);
+            out.compact();
+            // o que não coube no socket espera o próximo OP_WRITE
+            key.interestOps(out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        void close(SelectionKey key) {
+            key.cancel();
+            try {
+                ch.close();
+            } catch (IOException ignored) {
+                // conexão já fechada
+            }
+        }
+    }
+}
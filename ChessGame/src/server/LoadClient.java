@@ -0,0 +1,112 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de carga para o GameServer em localhost: C conexões, cada uma mantendo
+ * G partidas abertas e jogando lances aleatórios legais em rodízio entre elas.
+ *
+ * Uso: java -cp out server.LoadClient [--port 7878 | --embedded] [--connections C]
+ *                                     [--games-per-connection G] [--seconds S] [--seed S]
+ *
+ * Com --embedded o servidor sobe no mesmo processo, numa porta livre.
+ */
+public final class LoadClient {
+
+    private LoadClient() { /* utilitário */ }
+
+    public static void main(String[] args) throws Exception {
+        int port = 7878, connections = 8, gamesPerConnection = 100, seconds = 10;
+        boolean embedded = false;
+        long seed = 1L;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port"                 -> port = Integer.parseInt(args[++i]);
+                case "--embedded"             -> embedded = true;
+                case "--connections"          -> connections = Integer.parseInt(args[++i]);
+                case "--games-per-connection" -> gamesPerConnection = Integer.parseInt(args[++i]);
+                case "--seconds"              -> seconds = Integer.parseInt(args[++i]);
+                case "--seed"                 -> seed = Long.parseLong(args[++i]);
+                default -> {
+                    System.err.println("Argumento desconhecido: " + args[i]);
+                    return;
+                }
+            }
+        }
+
+        if (embedded) {
+            GameServer gs = new GameServer(0, Runtime.getRuntime().availableProcessors());
+            port = gs.port();
+            Thread acceptor = new Thread(() -> {
+                try {
+                    gs.acceptLoop();
+                } catch (IOException e) {
+                    System.err.println("Servidor encerrado: " + e.getMessage());
+                }
+            }, "game-server-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        final int p = port, g = gamesPerConnection;
+        final long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong moves = new AtomicLong(), games = new AtomicLong(), errors = new AtomicLong();
+
+        Thread[] clients = new Thread[connections];
+        for (int c = 0; c < connections; c++) {
+            final Random rnd = new Random(seed * 1_000_003L + c);
+            clients[c] = new Thread(() -> {
+                try (Socket s = new Socket("127.0.0.1", p)) {
+                    s.setTcpNoDelay(true);
+                    BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+                    PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII));
+                    long[] ids = new long[g];
+                    for (int i = 0; i < g; i++) ids[i] = Long.parseLong(call(in, out, "NEW").substring(3));
+                    games.addAndGet(g);
+
+                    for (int i = 0; System.nanoTime() < deadline; i = (i + 1) % g) {
+                        String[] legal = call(in, out, "LEGAL " + ids[i]).split(" ");
+                        if (legal.length <= 1) {
+                            // partida terminou: troca por uma nova
+                            call(in, out, "CLOSE " + ids[i]);
+                            ids[i] = Long.parseLong(call(in, out, "NEW").substring(3));
+                            games.incrementAndGet();
+                            continue;
+                        }
+                        String reply = call(in, out, "MOVE " + ids[i] + " " + legal[1 + rnd.nextInt(legal.length - 1)]);
+                        if (reply.startsWith("OK")) moves.incrementAndGet(); else errors.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Conexão falhou: " + e.getMessage());
+                }
+            }, "load-client-" + c);
+            clients[c].start();
+        }
+        for (Thread t : clients) t.join();
+
+        System.out.printf("%d conexões, %d partidas, %d lances (%d erros) em %ds: %.0f lances/s (cliente)%n",
+                connections, games.get(), moves.get(), errors.get(), seconds, moves.get() / (double) seconds);
+        try (Socket s = new Socket("127.0.0.1", p)) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII));
+            System.out.println("Servidor: " + call(in, out, "STATS"));
+        }
+    }
+
+    private static String call(BufferedReader in, PrintWriter out, String cmd) throws IOException {
+        out.print(cmd);
+        out.print('\n');
+        out.flush();
+        String reply = in.readLine();
+        if (reply == null) throw new IOException("conexão fechada pelo servidor");
+        return reply;
+    }
+}
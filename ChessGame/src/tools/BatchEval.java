@@ -0,0 +1,120 @@
+package tools;
+
+import engine.BatchEvaluator;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Avaliação em lote de FENs (uma por linha; linhas EPD também servem, os campos extras são
+ * ignorados). A saída sai na ordem da entrada, uma linha por posição:
+ *   fen&lt;TAB&gt;melhor lance&lt;TAB&gt;score (centipeões do lado a jogar)&lt;TAB&gt;profundidade
+ * ou "fen&lt;TAB&gt;error&lt;TAB&gt;mensagem". Ao final, a vazão (posições/s) vai para stderr.
+ *
+ * Uso:
+ *   java -cp out tools.BatchEval [--engine "nodes=2000,eval=classical"] [--threads T]
+ *        [--hash MB] [--window N] [arquivo.fen | -]
+ */
+public final class BatchEval {
+
+    private BatchEval() { /* utilitário */ }
+
+    public static void main(String[] args) throws IOException {
+        EngineConfig cfg = EngineConfig.parse("batch:nodes=2000");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMb = 1;
+        int window = 0;
+        String input = "-";
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--engine"  -> cfg = EngineConfig.parse("batch:" + args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--hash"    -> hashMb = Integer.parseInt(args[++i]);
+                case "--window"  -> window = Integer.parseInt(args[++i]);
+                default -> {
+                    if (args[i].startsWith("--")) {
+                        System.err.println("Argumento desconhecido: " + args[i]);
+                        return;
+                    }
+                    input = args[i];
+                }
+            }
+        }
+        if (window <= 0) window = threads * 8;
+
+        BufferedReader in = input.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        long[] nodes = new long[1];
+
+        System.err.println("Engine: " + cfg + " | threads " + threads + " | janela " + window);
+        long start = System.nanoTime();
+        long count;
+        EngineConfig config = cfg;
+        try (in; BatchEvaluator batch = new BatchEvaluator(config::newEvaluator, threads, hashMb,
+                config.getLimits(), window)) {
+            count = batch.evaluate(lines(in), r -> {
+                nodes[0] += r.getNodes();
+                try {
+                    out.write(r.getFen());
+                    if (r.isValid()) {
+                        out.write('\t');
+                        out.write(r.getBestMove() == null ? "0000" : SelfPlay.coordinate(r.getBestMove()));
+                        out.write('\t' + Integer.toString(r.getScore()) + '\t' + r.getDepth());
+                    } else {
+                        out.write("\terror\t" + r.getError());
+                    }
+                    out.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        out.flush();
+
+        double secs = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        System.err.printf("%d posições em %.1f s: %.1f posições/s, %,d nós/s%n",
+                count, secs, count / secs, (long) (nodes[0] / secs));
+    }
+
+    // linhas não vazias, sem comentários (#), lidas sob demanda: a contrapressão chega até o arquivo
+    private static Iterator<String> lines(BufferedReader in) {
+        return new Iterator<String>() {
+            private String next = advance();
+
+            private String advance() {
+                try {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) return line;
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() { return next != null; }
+
+            @Override
+            public String next() {
+                if (next == null) throw new NoSuchElementException();
+                String s = next;
+                next = advance();
+                return s;
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package tools;
+
+import engine.ClassicalEvaluator;
+import engine.Engine;
+import engine.Evaluator;
+import engine.NnueEvaluator;
+import engine.NnueNetwork;
+import engine.SearchLimits;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * Configuração de engine para partidas headless, lida de uma string como
+ * "nome:nodes=2000,eval=classical" ou "depth=3" (chaves: nodes, depth, movetime, eval, net).
+ * eval=nnue usa a rede do arquivo `net` ou, sem ele, a rede derivada da avaliação clássica.
+ */
+public final class EngineConfig {
+
+    private final String name;
+    private final SearchLimits limits;
+    private final String eval;
+    private final String net;
+    private NnueNetwork network; // carregada uma vez, compartilhada pelas engines desta configuração
+
+    public EngineConfig(String name, SearchLimits limits, String eval) {
+        this(name, limits, eval, null);
+    }
+
+    public EngineConfig(String name, SearchLimits limits, String eval, String net) {
+        this.name = name;
+        this.limits = limits;
+        this.eval = eval;
+        this.net = net;
+    }
+
+    public String getName() { return name; }
+    public SearchLimits getLimits() { return limits; }
+
+    /** Cria uma engine nova (uma por thread/partida). */
+    public Engine newEngine() {
+        return new Engine(newEvaluator());
+    }
+
+    Evaluator newEvaluator() {
+        switch (eval) {
+            case "classical": return new ClassicalEvaluator();
+            case "nnue":      return new NnueEvaluator(network());
+            default: throw new IllegalArgumentException("Avaliador desconhecido: " + eval);
+        }
+    }
+
+    private synchronized NnueNetwork network() {
+        if (network == null) {
+            try {
+                network = net == null ? NnueNetwork.classical() : NnueNetwork.load(Paths.get(net));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return network;
+    }
+
+    public static EngineConfig parse(String spec) {
+        String name = spec;
+        String opts = spec;
+        int colon = spec.indexOf(':');
+        if (colon >= 0) {
+            name = spec.substring(0, colon);
+            opts = spec.substring(colon + 1);
+        }
+
+        int depth = SearchLimits.MAX_DEPTH;
+        long nodes = 0, millis = 0;
+        String eval = "classical";
+        String net = null;
+        for (String kv : opts.split(",")) {
+            if (kv.isEmpty()) continue;
+            int eq = kv.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Opção inválida: " + kv);
+            String k = kv.substring(0, eq), v = kv.substring(eq + 1);
+            switch (k) {
+                case "nodes"    -> nodes = Long.parseLong(v);
+                case "depth"    -> depth = Integer.parseInt(v);
+                case "movetime" -> millis = Long.parseLong(v);
+                case "eval"     -> eval = v;
+                case "net"      -> net = v;
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + k);
+            }
+        }
+        if (nodes == 0 && millis == 0 && depth == SearchLimits.MAX_DEPTH) nodes = 2_000;
+
+        EngineConfig cfg = new EngineConfig(name, new SearchLimits(depth, nodes, millis), eval, net);
+        cfg.newEvaluator(); // valida o nome do avaliador já no parse
+        return cfg;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + limits + ", eval=" + eval + (net == null ? "" : ", net=" + net) + ")";
+    }
+}
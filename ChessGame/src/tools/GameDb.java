@@ -0,0 +1,105 @@
+package tools;
+
+import controller.Game;
+import db.ExplorerIndex;
+import db.GameStore;
+import java.nio.file.Paths;
+import model.board.Move;
+import notation.PgnGame;
+import notation.PgnReader;
+import notation.San;
+
+/**
+ * Linha de comando da base binária de partidas.
+ *
+ * Uso:
+ *   java -cp out tools.GameDb import &lt;dir&gt; arquivo.pgn
+ *   java -cp out tools.GameDb query  &lt;dir&gt; [lances SAN a partir da posição inicial...]
+ *   java -cp out tools.GameDb compact &lt;dir&gt;
+ *   java -cp out tools.GameDb explorer arquivo.pgn saida.idx [maxPly] [threads]
+ */
+public final class GameDb {
+
+    private static final String USAGE = "Uso: GameDb import <dir> arquivo.pgn | GameDb query <dir> [e4 e5 Nf3 ...]"
+            + " | GameDb compact <dir> | GameDb explorer arquivo.pgn saida.idx [maxPly] [threads]";
+
+    private GameDb() { /* utilitário */ }
+
+    public static void main(String[] args) throws Exception {
+        int required = args.length == 0 ? 1 : requiredArgs(args[0]);
+        if (required < 0) System.err.println("Comando desconhecido: " + args[0]);
+        if (required < 0 || args.length < required) {
+            System.err.println(USAGE);
+            return;
+        }
+        if (args[0].equals("explorer")) {
+            buildExplorer(args);
+            return;
+        }
+        try (GameStore store = GameStore.open(Paths.get(args[1]))) {
+            switch (args[0]) {
+                case "import" -> importPgn(store, args[2]);
+                case "query"  -> query(store, args);
+                case "compact" -> {
+                    store.compact();
+                    System.out.printf("Índice compactado: %d posições em %d run(s)%n", store.indexSize(), store.indexRuns());
+                }
+            }
+        }
+    }
+
+    // argumentos obrigatórios de cada comando, contando o próprio comando (-1 = desconhecido)
+    private static int requiredArgs(String command) {
+        return switch (command) {
+            case "import", "explorer" -> 3;
+            case "query", "compact" -> 2;
+            default -> -1;
+        };
+    }
+
+    private static void importPgn(GameStore store, String file) throws Exception {
+        long start = System.nanoTime();
+        int ok = 0, bad = 0;
+        try (PgnReader reader = PgnReader.open(Paths.get(file))) {
+            PgnGame g;
+            while ((g = reader.next()) != null) {
+                // a base só guarda partidas a partir da posição inicial: com FEN próprio, rejeita em vez de
+                // reproduzir os lances a partir da posição errada
+                if (!g.hasSetUp() && store.append(g.moves(), g.result()) >= 0) ok++; else bad++;
+            }
+        }
+        store.flush();
+        System.out.printf("%d partidas importadas (%d rejeitadas) em %.1fs; índice com %d posições em %d run(s)%n",
+                ok, bad, (System.nanoTime() - start) / 1e9, store.indexSize(), store.indexRuns());
+    }
+
+    private static void buildExplorer(String[] args) throws Exception {
+        int maxPly = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        ExplorerIndex.build(Paths.get(args[1]), Paths.get(args[2]), maxPly, threads);
+        try (ExplorerIndex idx = ExplorerIndex.open(Paths.get(args[2]))) {
+            System.out.printf("Explorador: %d registros (posição, lance) em %.1fs%n",
+                    idx.size(), (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static void query(GameStore store, String[] args) throws Exception {
+        Game game = new Game();
+        for (int i = 2; i < args.length; i++) {
+            Move m = San.parse(game, args[i]);
+            if (m == null) {
+                System.err.println("Lance inválido: " + args[i]);
+                return;
+            }
+            game.move(m);
+        }
+        long start = System.nanoTime();
+        long[] ptrs = store.gamesWithPosition(game.zobristKey());
+        System.out.printf("%d partidas com esta posição (%.2f ms)%n", ptrs.length, (System.nanoTime() - start) / 1e6);
+        for (int i = 0; i < Math.min(ptrs.length, 10); i++) {
+            GameStore.StoredGame sg = store.read(ptrs[i]);
+            System.out.println(sg.getResult() + " " + String.join(" ", sg.getMoves()));
+        }
+    }
+}
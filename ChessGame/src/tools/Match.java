@@ -0,0 +1,195 @@
+package tools;
+
+import controller.Game;
+import engine.Engine;
+import engine.SearchResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.board.Move;
+
+/**
+ * Match A/B entre duas configurações de engine com aberturas pareadas
+ * (cada abertura aleatória é jogada duas vezes, trocando as cores) e
+ * parada antecipada por SPRT sobre os limites de Elo [elo0, elo1].
+ *
+ * Uso:
+ *   java -cp out tools.Match --a "novo:nodes=4000" --b "base:nodes=2000"
+ *        [--elo0 0] [--elo1 10] [--alpha 0.05] [--beta 0.05]
+ *        [--max-pairs 20000] [--threads T] [--random-plies 6] [--max-plies 300] [--seed S]
+ */
+public final class Match {
+
+    private Match() { /* utilitário */ }
+
+    public static void main(String[] args) throws Exception {
+        EngineConfig a = null, b = null;
+        double elo0 = 0, elo1 = 10, alpha = 0.05, beta = 0.05;
+        int maxPairs = 20_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int randomPlies = 6, maxPlies = 300;
+        long seed = 1L;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--a"            -> a = EngineConfig.parse(args[++i]);
+                case "--b"            -> b = EngineConfig.parse(args[++i]);
+                case "--elo0"         -> elo0 = Double.parseDouble(args[++i]);
+                case "--elo1"         -> elo1 = Double.parseDouble(args[++i]);
+                case "--alpha"        -> alpha = Double.parseDouble(args[++i]);
+                case "--beta"         -> beta = Double.parseDouble(args[++i]);
+                case "--max-pairs"    -> maxPairs = Integer.parseInt(args[++i]);
+                case "--threads"      -> threads = Integer.parseInt(args[++i]);
+                case "--random-plies" -> randomPlies = Integer.parseInt(args[++i]);
+                case "--max-plies"    -> maxPlies = Integer.parseInt(args[++i]);
+                case "--seed"         -> seed = Long.parseLong(args[++i]);
+                default -> {
+                    System.err.println("Argumento desconhecido: " + args[i]);
+                    return;
+                }
+            }
+        }
+        if (a == null || b == null) {
+            System.err.println("Informe as duas engines com --a e --b");
+            return;
+        }
+
+        Sprt sprt = new Sprt(elo0, elo1, alpha, beta);
+        System.out.printf("Match: %s vs %s, SPRT elo0=%.1f elo1=%.1f alpha=%.2f beta=%.2f (limites LLR %.2f / %.2f)%n",
+                a, b, elo0, elo1, alpha, beta, sprt.lowerBound(), sprt.upperBound());
+
+        final EngineConfig cfgA = a, cfgB = b;
+        final int maxP = maxPairs, rp = randomPlies, mp = maxPlies;
+        final long baseSeed = seed;
+        AtomicInteger nextPair = new AtomicInteger();
+        long start = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                Engine engA = cfgA.newEngine();
+                Engine engB = cfgB.newEngine();
+                int pair;
+                while (!sprt.isDecided() && (pair = nextPair.getAndIncrement()) < maxP) {
+                    List<Move> opening = randomOpening(new Random(baseSeed * 1_000_003L + pair), rp);
+                    // mesma abertura, cores trocadas; pontuação do ponto de vista de A
+                    double s1 = playGame(opening, engA, cfgA, engB, cfgB, mp);
+                    double s2 = 1.0 - playGame(opening, engB, cfgB, engA, cfgA, mp);
+                    sprt.addPair(s1, s2);
+                }
+            });
+        }
+        pool.shutdown();
+        while (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+            System.out.println(sprt.summary());
+        }
+
+        System.out.printf("%s em %.1fs%n", sprt.summary(), (System.nanoTime() - start) / 1e9);
+        System.out.println(switch (sprt.decision()) {
+            case 1  -> "H1 aceita: " + a.getName() + " é mais forte (>= elo1)";
+            case -1 -> "H0 aceita: " + a.getName() + " não é mais forte (<= elo0)";
+            default -> "Inconclusivo (limite de pares atingido)";
+        });
+    }
+
+    /** Sequência de lances aleatórios legais que define uma abertura. */
+    static List<Move> randomOpening(Random rnd, int plies) {
+        Game g = new Game();
+        List<Move> line = new ArrayList<>();
+        for (int i = 0; i < plies && !g.isGameOver(); i++) {
+            List<Move> legal = g.legalMoves();
+            if (legal.isEmpty()) break;
+            Move m = legal.get(rnd.nextInt(legal.size()));
+            g.move(m);
+            line.add(m);
+        }
+        return line;
+    }
+
+    /** Joga uma partida a partir da abertura; retorna a pontuação das brancas (1, 0.5 ou 0). */
+    static double playGame(List<Move> opening, Engine white, EngineConfig whiteCfg,
+                           Engine black, EngineConfig blackCfg, int maxPlies) {
+        Game game = new Game();
+        for (Move m : opening) game.move(m.getFrom(), m.getTo(), m.getPromotion());
+
+        int plies = opening.size();
+        while (!game.isGameOver() && plies < maxPlies) {
+            boolean w = game.whiteToMove();
+            SearchResult r = (w ? white : black).search(game, (w ? whiteCfg : blackCfg).getLimits());
+            if (r.getBestMove() == null) break;
+            game.move(r.getBestMove());
+            plies++;
+        }
+        switch (game.isGameOver() ? game.result() : "1/2-1/2") {
+            case "1-0": return 1.0;
+            case "0-1": return 0.0;
+            default: return 0.5;
+        }
+    }
+
+    /**
+     * SPRT com aproximação normal sobre a pontuação média dos pares
+     * (pares tratam a correlação entre as duas partidas da mesma abertura).
+     */
+    static final class Sprt {
+        private final double s0, s1, lower, upper;
+        private int pairs, wins, losses, draws;
+        private double sum, sumSq;
+        private int decision;
+
+        Sprt(double elo0, double elo1, double alpha, double beta) {
+            this.s0 = expectedScore(elo0);
+            this.s1 = expectedScore(elo1);
+            this.lower = Math.log(beta / (1 - alpha));
+            this.upper = Math.log((1 - beta) / alpha);
+        }
+
+        double lowerBound() { return lower; }
+        double upperBound() { return upper; }
+
+        synchronized boolean isDecided() { return decision != 0; }
+        synchronized int decision() { return decision; }
+
+        synchronized void addPair(double g1, double g2) {
+            if (decision != 0) return; // pares em andamento após a decisão são descartados
+            for (double g : new double[] {g1, g2}) {
+                if (g == 1.0) wins++; else if (g == 0.0) losses++; else draws++;
+            }
+            double s = (g1 + g2) / 2;
+            pairs++;
+            sum += s;
+            sumSq += s * s;
+
+            double llr = llr();
+            if (llr >= upper) decision = 1;
+            else if (llr <= lower) decision = -1;
+        }
+
+        synchronized double llr() {
+            if (pairs < 2) return 0;
+            double mean = sum / pairs;
+            double var = sumSq / pairs - mean * mean;
+            if (var <= 1e-9) return 0;
+            return pairs * (s1 - s0) * (2 * mean - s0 - s1) / (2 * var);
+        }
+
+        synchronized String summary() {
+            double score = pairs == 0 ? 0.5 : sum / pairs;
+            return String.format("pares=%d +%d -%d =%d score=%.3f elo=%.1f LLR=%.2f [%.2f, %.2f]",
+                    pairs, wins, losses, draws, score, eloFromScore(score), llr(), lower, upper);
+        }
+
+        static double expectedScore(double elo) {
+            return 1.0 / (1.0 + Math.pow(10, -elo / 400.0));
+        }
+
+        static double eloFromScore(double s) {
+            s = Math.min(Math.max(s, 1e-6), 1 - 1e-6);
+            return -400.0 * Math.log10(1.0 / s - 1.0);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package tools;
+
+import controller.Game;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import model.board.Move;
+import notation.PgnGame;
+import notation.PgnReader;
+import notation.San;
+
+/**
+ * Valida/reproduz arquivos PGN grandes: uma thread lê o arquivo em streaming e
+ * alimenta uma fila limitada; N workers reproduzem cada partida num Game próprio.
+ *
+ * Uso: java -cp out tools.PgnReplay arquivo.pgn [--threads T] [--queue 1024] [--verbose]
+ */
+public final class PgnReplay {
+
+    private static final PgnGame POISON = new PgnGame();
+
+    private PgnReplay() { /* utilitário */ }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: PgnReplay arquivo.pgn [--threads T] [--queue N] [--verbose]");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueSize = 1024;
+        boolean verbose = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--queue"   -> queueSize = Integer.parseInt(args[++i]);
+                case "--verbose" -> verbose = true;
+                default -> {
+                    System.err.println("Argumento desconhecido: " + args[i]);
+                    return;
+                }
+            }
+        }
+
+        BlockingQueue<PgnGame> queue = new ArrayBlockingQueue<>(queueSize);
+        AtomicLong games = new AtomicLong(), plies = new AtomicLong(), invalid = new AtomicLong();
+        final boolean v = verbose;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    PgnGame g;
+                    while ((g = queue.take()) != POISON) {
+                        int n;
+                        try {
+                            n = replay(g);
+                        } catch (RuntimeException e) {
+                            // FEN ou lance que quebra o replay: um worker morto travaria o leitor na fila cheia
+                            games.incrementAndGet();
+                            invalid.incrementAndGet();
+                            if (v) System.err.println("Erro na partida: " + g.tags() + ": " + e);
+                            continue;
+                        }
+                        games.incrementAndGet();
+                        if (n < 0) {
+                            invalid.incrementAndGet();
+                            plies.addAndGet(-n - 1);
+                            if (v) System.err.println("Lance inválido na partida: " + g.tags() + " ply " + (-n));
+                        } else {
+                            plies.addAndGet(n);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "pgn-replay-" + t);
+            workers[t].start();
+        }
+
+        long start = System.nanoTime();
+        long read = 0;
+        try (PgnReader reader = PgnReader.open(file)) {
+            PgnGame g;
+            while ((g = reader.next()) != null) {
+                queue.put(g); // bloqueia quando os workers estão atrasados (backpressure)
+                if (++read % 100_000 == 0) {
+                    System.out.printf("%d partidas lidas, %.0f partidas/min%n", read, perMinute(games.get(), start));
+                }
+            }
+        }
+        for (int t = 0; t < threads; t++) queue.put(POISON);
+        for (Thread w : workers) w.join();
+
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d partidas (%d inválidas), %d lances em %.1fs: %.0f partidas/min, %.0f lances/s%n",
+                games.get(), invalid.get(), plies.get(), secs,
+                perMinute(games.get(), start), secs <= 0 ? 0 : plies.get() / secs);
+    }
+
+    /**
+     * Reproduz a partida a partir da posição dela (tag FEN, se houver); retorna o número de plies
+     * aplicados, ou -(ply) se o lance de número `ply` (1-based) não puder ser resolvido.
+     */
+    static int replay(PgnGame pgn) {
+        Game game = pgn.startingGame();
+        int ply = 0;
+        for (String san : pgn.moves()) {
+            Move m = San.parse(game, san);
+            if (m == null) return -(ply + 1);
+            game.move(m);
+            ply++;
+        }
+        return ply;
+    }
+
+    private static double perMinute(long n, long startNanos) {
+        double minutes = (System.nanoTime() - startNanos) / 60e9;
+        return minutes <= 0 ? 0 : n / minutes;
+    }
+}
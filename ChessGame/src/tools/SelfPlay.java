@@ -0,0 +1,153 @@
+package tools;
+
+import controller.Game;
+import engine.Engine;
+import engine.SearchLimits;
+import engine.SearchResult;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.board.Move;
+
+/**
+ * Torneio headless engine-vs-engine usando todos os núcleos.
+ * Cada partida roda em sua própria instância de Game e Engine (uma por tarefa).
+ *
+ * Uso:
+ *   java -cp out tools.SelfPlay [--games N] [--threads T] [--nodes N | --movetime MS | --depth D]
+ *                               [--random-plies K] [--max-plies P] [--seed S] [--out arquivo]
+ *
+ * Cada linha de saída: "<n> <resultado> <plies> <lances...>" com lances em coordenadas (e2e4, e7e8q).
+ */
+public final class SelfPlay {
+
+    private SelfPlay() { /* utilitário */ }
+
+    public static void main(String[] args) throws Exception {
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        SearchLimits limits = SearchLimits.nodes(2_000);
+        int randomPlies = 4;
+        int maxPlies = 300;
+        long seed = 1L;
+        String out = "selfplay.txt";
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games"        -> games = Integer.parseInt(args[++i]);
+                case "--threads"      -> threads = Integer.parseInt(args[++i]);
+                case "--nodes"        -> limits = SearchLimits.nodes(Long.parseLong(args[++i]));
+                case "--movetime"     -> limits = SearchLimits.millis(Long.parseLong(args[++i]));
+                case "--depth"        -> limits = SearchLimits.depth(Integer.parseInt(args[++i]));
+                case "--random-plies" -> randomPlies = Integer.parseInt(args[++i]);
+                case "--max-plies"    -> maxPlies = Integer.parseInt(args[++i]);
+                case "--seed"         -> seed = Long.parseLong(args[++i]);
+                case "--out"          -> out = args[++i];
+                default -> {
+                    System.err.println("Argumento desconhecido: " + args[i]);
+                    return;
+                }
+            }
+        }
+
+        System.out.printf("SelfPlay: %d partidas, %d threads, %s%n", games, threads, limits);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicInteger finished = new AtomicInteger();
+        int[] score = new int[3]; // [brancas, pretas, empates]
+        long start = System.nanoTime();
+
+        try (BufferedWriter bw = Files.newBufferedWriter(Paths.get(out));
+             PrintWriter writer = new PrintWriter(bw)) {
+            for (int g = 0; g < games; g++) {
+                final int n = g + 1;
+                final long gameSeed = seed * 31 + g;
+                final SearchLimits lim = limits;
+                final int rp = randomPlies, mp = maxPlies;
+                final int total = games;
+                pool.execute(() -> {
+                    GameRecord rec = playOne(gameSeed, lim, rp, mp);
+                    synchronized (writer) {
+                        writer.println(n + " " + rec.result + " " + rec.plies + " " + rec.moves);
+                        switch (rec.result) {
+                            case "1-0" -> score[0]++;
+                            case "0-1" -> score[1]++;
+                            default    -> score[2]++;
+                        }
+                    }
+                    int done = finished.incrementAndGet();
+                    if (done % 10 == 0 || done == total) {
+                        System.out.printf("%d/%d partidas, %.1f partidas/min%n",
+                                done, total, gamesPerMinute(done, start));
+                    }
+                });
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        }
+
+        System.out.printf("Fim: +%d -%d =%d em %.1fs (%.1f partidas/min) -> %s%n",
+                score[0], score[1], score[2], (System.nanoTime() - start) / 1e9,
+                gamesPerMinute(finished.get(), start), out);
+    }
+
+    static final class GameRecord {
+        final String result;
+        final int plies;
+        final String moves;
+        GameRecord(String result, int plies, String moves) {
+            this.result = result; this.plies = plies; this.moves = moves;
+        }
+    }
+
+    /**
+     * Joga uma partida completa. Os primeiros `randomPlies` lances são aleatórios (semente fixa)
+     * para variar as aberturas; partidas que passam de `maxPlies` são adjudicadas como empate.
+     */
+    static GameRecord playOne(long seed, SearchLimits limits, int randomPlies, int maxPlies) {
+        Game game = new Game();
+        Engine engine = new Engine();
+        Random rnd = new Random(seed);
+        StringBuilder moves = new StringBuilder();
+        int plies = 0;
+
+        while (!game.isGameOver() && plies < maxPlies) {
+            Move m;
+            if (plies < randomPlies) {
+                List<Move> legal = game.legalMoves();
+                if (legal.isEmpty()) break;
+                m = legal.get(rnd.nextInt(legal.size()));
+            } else {
+                SearchResult r = engine.search(game, limits);
+                m = r.getBestMove();
+                if (m == null) break;
+            }
+            game.move(m);
+            if (moves.length() > 0) moves.append(' ');
+            moves.append(coordinate(m));
+            plies++;
+        }
+
+        String result = game.isGameOver() ? game.result() : "1/2-1/2";
+        return new GameRecord(result, plies, moves.toString());
+    }
+
+    static String coordinate(Move m) {
+        String s = m.getFrom().toString() + m.getTo();
+        if (m.getPromotion() != null) s += Character.toLowerCase(m.getPromotion());
+        return s;
+    }
+
+    private static double gamesPerMinute(int games, long startNanos) {
+        double minutes = (System.nanoTime() - startNanos) / 60e9;
+        return minutes <= 0 ? 0 : games / minutes;
+    }
+}
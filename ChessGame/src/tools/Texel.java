@@ -0,0 +1,325 @@
+package tools;
+
+import engine.EvalParams;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ajuste de parâmetros da avaliação pelo método Texel: minimiza o erro quadrático
+ * entre o resultado da partida e sigmoid(K * avaliação) sobre posições rotuladas.
+ *
+ * Entrada: uma posição por linha, FEN seguido do resultado em qualquer formato comum
+ * ("1-0", "0-1", "1/2-1/2", "[1.0]", "c9 \"0-1\";"). Use posições quietas (sem capturas
+ * pendentes), já que a avaliação é estática. As posições ficam em arrays primitivos
+ * (uma peça = um short) e o erro e o gradiente são somados em paralelo com fork-join.
+ *
+ * A avaliação é linear nos parâmetros (material + tabela por casa), então o gradiente é
+ * exato; o otimizador é Adam. No fim grava engine/EvalParams.java (tabela gerada).
+ *
+ * Uso: java -cp out tools.Texel posicoes.epd [--iters 2000] [--lr 1.0] [--k K]
+ *                                [--threads T] [--out src/engine/EvalParams.java]
+ */
+public final class Texel {
+
+    private static final String TYPES = "PNBRQK";
+    private static final int KING = 5;
+
+    // layout do vetor de parâmetros: material P N B R Q (rei fixo) e depois 6 blocos de 64 casas
+    static final int MATERIAL = 0;
+    static final int PST = 5;
+    static final int PARAMS = PST + 6 * 64;
+
+    // posições por folha do fork-join
+    private static final int LEAF = 4096;
+    private static final double LN10_400 = Math.log(10) / 400.0;
+
+    private Texel() { /* utilitário */ }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: Texel posicoes.epd [--iters N] [--lr X] [--k K] [--threads T] [--out arquivo]");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        int iters = 2000;
+        double lr = 1.0;
+        double k = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = "src/engine/EvalParams.java";
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--iters"   -> iters = Integer.parseInt(args[++i]);
+                case "--lr"      -> lr = Double.parseDouble(args[++i]);
+                case "--k"       -> k = Double.parseDouble(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--out"     -> out = args[++i];
+                default -> {
+                    System.err.println("Argumento desconhecido: " + args[i]);
+                    return;
+                }
+            }
+        }
+
+        long t0 = System.nanoTime();
+        Dataset data = Dataset.load(file);
+        System.out.printf("%d posições (%d ignoradas) carregadas em %.1fs%n",
+                data.size, data.skipped, (System.nanoTime() - t0) / 1e9);
+        if (data.size == 0) return;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            double[] w = initialParams();
+            if (k <= 0) {
+                k = fitK(pool, data, w);
+                System.out.printf("K ajustado: %.4f%n", k);
+            }
+            double start = error(pool, data, w, k);
+            System.out.printf("Erro inicial: %.6f%n", start);
+
+            t0 = System.nanoTime();
+            double err = optimize(pool, data, w, k, iters, lr);
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("Erro final: %.6f após %d iterações em %.1fs (%.1f it/s)%n",
+                    err, iters, secs, secs <= 0 ? 0 : iters / secs);
+
+            int[] tuned = round(w);
+            double rounded = error(pool, data, toDouble(tuned), k);
+            export(Paths.get(out), tuned, String.format("%s, %d posições, K=%.4f, erro %.6f -> %.6f",
+                    file.getFileName(), data.size, k, start, rounded));
+            System.out.println("Tabela gravada em " + out);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // --------- Dados ----------
+
+    /**
+     * Posições em formato compacto (CSR): as peças da posição i estão em
+     * pieces[start[i] .. start[i+1]), cada uma codificada como (branca << 9) | (tipo << 6) | casa,
+     * com a casa já espelhada para as pretas (tabelas do ponto de vista das brancas).
+     */
+    static final class Dataset {
+        int size;
+        int skipped;
+        float[] result = new float[1 << 16];
+        int[] start = new int[(1 << 16) + 1];
+        short[] pieces = new short[1 << 20];
+
+        static Dataset load(Path file) throws IOException {
+            Dataset d = new Dataset();
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.isBlank() && !d.add(line)) d.skipped++;
+                }
+            }
+            return d;
+        }
+
+        private boolean add(String line) {
+            double r = parseResult(line);
+            if (r < 0) return false;
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size * 2);
+                start = Arrays.copyOf(start, size * 2 + 1);
+            }
+            int at = start[size];
+            int row = 0, col = 0;
+            for (int i = 0; i < line.length(); i++) {
+                char ch = line.charAt(i);
+                if (ch == ' ') break;
+                if (ch == '/') { row++; col = 0; continue; }
+                if (ch >= '1' && ch <= '8') { col += ch - '0'; continue; }
+                int type = TYPES.indexOf(Character.toUpperCase(ch));
+                if (type < 0 || row > 7 || col > 7) return false;
+                boolean white = Character.isUpperCase(ch);
+                int sq = (white ? row : 7 - row) * 8 + col;
+                if (at == pieces.length) pieces = Arrays.copyOf(pieces, pieces.length * 2);
+                pieces[at++] = (short) ((white ? 1 << 9 : 0) | (type << 6) | sq);
+                col++;
+            }
+            result[size] = (float) r;
+            start[++size] = at;
+            return true;
+        }
+    }
+
+    // 1 = vitória das brancas, 0.5 = empate, 0 = derrota; -1 se não encontrou
+    static double parseResult(String line) {
+        if (line.contains("1/2-1/2")) return 0.5;
+        if (line.contains("1-0")) return 1.0;
+        if (line.contains("0-1")) return 0.0;
+        String[] t = line.trim().split("\\s+");
+        if (t.length < 2) return -1;
+        String last = t[t.length - 1].replaceAll("[\\[\\]\";]", "");
+        try {
+            double r = Double.parseDouble(last);
+            return r == 0.0 || r == 0.5 || r == 1.0 ? r : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // --------- Erro e gradiente (fork-join) ----------
+
+    /**
+     * Soma, num intervalo de posições, o erro quadrático e (se pedido) o gradiente.
+     * Resultado: [0] = soma dos erros, [1 + j] = soma de dErro/dw[j].
+     */
+    static final class ErrorTask extends RecursiveTask<double[]> {
+        private static final long serialVersionUID = 1L;
+        private final Dataset d;
+        private final double[] w;
+        private final double k;
+        private final boolean gradient;
+        private final int from, to;
+
+        ErrorTask(Dataset d, double[] w, double k, boolean gradient, int from, int to) {
+            this.d = d;
+            this.w = w;
+            this.k = k;
+            this.gradient = gradient;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > LEAF) {
+                int mid = (from + to) >>> 1;
+                ErrorTask left = new ErrorTask(d, w, k, gradient, from, mid);
+                left.fork();
+                double[] right = new ErrorTask(d, w, k, gradient, mid, to).compute();
+                double[] l = left.join();
+                for (int i = 0; i < l.length; i++) l[i] += right[i];
+                return l;
+            }
+
+            double[] acc = new double[gradient ? 1 + PARAMS : 1];
+            short[] pieces = d.pieces;
+            for (int i = from; i < to; i++) {
+                int a = d.start[i], b = d.start[i + 1];
+                double s = 0;
+                for (int j = a; j < b; j++) {
+                    int code = pieces[j];
+                    int type = (code >> 6) & 7, sq = code & 63;
+                    double v = w[PST + type * 64 + sq] + (type == KING ? 0 : w[MATERIAL + type]);
+                    s += (code & (1 << 9)) != 0 ? v : -v;
+                }
+                double p = 1.0 / (1.0 + Math.exp(-k * LN10_400 * s));
+                double e = d.result[i] - p;
+                acc[0] += e * e;
+                if (!gradient) continue;
+
+                // d(e²)/dw = -2e · p(1-p) · K·ln10/400 · (±1 por ocorrência do parâmetro)
+                double g = -2 * e * p * (1 - p) * k * LN10_400;
+                for (int j = a; j < b; j++) {
+                    int code = pieces[j];
+                    int type = (code >> 6) & 7, sq = code & 63;
+                    double gs = (code & (1 << 9)) != 0 ? g : -g;
+                    acc[1 + PST + type * 64 + sq] += gs;
+                    if (type != KING) acc[1 + MATERIAL + type] += gs;
+                }
+            }
+            return acc;
+        }
+    }
+
+    static double error(ForkJoinPool pool, Dataset d, double[] w, double k) {
+        return pool.invoke(new ErrorTask(d, w, k, false, 0, d.size))[0] / d.size;
+    }
+
+    // Escala da sigmoide que melhor explica os resultados com os parâmetros atuais (busca ternária)
+    static double fitK(ForkJoinPool pool, Dataset d, double[] w) {
+        double lo = 0.05, hi = 5.0;
+        for (int i = 0; i < 40; i++) {
+            double m1 = lo + (hi - lo) / 3, m2 = hi - (hi - lo) / 3;
+            if (error(pool, d, w, m1) < error(pool, d, w, m2)) hi = m2; else lo = m1;
+        }
+        return (lo + hi) / 2;
+    }
+
+    // --------- Otimização ----------
+
+    // Adam sobre o gradiente exato; devolve o erro da última iteração
+    static double optimize(ForkJoinPool pool, Dataset d, double[] w, double k, int iters, double lr) {
+        final double beta1 = 0.9, beta2 = 0.999, eps = 1e-8;
+        double[] m = new double[PARAMS], v = new double[PARAMS];
+        double err = error(pool, d, w, k);
+        for (int it = 1; it <= iters; it++) {
+            double[] acc = pool.invoke(new ErrorTask(d, w, k, true, 0, d.size));
+            err = acc[0] / d.size;
+            double c1 = 1 - Math.pow(beta1, it), c2 = 1 - Math.pow(beta2, it);
+            for (int j = 0; j < PARAMS; j++) {
+                double g = acc[1 + j] / d.size;
+                m[j] = beta1 * m[j] + (1 - beta1) * g;
+                v[j] = beta2 * v[j] + (1 - beta2) * g * g;
+                w[j] -= lr * (m[j] / c1) / (Math.sqrt(v[j] / c2) + eps);
+            }
+            if (it % 100 == 0) System.out.printf("it %d: erro %.6f%n", it, err);
+        }
+        return err;
+    }
+
+    static double[] initialParams() {
+        double[] w = new double[PARAMS];
+        for (int t = 0; t < KING; t++) w[MATERIAL + t] = EvalParams.PIECE_VALUE[t];
+        for (int i = 0; i < 6 * 64; i++) w[PST + i] = EvalParams.PST[i];
+        return w;
+    }
+
+    private static int[] round(double[] w) {
+        int[] r = new int[PARAMS];
+        for (int j = 0; j < PARAMS; j++) r[j] = (int) Math.round(w[j]);
+        return r;
+    }
+
+    private static double[] toDouble(int[] p) {
+        double[] w = new double[p.length];
+        for (int j = 0; j < p.length; j++) w[j] = p[j];
+        return w;
+    }
+
+    // --------- Exportação ----------
+
+    // Grava a classe EvalParams com os parâmetros arredondados
+    static void export(Path out, int[] p, String origin) throws IOException {
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            String nl = "\r\n";
+            w.print("package engine;" + nl + nl);
+            w.print("/**" + nl);
+            w.print(" * Parâmetros da avaliação clássica. Gerado por tools.Texel; não edite à mão." + nl);
+            w.print(" * Origem: " + origin + nl);
+            w.print(" */" + nl);
+            w.print("public final class EvalParams {" + nl + nl);
+            w.print("    private EvalParams() { /* tabela */ }" + nl + nl);
+            w.print("    /** Valor material por tipo: P, N, B, R, Q, K. */" + nl);
+            w.print("    public static final int[] PIECE_VALUE = { ");
+            for (int t = 0; t < KING; t++) w.print(p[MATERIAL + t] + ", ");
+            w.print(EvalParams.PIECE_VALUE[KING] + " };" + nl + nl);
+            w.print("    /** Bônus por casa do ponto de vista das brancas (linha 0 = 8ª fileira), 64 por tipo na ordem acima. */" + nl);
+            w.print("    public static final int[] PST = {" + nl);
+            for (int t = 0; t < 6; t++) {
+                w.print("        // " + TYPES.charAt(t) + nl);
+                for (int row = 0; row < 8; row++) {
+                    StringBuilder sb = new StringBuilder("       ");
+                    for (int col = 0; col < 8; col++) {
+                        sb.append(String.format(" %4d,", p[PST + t * 64 + row * 8 + col]));
+                    }
+                    w.print(sb + nl);
+                }
+            }
+            w.print("    };" + nl);
+            w.print("}" + nl);
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package tools;
+
+import controller.Game;
+import engine.ClassicalEvaluator;
+import engine.Engine;
+import engine.Evaluator;
+import engine.NnueEvaluator;
+import engine.NnueNetwork;
+import engine.PvLine;
+import engine.SearchLimits;
+import engine.SearchResult;
+import engine.TranspositionTable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import metrics.CountersEvent;
+import model.board.Move;
+
+/**
+ * Front-end UCI (stdin/stdout) para rodar a engine em GUIs e torneios, sem Swing.
+ *
+ * Comandos: uci, isready, ucinewgame, position [startpos | fen ...] [moves ...],
+ * go [depth N] [nodes N] [movetime MS] [wtime MS] [btime MS] [winc MS] [binc MS] [movestogo N] [infinite] [ponder],
+ * ponderhit, stop, setoption name Hash|Threads value N, setoption name UseNNUE value true|false,
+ * setoption name EvalFile value arquivo.nnue, setoption name MultiPV value N, quit.
+ *
+ * A busca roda numa thread dedicada; a thread principal continua lendo comandos,
+ * então stop e isready respondem durante a busca. Threads > 1 usa "lazy SMP":
+ * threads auxiliares buscam a mesma posição compartilhando a tabela de transposição.
+ * Com MultiPV > 1, cada linha sai num "info ... multipv k" assim que fica pronta.
+ *
+ * Uso: java -cp out tools.Uci
+ */
+public final class Uci {
+
+    private static final String NAME = "Xadrez";
+    private static final int MAX_HASH_MB = 1024;
+    private static final int MAX_THREADS = 64;
+    private static final int MAX_MULTI_PV = 32;
+
+    private final PrintStream out;
+    private final TranspositionTable tt = new TranspositionTable(Engine.DEFAULT_HASH_MB);
+    private Engine[] engines = { new Engine(new ClassicalEvaluator(), tt) };
+
+    private final ExecutorService searchThread = daemonPool(1, "uci-search");
+    private ExecutorService helperPool = null;
+
+    // avaliação: clássica ou NNUE (rede do EvalFile ou, sem ele, a derivada da clássica)
+    private boolean useNnue = false;
+    private NnueNetwork network = null;
+
+    private int multiPv = 1;
+
+    private Game game = new Game();
+
+    // busca corrente (escritos na thread de comandos)
+    private AtomicBoolean cancel = new AtomicBoolean(true);
+    private CountDownLatch release = new CountDownLatch(0);
+    private SearchLimits ponderLimits;
+    private final AtomicInteger searching = new AtomicInteger();
+
+    // linha de comando corrente e cursor do tokenizador (sem split/regex por linha)
+    private String line;
+    private int pos;
+
+    public Uci(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        CountersEvent.register();
+        PrintStream out = new PrintStream(System.out, true, StandardCharsets.US_ASCII);
+        new Uci(out).loop(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII)));
+    }
+
+    public void loop(BufferedReader in) throws IOException {
+        String l;
+        while ((l = in.readLine()) != null) {
+            if (!handle(l)) break;
+        }
+        stop();
+    }
+
+    /** Trata uma linha; retorna false em "quit". */
+    public boolean handle(String l) {
+        line = l;
+        pos = 0;
+        if (!skipSpaces()) return true;
+
+        if (word("uci")) {
+            send("id name " + NAME);
+            send("id author KaikeRosa");
+            send("option name Hash type spin default " + Engine.DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+            send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+            send("option name Ponder type check default false");
+            send("option name UseNNUE type check default false");
+            send("option name EvalFile type string default <classical>");
+            send("option name MultiPV type spin default 1 min 1 max " + MAX_MULTI_PV);
+            send("uciok");
+        } else if (word("isready")) {
+            send("readyok");
+        } else if (word("ucinewgame")) {
+            stop();
+            tt.clear();
+            game = new Game();
+        } else if (word("position")) {
+            position();
+        } else if (word("go")) {
+            go();
+        } else if (word("stop")) {
+            stop();
+        } else if (word("ponderhit")) {
+            ponderHit();
+        } else if (word("setoption")) {
+            setOption();
+        } else if (word("quit")) {
+            return false;
+        }
+        // comandos desconhecidos são ignorados, como pede o protocolo
+        return true;
+    }
+
+    // --------- position ----------
+
+    private void position() {
+        Game g;
+        if (word("startpos")) {
+            g = new Game();
+        } else if (word("fen")) {
+            int start = pos;
+            int end = line.indexOf(" moves", start);
+            if (end < 0) end = line.length();
+            try {
+                g = Game.fromFen(line.substring(start, end));
+            } catch (IllegalArgumentException e) {
+                send("info string " + e.getMessage());
+                return;
+            }
+            pos = end;
+        } else {
+            return;
+        }
+
+        if (word("moves")) {
+            while (skipSpaces()) {
+                int code = moveCode();
+                Move m = null;
+                for (Move legal : g.legalMoves()) {
+                    if (legal.code() == code) {
+                        m = legal;
+                        break;
+                    }
+                }
+                if (m == null) {
+                    send("info string illegal move at " + pos);
+                    break;
+                }
+                g.move(m);
+            }
+        }
+        game = g;
+    }
+
+    // "e7e8q" -> Move.code() sem criar objetos
+    private int moveCode() {
+        int start = pos;
+        while (pos < line.length() && line.charAt(pos) > ' ') pos++;
+        if (pos - start < 4) return -1;
+        int f = ('8' - line.charAt(start + 1)) * 8 + (line.charAt(start) - 'a');
+        int t = ('8' - line.charAt(start + 3)) * 8 + (line.charAt(start + 2) - 'a');
+        int p = pos - start > 4 ? 1 + "qrbn".indexOf(Character.toLowerCase(line.charAt(start + 4))) : 0;
+        return (f << 9) | (t << 3) | p;
+    }
+
+    // --------- go / stop / ponderhit ----------
+
+    private void go() {
+        stop();
+
+        int depth = SearchLimits.MAX_DEPTH, movesToGo = 0;
+        long nodes = 0, moveTime = 0, wtime = -1, btime = -1, winc = 0, binc = 0;
+        boolean infinite = false, ponder = false;
+        while (skipSpaces()) {
+            if (word("depth"))          depth = (int) number();
+            else if (word("nodes"))     nodes = number();
+            else if (word("movetime"))  moveTime = number();
+            else if (word("wtime"))     wtime = number();
+            else if (word("btime"))     btime = number();
+            else if (word("winc"))      winc = number();
+            else if (word("binc"))      binc = number();
+            else if (word("movestogo")) movesToGo = (int) number();
+            else if (word("infinite"))  infinite = true;
+            else if (word("ponder"))    ponder = true;
+            else skipToken();
+        }
+
+        long time = game.whiteToMove() ? wtime : btime;
+        long inc = game.whiteToMove() ? winc : binc;
+        long millis = moveTime;
+        if (millis == 0 && time >= 0) millis = SearchLimits.fromClock(depth, time, inc, movesToGo).getMillis();
+        SearchLimits limits = new SearchLimits(depth, nodes, millis);
+
+        // ponder/infinite: busca sem limites e só responde depois de stop ou ponderhit
+        boolean waitForRelease = infinite || ponder;
+        ponderLimits = ponder ? limits : null;
+        start(waitForRelease ? SearchLimits.infinite() : limits, waitForRelease);
+    }
+
+    private void start(SearchLimits limits, boolean waitForRelease) {
+        AtomicBoolean token = new AtomicBoolean();
+        CountDownLatch latch = new CountDownLatch(waitForRelease ? 1 : 0);
+        cancel = token;
+        release = latch;
+        searching.incrementAndGet();
+
+        Game position = game.copy();
+        Engine[] team = engines;
+        int lines = multiPv;
+        ExecutorService helpers = helperPool;
+        searchThread.execute(() -> {
+            AtomicBoolean helperStop = new AtomicBoolean();
+            for (int i = 1; i < team.length; i++) {
+                Engine helper = team[i];
+                Game own = position.copy();
+                helpers.execute(() -> helper.search(own, SearchLimits.infinite(), helperStop));
+            }
+
+            long start = System.nanoTime();
+            SearchResult r = team[0].search(position, limits, lines, token, info -> sendInfo(info, start));
+            helperStop.set(true);
+
+            // UCI: em ponder/infinite o bestmove só sai depois de stop/ponderhit
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Move best = r.getBestMove();
+            String msg = "bestmove " + (best == null ? "0000" : SelfPlay.coordinate(best));
+            if (best != null && r.getPonderMove() != null) msg += " ponder " + SelfPlay.coordinate(r.getPonderMove());
+            searching.decrementAndGet();
+            send(msg);
+        });
+    }
+
+    private void stop() {
+        cancel.set(true);
+        release.countDown();
+    }
+
+    private void ponderHit() {
+        if (ponderLimits != null) {
+            engines[0].ponderHit(ponderLimits);
+            ponderLimits = null;
+        }
+        release.countDown();
+    }
+
+    // uma linha "info" por PV concluída: a última de info.getLines()
+    private void sendInfo(SearchResult info, long startNanos) {
+        long ms = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000L);
+        long nodes = 0;
+        for (Engine e : engines) nodes += e.getNodes();
+        List<PvLine> lines = info.getLines();
+        PvLine line = lines.isEmpty() ? null : lines.get(lines.size() - 1);
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("info depth ").append(info.getDepth());
+        if (line != null) sb.append(" multipv ").append(line.getRank());
+        sb.append(" score ");
+        int s = line != null ? line.getScore() : info.getScore();
+        if (Math.abs(s) >= Engine.MATE - SearchLimits.MAX_DEPTH) {
+            int plies = Engine.MATE - Math.abs(s);
+            sb.append("mate ").append(s > 0 ? (plies + 1) / 2 : -(plies + 1) / 2);
+        } else {
+            sb.append("cp ").append(s);
+        }
+        sb.append(" nodes ").append(nodes).append(" nps ").append(nodes * 1000 / ms)
+          .append(" time ").append(ms).append(" hashfull ").append(tt.hashfull());
+        if (line != null) {
+            sb.append(" pv");
+            for (Move m : line.getMoves()) sb.append(' ').append(SelfPlay.coordinate(m));
+        } else if (info.getBestMove() != null) {
+            sb.append(" pv ").append(SelfPlay.coordinate(info.getBestMove()));
+        }
+        send(sb.toString());
+    }
+
+    // --------- setoption ----------
+
+    private void setOption() {
+        if (!word("name")) return;
+        String name = token();
+        if (!word("value")) return;
+        String value = token();
+        if (searching.get() > 0) {
+            send("info string option ignored during search: " + name);
+            return;
+        }
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                tt.resize(clamp(Integer.parseInt(value), 1, MAX_HASH_MB));
+            } else if (name.equalsIgnoreCase("Threads")) {
+                setThreads(clamp(Integer.parseInt(value), 1, MAX_THREADS));
+            } else if (name.equalsIgnoreCase("UseNNUE")) {
+                useNnue = Boolean.parseBoolean(value);
+                switchEvaluator();
+            } else if (name.equalsIgnoreCase("MultiPV")) {
+                multiPv = clamp(Integer.parseInt(value), 1, MAX_MULTI_PV);
+            } else if (name.equalsIgnoreCase("EvalFile")) {
+                network = value.equals("<classical>") ? null : NnueNetwork.load(Paths.get(value));
+                switchEvaluator();
+            }
+        } catch (NumberFormatException e) {
+            send("info string invalid value: " + value);
+        } catch (IOException e) {
+            send("info string cannot load network: " + e.getMessage());
+        }
+    }
+
+    private void setThreads(int n) {
+        Engine[] team = new Engine[n];
+        for (int i = 0; i < n; i++) team[i] = new Engine(newEvaluator(), tt);
+        engines = team;
+        if (helperPool != null) helperPool.shutdownNow();
+        helperPool = n > 1 ? daemonPool(n - 1, "uci-helper") : null;
+    }
+
+    // um avaliador por engine (o NNUE guarda acumuladores); a rede é compartilhada
+    private Evaluator newEvaluator() {
+        if (!useNnue) return new ClassicalEvaluator();
+        return new NnueEvaluator(network != null ? network : NnueNetwork.classical());
+    }
+
+    // scores da outra avaliação na TT não valem mais
+    private void switchEvaluator() {
+        tt.clear();
+        setThreads(engines.length);
+        if (useNnue) send("info string NNUE " + ((NnueEvaluator) engines[0].getEvaluator()).kernelName());
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    private static ExecutorService daemonPool(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private void send(String s) {
+        synchronized (out) {
+            out.println(s);
+        }
+    }
+
+    // --------- Tokenizador ----------
+
+    // pula espaços; false se a linha acabou
+    private boolean skipSpaces() {
+        while (pos < line.length() && line.charAt(pos) <= ' ') pos++;
+        return pos < line.length();
+    }
+
+    // consome `w` se for o próximo token inteiro
+    private boolean word(String w) {
+        if (!skipSpaces()) return false;
+        int end = pos + w.length();
+        if (!line.regionMatches(pos, w, 0, w.length())) return false;
+        if (end < line.length() && line.charAt(end) > ' ') return false;
+        pos = end;
+        return true;
+    }
+
+    private void skipToken() {
+        while (pos < line.length() && line.charAt(pos) > ' ') pos++;
+    }
+
+    private String token() {
+        skipSpaces();
+        int start = pos;
+        skipToken();
+        return line.substring(start, pos);
+    }
+
+    private long number() {
+        skipSpaces();
+        long v = 0;
+        boolean neg = pos < line.length() && line.charAt(pos) == '-';
+        if (neg) pos++;
+        while (pos < line.length() && line.charAt(pos) >= '0' && line.charAt(pos) <= '9') {
+            v = v * 10 + (line.charAt(pos++) - '0');
+        }
+        skipToken();
+        return neg ? -v : v;
+    }
+}
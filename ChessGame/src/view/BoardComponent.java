@@ -0,0 +1,196 @@
+package view;
+
+import controller.GameSnapshot;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.swing.*;
+import model.board.Position;
+
+/**
+ * Tabuleiro desenhado num único componente (em vez de 64 botões).
+ *
+ * Guarda a última posição/realces desenhados e, a cada atualização, pede repaint
+ * só das casas que mudaram; paintComponent desenha apenas as casas dentro do clip.
+ * Peças vêm do atlas de sprites do ImageUtil, renderizado fora da EDT: durante um
+ * redimensionamento desenha o atlas pronto mais próximo escalado e repinta quando o novo chega.
+ */
+public class BoardComponent extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private static final Color HILITE_SELECTED = new Color(50, 120, 220);
+    private static final Color HILITE_LEGAL = new Color(20, 140, 60);
+    private static final Color HILITE_LASTMOVE = new Color(220, 170, 30);
+    private static final int BORDER = 3;
+
+    // realce por casa (o mais forte vence)
+    private static final byte NONE = 0, LASTMOVE = 1, LEGAL = 2, SELECTED = 3;
+
+    private Color lightSquareColor = new Color(240, 217, 181);
+    private Color darkSquareColor = new Color(181, 136, 99);
+
+    // estado desenhado: peça (letra FEN, 0 = vazio) e realce de cada casa
+    private final char[] pieces = new char[64];
+    private final byte[] hilite = new byte[64];
+
+    public BoardComponent(Consumer<Position> onClick) {
+        setOpaque(true);
+        setFont(new Font(Font.SERIF, Font.PLAIN, 48));
+        ImageUtil.atlas(this, getPreferredSize().width / 8 - 8, null); // já começa a renderizar o tamanho inicial
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                Position p = squareAt(e.getX(), e.getY());
+                if (p != null) onClick.accept(p);
+            }
+        });
+    }
+
+    // --------- Atualização (só marca casas sujas) ----------
+
+    /** Peças da posição; repinta só as casas cujo conteúdo mudou. */
+    public void setPosition(GameSnapshot pos) {
+        for (int sq = 0; sq < 64; sq++) {
+            char ch = pos.pieceAt(sq / 8, sq % 8);
+            if (pieces[sq] != ch) {
+                pieces[sq] = ch;
+                repaintSquare(sq);
+            }
+        }
+    }
+
+    /** Realces de seleção, destinos legais e último lance; repinta só as casas alteradas. */
+    public void setHighlights(Position selected, List<Position> legal, Position lastFrom, Position lastTo) {
+        byte[] next = new byte[64];
+        mark(next, lastFrom, LASTMOVE);
+        mark(next, lastTo, LASTMOVE);
+        if (selected != null) {
+            for (Position d : legal) mark(next, d, LEGAL);
+            mark(next, selected, SELECTED);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            if (hilite[sq] != next[sq]) {
+                hilite[sq] = next[sq];
+                repaintSquare(sq);
+            }
+        }
+    }
+
+    public Color getLightSquareColor() { return lightSquareColor; }
+    public Color getDarkSquareColor() { return darkSquareColor; }
+
+    public void setSquareColors(Color light, Color dark) {
+        lightSquareColor = light;
+        darkSquareColor = dark;
+        repaint();
+    }
+
+    private static void mark(byte[] h, Position p, byte level) {
+        if (p == null) return;
+        int sq = p.getRow() * 8 + p.getColumn();
+        if (h[sq] < level) h[sq] = level;
+    }
+
+    private void repaintSquare(int sq) {
+        int s = squareSize();
+        if (s <= 0) return;
+        repaint(originX() + (sq % 8) * s, originY() + (sq / 8) * s, s, s);
+    }
+
+    // --------- Geometria ----------
+
+    private int squareSize() {
+        return Math.min(getWidth(), getHeight()) / 8;
+    }
+
+    private int originX() {
+        return (getWidth() - 8 * squareSize()) / 2;
+    }
+
+    private int originY() {
+        return (getHeight() - 8 * squareSize()) / 2;
+    }
+
+    private Position squareAt(int x, int y) {
+        int s = squareSize();
+        if (s <= 0) return null;
+        int col = Math.floorDiv(x - originX(), s);
+        int row = Math.floorDiv(y - originY(), s);
+        return row >= 0 && row < 8 && col >= 0 && col < 8 ? new Position(row, col) : null;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(8 * 72, 8 * 72);
+    }
+
+    // --------- Pintura ----------
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g2.setColor(getBackground());
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        int s = squareSize();
+        if (s <= 0) return;
+        int ox = originX(), oy = originY();
+        int iconSize = Math.max(16, s - 8);
+        ImageUtil.SpriteAtlas atlas = ImageUtil.atlas(this, iconSize, this::repaint);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        if (atlas != null && atlas.size() != iconSize) {
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+
+        // só as casas que intersectam o clip
+        int c0 = Math.max(0, (clip.x - ox) / s), c1 = Math.min(7, (clip.x + clip.width - 1 - ox) / s);
+        int r0 = Math.max(0, (clip.y - oy) / s), r1 = Math.min(7, (clip.y + clip.height - 1 - oy) / s);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int x = ox + c * s, y = oy + r * s, sq = r * 8 + c;
+
+                g2.setColor((r + c) % 2 == 0 ? lightSquareColor : darkSquareColor);
+                g2.fillRect(x, y, s, s);
+
+                char ch = pieces[sq];
+                if (ch != 0) paintPiece(g2, atlas, ch, x, y, s, iconSize);
+
+                if (hilite[sq] != NONE) {
+                    g2.setColor(hilite[sq] == SELECTED ? HILITE_SELECTED
+                            : hilite[sq] == LEGAL ? HILITE_LEGAL : HILITE_LASTMOVE);
+                    for (int i = 0; i < BORDER; i++) g2.drawRect(x + i, y + i, s - 1 - 2 * i, s - 1 - 2 * i);
+                }
+            }
+        }
+    }
+
+    private void paintPiece(Graphics2D g2, ImageUtil.SpriteAtlas atlas, char ch, int x, int y, int s, int iconSize) {
+        boolean white = Character.isUpperCase(ch);
+        if (atlas != null) {
+            atlas.draw(g2, white, ch, x + (s - iconSize) / 2, y + (s - iconSize) / 2, iconSize);
+            return;
+        }
+        String glyph = toUnicode(Character.toUpperCase(ch), white);
+        g2.setFont(getFont().deriveFont((float) (s * 0.75)));
+        FontMetrics fm = g2.getFontMetrics();
+        g2.setColor(Color.BLACK);
+        g2.drawString(glyph, x + (s - fm.stringWidth(glyph)) / 2, y + (s - fm.getHeight()) / 2 + fm.getAscent());
+    }
+
+    private static String toUnicode(char sym, boolean white) {
+        return switch (sym) {
+            case 'K' -> white ? "\u2654" : "\u265A";
+            case 'Q' -> white ? "\u2655" : "\u265B";
+            case 'R' -> white ? "\u2656" : "\u265C";
+            case 'B' -> white ? "\u2657" : "\u265D";
+            case 'N' -> white ? "\u2658" : "\u265E";
+            case 'P' -> white ? "\u2659" : "\u265F";
+            default -> "";
+        };
+    }
+}
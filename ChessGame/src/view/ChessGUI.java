@@ -1,50 +1,85 @@
 package view;
 
+import controller.ChessClock;
 import controller.Game;
+import controller.GameSnapshot;
+import db.ExplorerIndex;
+import engine.Analyzer;
+import engine.Engine;
+import engine.GameReview;
+import engine.PvLine;
+import engine.SearchLimits;
+import engine.SearchResult;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.swing.*;
-import javax.swing.border.Border;
-import javax.swing.border.MatteBorder;
+import metrics.CountersEvent;
+import metrics.Metrics;
 import model.board.Position;
 import model.pieces.Pawn;
 import model.pieces.Piece;
+import notation.PgnWriter;
+import notation.San;
 
 public class ChessGUI extends JFrame {
     private static final long serialVersionUID = 1L;
 
-    // cores
-    private Color lightSquareColor = new Color(240, 217, 181);
-    private Color darkSquareColor = new Color(181, 136, 99);
-    private static final Color HILITE_SELECTED = new Color(50, 120, 220);
-    private static final Color HILITE_LEGAL = new Color(20, 140, 60);
-    private static final Color HILITE_LASTMOVE = new Color(220, 170, 30);
-
-    private static final Border BORDER_SELECTED = new MatteBorder(3, 3, 3, 3, HILITE_SELECTED);
-    private static final Border BORDER_LEGAL = new MatteBorder(3, 3, 3, 3, HILITE_LEGAL);
-    private static final Border BORDER_LASTMOVE = new MatteBorder(3, 3, 3, 3, HILITE_LASTMOVE);
-
     private final Game game;
-    private final JPanel boardPanel;
-    private final JButton[][] squares = new JButton[8][8];
+    private final BoardComponent board;
 
     private final JLabel status;
-    private final JTextArea history;
-    private final JScrollPane historyScroll;
+    private final JLabel metricsLabel;
+    private Metrics.Sample lastSample = Metrics.sample();
+    private int lastDepth = 0;
+    private final MoveListPanel moveList;
+
+    // explorador de aberturas (opcional, carregado pelo menu)
+    private ExplorerIndex explorer;
+    private final JTextArea explorerArea;
+    // posição e índice mostrados no explorador: refresh() só refaz a tabela quando mudam
+    private ExplorerIndex explorerShownIndex;
+    private long explorerShownKey;
+    // cada painel lateral tem sua aba: o explorador, reescrito a cada refresh, não apaga a análise nem a revisão
+    private final JTabbedPane sideTabs;
+    private final JTextArea analysisArea;
+    private final JTextArea reviewArea;
 
     private JCheckBoxMenuItem pcAsBlack;
     private JSpinner depthSpinner;
-    private JMenuItem newGameItem, quitItem;
+    private JMenuItem newGameItem, undoItem, redoItem, quitItem;
 
     private Position selected = null;
     private List<Position> legalForSelected = new ArrayList<>();
     private Position lastFrom = null, lastTo = null;
 
     private boolean aiThinking = false;
-    private final Random rnd = new Random();
+
+    // análise da IA numa thread dedicada; a mesma TT serve às buscas normais e ao ponder
+    private final Analyzer analyzer = new Analyzer();
+    private CompletableFuture<SearchResult> aiJob;
+    private JCheckBoxMenuItem ponderItem;
+    private CompletableFuture<SearchResult> ponderJob;
+    private model.board.Move ponderMove;
+
+    // análise multi-PV a pedido (menu), mostrada no painel do explorador
+    private static final int ANALYSIS_LINES = 3;
+    private static final long ANALYSIS_MILLIS = 5000;
+    private CompletableFuture<SearchResult> analysisJob;
+
+    // revisão da partida (lances julgados em paralelo, mostrados conforme ficam prontos)
+    private static final long REVIEW_NODES = 5000;
+    private GameReview reviewer;
+    private CompletableFuture<List<GameReview.MoveReview>> reviewJob;
+    private final Map<Integer, GameReview.MoveReview> reviewed = new TreeMap<>();
+    private int reviewPlies;
 
     // relógio
     private JSpinner timeMinutesSpinner;
@@ -54,12 +89,8 @@ public class ChessGUI extends JFrame {
     private JButton startPauseClockBtn;
     private JButton resetClockBtn;
     private JCheckBox enableClockCheck;
-    private long whiteMillis = 0L;
-    private long blackMillis = 0L;
-    private boolean clockRunning = false;
-    private boolean whiteClockActive = true;
+    private ChessClock clock; // contabilidade do tempo (modelo); o timer de UI só atualiza os labels
     private javax.swing.Timer clockTimer;
-    private long lastTimerTick = 0L;
 
     // --------------------- Construtor ---------------------
     public ChessGUI() {
@@ -67,42 +98,37 @@ public class ChessGUI extends JFrame {
 
         this.game = new Game();
 
-        // monta tabuleiro
-        boardPanel = new JPanel(new GridLayout(8, 8, 0, 0)) {
-            @Override
-            public Dimension getPreferredSize() {
-                Dimension size = super.getPreferredSize();
-                int side = Math.min(size.width, size.height);
-                return new Dimension(side, side);
-            }
-        };
-
-        // criar botões do tabuleiro
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                JButton btn = new JButton();
-                final int row = r, col = c;
-                btn.addActionListener(e -> handleClick(new Position(row, col)));
-                squares[r][c] = btn;
-                boardPanel.add(btn);
-            }
-        }
+        // tabuleiro desenhado num único componente (repinta só as casas alteradas)
+        board = new BoardComponent(this::handleClick);
 
         setLayout(new BorderLayout());
-        add(boardPanel, BorderLayout.CENTER);
+        add(board, BorderLayout.CENTER);
         setJMenuBar(buildMenuBar());
         add(buildSideControls(), BorderLayout.SOUTH);
 
         status = new JLabel("Pronto");
-        add(status, BorderLayout.NORTH);
-
-        history = new JTextArea(10, 20);
-        history.setEditable(false);
-        historyScroll = new JScrollPane(history);
-        add(historyScroll, BorderLayout.EAST);
+        metricsLabel = new JLabel(" ");
+        metricsLabel.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(status, BorderLayout.CENTER);
+        top.add(metricsLabel, BorderLayout.EAST);
+        add(top, BorderLayout.NORTH);
+
+        moveList = new MoveListPanel();
+        add(moveList, BorderLayout.EAST);
+
+        explorerArea = infoArea("Explorador: nenhum índice\n(Jogo > Abrir explorador...)");
+        analysisArea = infoArea("Análise: nenhuma\n(Jogo > Analisar posição)");
+        reviewArea = infoArea("Revisão: nenhuma\n(Jogo > Revisar partida)");
+        sideTabs = new JTabbedPane();
+        sideTabs.addTab("Explorador", new JScrollPane(explorerArea));
+        sideTabs.addTab("Análise", new JScrollPane(analysisArea));
+        sideTabs.addTab("Revisão", new JScrollPane(reviewArea));
+        add(sideTabs, BorderLayout.WEST);
 
       //  setupAccelerators();
         initClockTimer();
+        initMetricsTimer();
         doNewGame();
 
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -111,6 +137,14 @@ public class ChessGUI extends JFrame {
         setVisible(true);
     }
 
+    private static JTextArea infoArea(String text) {
+        JTextArea area = new JTextArea(10, 22);
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        area.setText(text);
+        return area;
+    }
+
     // --------------------- Menus ---------------------
     private JMenuBar buildMenuBar() {
         JMenuBar mb = new JMenuBar();
@@ -120,25 +154,55 @@ public class ChessGUI extends JFrame {
         newGameItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_N, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
         newGameItem.addActionListener(e -> doNewGame());
 
+        undoItem = new JMenuItem("Desfazer lance");
+        undoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
+        undoItem.addActionListener(e -> doUndo());
+
+        redoItem = new JMenuItem("Refazer lance");
+        redoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
+        redoItem.addActionListener(e -> doRedo());
+
         pcAsBlack = new JCheckBoxMenuItem("PC joga com as Pretas");
         pcAsBlack.setSelected(false);
 
+        ponderItem = new JCheckBoxMenuItem("PC pensa no tempo do adversário (ponder)");
+        ponderItem.setSelected(true);
+
         JMenu depthMenu = new JMenu("Profundidade IA");
         depthSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 4, 1));
-        depthSpinner.setToolTipText("Profundidade efetiva da IA (heurística não-minimax)");
+        depthSpinner.setToolTipText("Profundidade máxima da busca da IA");
         depthMenu.add(depthSpinner);
 
         quitItem = new JMenuItem("Sair");
         quitItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Q, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
         quitItem.addActionListener(e -> dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING)));
 
+        JMenuItem savePgnItem = new JMenuItem("Salvar PGN...");
+        savePgnItem.addActionListener(e -> salvarPgn());
+
+        JMenuItem explorerItem = new JMenuItem("Abrir explorador...");
+        explorerItem.addActionListener(e -> abrirExplorador());
+
+        JMenuItem analysisItem = new JMenuItem("Analisar posição (" + ANALYSIS_LINES + " melhores lances)");
+        analysisItem.addActionListener(e -> analisarPosicao());
+
+        JMenuItem reviewItem = new JMenuItem("Revisar partida");
+        reviewItem.addActionListener(e -> revisarPartida());
+
         JMenuItem colorItem = new JMenuItem("Mudar cores do tabuleiro");
         colorItem.addActionListener(e -> escolherCoresTabuleiro());
 
         gameMenu.add(newGameItem);
+        gameMenu.add(undoItem);
+        gameMenu.add(redoItem);
+        gameMenu.add(savePgnItem);
+        gameMenu.add(explorerItem);
+        gameMenu.add(analysisItem);
+        gameMenu.add(reviewItem);
         gameMenu.addSeparator();
         gameMenu.add(pcAsBlack);
         gameMenu.add(depthMenu);
+        gameMenu.add(ponderItem);
         gameMenu.addSeparator();
         gameMenu.add(colorItem);
         gameMenu.addSeparator();
@@ -155,6 +219,14 @@ public class ChessGUI extends JFrame {
         btnNew.addActionListener(e -> doNewGame());
         panel.add(btnNew);
 
+        JButton btnUndo = new JButton("Desfazer");
+        btnUndo.addActionListener(e -> doUndo());
+        panel.add(btnUndo);
+
+        JButton btnRedo = new JButton("Refazer");
+        btnRedo.addActionListener(e -> doRedo());
+        panel.add(btnRedo);
+
         JCheckBox cb = new JCheckBox("PC (Pretas)");
         cb.setSelected(pcAsBlack.isSelected());
         cb.addActionListener(e -> pcAsBlack.setSelected(cb.isSelected()));
@@ -193,6 +265,10 @@ public class ChessGUI extends JFrame {
 
         enableClockCheck = new JCheckBox("Relógio ativo");
         enableClockCheck.setSelected(true);
+        enableClockCheck.addActionListener(e -> {
+            if (enableClockCheck.isSelected() && !game.isGameOver()) clock.resume(); else clock.pause();
+            startPauseClockBtn.setText(clock.isRunning() ? "Pausar" : "Start");
+        });
         panel.add(enableClockCheck);
 
         return panel;
@@ -203,7 +279,7 @@ public class ChessGUI extends JFrame {
         selected = null;
         legalForSelected.clear();
         lastFrom = lastTo = null;
-        aiThinking = false;
+        cancelSearches();
         game.newGame();
         initClocksForNewGame();
         setMinimumSize(new Dimension(1100, 750));
@@ -211,6 +287,35 @@ public class ChessGUI extends JFrame {
         maybeTriggerAI();
     }
 
+    // --------------------- Desfazer / Refazer ---------------------
+    private void doUndo() {
+        cancelSearches(); // a busca em andamento ficaria obsoleta
+        if (!game.undo()) return;
+        // contra o PC, volta até ser a vez das brancas (desfaz também o lance do humano)
+        if (pcAsBlack.isSelected() && !game.whiteToMove()) game.undo();
+        afterTakeback();
+    }
+
+    private void doRedo() {
+        if (!game.canRedo()) return; // nada a refazer: a busca em andamento continua
+        cancelSearches(); // como no desfazer, a busca em andamento ficaria obsoleta
+        game.redo();
+        if (pcAsBlack.isSelected() && !game.whiteToMove()) game.redo();
+        afterTakeback();
+    }
+
+    private void afterTakeback() {
+        selected = null;
+        legalForSelected.clear();
+        model.board.Move last = game.lastMove();
+        lastFrom = last == null ? null : last.getFrom();
+        lastTo = last == null ? null : last.getTo();
+        clock.switchTo(game.whiteToMove());
+        refresh();
+        maybeAnnounceEnd();
+        maybeTriggerAI();
+    }
+
     // --------------------- Interação com o tabuleiro ---------------------
     private void handleClick(Position clicked) {
         if (game.isGameOver() || aiThinking) return;
@@ -275,277 +380,342 @@ public class ChessGUI extends JFrame {
 
         aiThinking = true;
         status.setText("Vez: Pretas — PC pensando...");
-        final int depth = (Integer) depthSpinner.getValue();
-
-        new SwingWorker<Void, Void>() {
-            Position aiFrom, aiTo;
-            @Override
-            protected Void doInBackground() {
-                // Heurística simples: escolher melhor captura disponível; senão, um lance aleatório "ok".
-                var allMoves = collectAllLegalMovesForSide(false); // pretas
-                if (allMoves.isEmpty()) return null;
-
-                int bestScore = Integer.MIN_VALUE;
-                List<Move> bestList = new ArrayList<>();
-
-                for (Move mv : allMoves) {
-                    int score = 0;
-
-                    Piece target = game.board().get(mv.to);
-                    if (target != null) {
-                        score += pieceValue(target); // capturas valem
-                    }
-                    score += centerBonus(mv.to);
-                    score += (depth - 1) * 2;
-
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestList.clear();
-                        bestList.add(mv);
-                    } else if (score == bestScore) {
-                        bestList.add(mv);
-                    }
-                }
-                Move chosen = bestList.get(rnd.nextInt(bestList.size()));
-                aiFrom = chosen.from;
-                aiTo   = chosen.to;
-                return null;
-            }
+        final SearchLimits limits = aiLimits();
 
-            @Override
-            protected void done() {
-                try { get(); } catch (Exception ignored) {}
-
-                if (aiFrom != null && aiTo != null && !game.isGameOver() && !game.whiteToMove()) {
-                    lastFrom = aiFrom;
-                    lastTo   = aiTo;
-                    Character promo = null;
-                    Piece moving = game.board().get(aiFrom);
-                    if (moving instanceof Pawn && game.isPromotion(aiFrom, aiTo)) {
-                        promo = 'Q';
-                    }
-                    game.move(aiFrom, aiTo, promo);
-
-                    // --- relógio: processa troca de turno e incrementos (IA acabou de mover) ---
-                    onMoveProcessed();
-                }
-                aiThinking = false;
-                refresh();
-                maybeAnnounceEnd();
-            }
-        }.execute();
+        CompletableFuture<SearchResult> job;
+        if (isPonderHit()) {
+            // o humano jogou o lance esperado: a busca em andamento já está nesta posição (TT quente)
+            analyzer.ponderHit(limits);
+            job = ponderJob;
+        } else {
+            stopPonder();
+            stopAnalysis(); // a thread de análise é única: a vez do PC tem prioridade
+            job = analyzer.analyze(game, limits, info -> SwingUtilities.invokeLater(() -> showProgress(info)));
+        }
+        ponderJob = null;
+        ponderMove = null;
+        aiJob = job;
+
+        // resultado (ou falha) volta para a EDT; buscas canceladas já não são o aiJob e são ignoradas
+        job.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) applyAiMove(job, result);
+            else aiSearchFailed(job, error);
+        }));
     }
 
-    private static class Move {
-        final Position from, to;
-        Move(Position f, Position t) { this.from = f; this.to = t; }
+    // A busca terminou com exceção: devolve a vez ao usuário em vez de ficar "pensando" para sempre
+    private void aiSearchFailed(CompletableFuture<SearchResult> job, Throwable error) {
+        if (job != aiJob) return;
+        aiJob = null;
+        aiThinking = false;
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        refresh();
+        JOptionPane.showMessageDialog(this, "Erro na busca do PC: " + cause, "Erro", JOptionPane.ERROR_MESSAGE);
     }
 
-    private List<Move> collectAllLegalMovesForSide(boolean whiteSide) {
-        List<Move> moves = new ArrayList<>();
-        if (whiteSide != game.whiteToMove()) return moves;
+    private void applyAiMove(CompletableFuture<SearchResult> job, SearchResult result) {
+        if (job != aiJob) return; // resultado de uma busca que já ficou obsoleta
+        aiJob = null;
 
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position from = new Position(r, c);
-                Piece piece = game.board().get(from);
-                if (piece != null && piece.isWhite() == whiteSide) {
-                    for (Position to : game.legalMovesFrom(from)) {
-                        moves.add(new Move(from, to));
-                    }
-                }
-            }
-        }
-        return moves;
-    }
-
-    private int pieceValue(Piece p) {
-        if (p == null) return 0;
-        switch (p.getSymbol()) {
-            case "P": return 100;
-            case "N":
-            case "B": return 300;
-            case "R": return 500;
-            case "Q": return 900;
-            case "K": return 20000;
+        model.board.Move best = result.getBestMove();
+        if (best != null && !game.isGameOver() && !game.whiteToMove()) {
+            lastFrom = best.getFrom();
+            lastTo   = best.getTo();
+            game.move(best);
+
+            // --- relógio: processa troca de turno e incrementos (IA acabou de mover) ---
+            onMoveProcessed();
         }
-        return 0;
+        aiThinking = false;
+        refresh();
+        maybeAnnounceEnd();
+        maybeStartPonder(result.getPonderMove());
     }
 
-    private int centerBonus(Position pos) {
-        int r = pos.getRow(), c = pos.getColumn();
-        if ((r==3 || r==4) && (c==3 || c==4)) return 10;
-        if ((r>=2 && r<=5) && (c>=2 && c<=5)) return 4;
-        return 0;
+    // Melhor lance parcial (a cada iteração completa) enquanto o PC pensa
+    private void showProgress(SearchResult info) {
+        lastDepth = info.getDepth();
+        if (!aiThinking || info.getBestMove() == null) return;
+        status.setText("Vez: Pretas — PC pensando... prof. " + info.getDepth() + ": "
+                + info.getBestMove().getFrom() + "→" + info.getBestMove().getTo());
     }
 
-    // ----------------- Atualização de UI -----------------
+    // Novo jogo/desfazer: aborta a busca da IA e o ponder imediatamente
+    private void cancelSearches() {
+        analyzer.cancelAll();
+        aiJob = null;
+        ponderJob = null;
+        ponderMove = null;
+        analysisJob = null;
+        stopReview();
+        aiThinking = false;
+    }
 
-    private void refresh() {
-        // 1) Cores base e limpa bordas
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                boolean light = (r + c) % 2 == 0;
-                Color base = light ? lightSquareColor : darkSquareColor;
-                JButton b = squares[r][c];
-                b.setBackground(base);
-                b.setBorder(null);
-                b.setToolTipText(null);
-            }
+    // Orçamento da IA: profundidade do menu e, com relógio ativo, uma fração do tempo restante
+    private SearchLimits aiLimits() {
+        int depth = (Integer) depthSpinner.getValue();
+        if (enableClockCheck.isSelected()) {
+            return SearchLimits.fromClock(depth, clock.remainingMillis(false), clock.incrementMillis(), 0);
         }
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    // ----------------- Ponder (busca no tempo do adversário) -----------------
+
+    // Depois do lance do PC, continua buscando a posição após a resposta esperada do humano
+    private void maybeStartPonder(model.board.Move expected) {
+        if (!ponderItem.isSelected() || expected == null) return;
+        if (game.isGameOver() || !game.whiteToMove() || !pcAsBlack.isSelected()) return;
+
+        Game position = game.copy();
+        position.move(expected);
+        if (position.isGameOver()) return;
+
+        ponderMove = expected;
+        ponderJob = analyzer.analyze(position, SearchLimits.infinite());
+        refresh();
+    }
+
+    private boolean isPonderHit() {
+        model.board.Move played = game.lastMove();
+        return ponderJob != null && ponderMove != null && played != null && played.code() == ponderMove.code();
+    }
+
+    // Ponder miss (ou novo jogo/desfazer): aborta a busca especulativa
+    private void stopPonder() {
+        if (ponderJob != null) ponderJob.cancel(true);
+        ponderJob = null;
+        ponderMove = null;
+    }
+
+    // ----------------- Análise multi-PV -----------------
+
+    // As melhores linhas da posição atual, atualizadas a cada linha concluída
+    private void analisarPosicao() {
+        if (aiThinking || game.isGameOver()) return;
+        stopPonder();
+        stopAnalysis();
+        GameSnapshot position = game.snapshot();
+        analysisArea.setText("Análise: calculando...");
+        sideTabs.setSelectedIndex(sideTabs.indexOfTab("Análise"));
+        analysisJob = analyzer.analyze(position, SearchLimits.millis(ANALYSIS_MILLIS), ANALYSIS_LINES,
+                info -> SwingUtilities.invokeLater(() -> showAnalysis(position, info)));
+    }
 
-        // 2) Realce último lance
-        if (lastFrom != null) squares[lastFrom.getRow()][lastFrom.getColumn()].setBorder(BORDER_LASTMOVE);
-        if (lastTo   != null) squares[lastTo.getRow()][lastTo.getColumn()].setBorder(BORDER_LASTMOVE);
+    private void stopAnalysis() {
+        if (analysisJob != null) analysisJob.cancel(true);
+        analysisJob = null;
+    }
 
-        // 3) Realce seleção e movimentos legais
-        if (selected != null) {
-            squares[selected.getRow()][selected.getColumn()].setBorder(BORDER_SELECTED);
-            for (Position d : legalForSelected) {
-                squares[d.getRow()][d.getColumn()].setBorder(BORDER_LEGAL);
+    // Uma linha por PV: score do ponto de vista das brancas e a variação em SAN
+    private void showAnalysis(GameSnapshot position, SearchResult info) {
+        if (analysisJob == null || game.zobristKey() != position.zobristKey()) return; // posição já mudou
+        lastDepth = info.getDepth();
+        StringBuilder sb = new StringBuilder("Análise (prof. " + info.getDepth() + ")\n");
+        for (PvLine line : info.getLines()) {
+            int s = position.whiteToMove() ? line.getScore() : -line.getScore();
+            String score = Math.abs(s) >= Engine.MATE - SearchLimits.MAX_DEPTH
+                    ? (s > 0 ? "#" : "-#") + (Engine.MATE - Math.abs(s) + 1) / 2
+                    : String.format("%+.2f", s / 100.0);
+            sb.append(line.getRank()).append(". ").append(score).append(' ');
+            Game g = position.toGame();
+            for (model.board.Move m : line.getMoves()) {
+                sb.append(' ').append(San.format(g, m));
+                g.move(m);
             }
+            sb.append('\n');
         }
+        analysisArea.setText(sb.toString());
+        analysisArea.setCaretPosition(0);
+    }
 
-        // 4) Ícones das peças (ou Unicode como fallback)
-        int iconSize = computeSquareIconSize();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = game.board().get(new Position(r, c));
-                JButton b = squares[r][c];
-
-                if (p == null) {
-                    b.setIcon(null);
-                    b.setText("");
-                    continue;
-                }
+    // ----------------- Revisão da partida -----------------
+
+    // Julga todos os lances da partida (imprecisões e erros) num pool próprio, sem ocupar a IA
+    private void revisarPartida() {
+        if (aiThinking || game.ply() == 0) return;
+        stopReview();
+        if (reviewer == null) reviewer = new GameReview();
+        List<GameSnapshot> positions = game.positions();
+        reviewPlies = positions.size() - 1;
+        CompletableFuture<List<GameReview.MoveReview>> job = reviewer.review(positions,
+                SearchLimits.nodes(REVIEW_NODES), r -> SwingUtilities.invokeLater(() -> showReview(positions, r)));
+        reviewJob = job;
+        sideTabs.setSelectedIndex(sideTabs.indexOfTab("Revisão"));
+        showReview(positions, null);
+    }
 
-                char sym = p.getSymbol().charAt(0);
-                ImageIcon icon = ImageUtil.getPieceIcon(p.isWhite(), sym, iconSize);
-                if (icon != null) {
-                    b.setIcon(icon);
-                    b.setText("");
-                } else {
-                    b.setIcon(null);
-                    b.setText(toUnicode(p.getSymbol(), p.isWhite()));
-                }
-            }
+    private void stopReview() {
+        if (reviewJob != null) reviewJob.cancel(true);
+        reviewJob = null;
+        reviewed.clear();
+    }
+
+    // Resumo por lado e lista dos lances marcados (score das brancas depois do lance e o melhor lance)
+    private void showReview(List<GameSnapshot> positions, GameReview.MoveReview r) {
+        if (reviewJob == null || game.zobristKey() != positions.get(positions.size() - 1).zobristKey()) return;
+        if (r != null) reviewed.put(r.getPly(), r);
+        int[][] counts = new int[2][GameReview.Verdict.values().length];
+        for (GameReview.MoveReview m : reviewed.values()) counts[m.isWhite() ? 0 : 1][m.getVerdict().ordinal()]++;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Revisão: ").append(reviewed.size()).append('/').append(reviewPlies).append(" lances\n");
+        for (int side = 0; side < 2; side++) {
+            sb.append(side == 0 ? "Brancas" : "Pretas ").append(String.format(": %d ?!  %d ?  %d ??%n",
+                    counts[side][GameReview.Verdict.INACCURACY.ordinal()],
+                    counts[side][GameReview.Verdict.MISTAKE.ordinal()],
+                    counts[side][GameReview.Verdict.BLUNDER.ordinal()]));
         }
+        sb.append('\n');
+        for (GameReview.MoveReview m : GameReview.flagged(new ArrayList<>(reviewed.values()))) {
+            int after = m.isWhite() ? m.getAfter() : -m.getAfter();
+            sb.append(String.format("%d%s %s%s %+.2f (melhor %s)%n", m.getMoveNumber(), m.isWhite() ? "." : "...",
+                    m.getSan(), m.getVerdict().symbol(), after / 100.0, m.getBestSan()));
+        }
+        reviewArea.setText(sb.toString());
+        reviewArea.setCaretPosition(0);
+    }
+
+    // ----------------- Métricas da engine -----------------
+
+    // Contadores da engine (Metrics) a cada 500 ms: taxas do último intervalo
+    private void initMetricsTimer() {
+        CountersEvent.register(); // eventos JFR periódicos, se houver gravação ativa
+        javax.swing.Timer t = new javax.swing.Timer(500, e -> {
+            Metrics.Sample now = Metrics.sample();
+            Metrics.Sample d = now.since(lastSample);
+            lastSample = now;
+            metricsLabel.setText(String.format("prof. %d | %,d nós/s (q %d%%) | TT %d%% | peões %d%% | cortes %,d | movegen %,d/s | estágios %,d/s ",
+                    lastDepth, d.nodesPerSecond(),
+                    d.nodes + d.qnodes == 0 ? 0 : 100 * d.qnodes / (d.nodes + d.qnodes),
+                    d.ttHitPercent(), d.pawnHitPercent(), d.cutoffs, d.perSecond(d.movegens), d.perSecond(d.stageGens)));
+        });
+        t.start();
+    }
+
+    // ----------------- Atualização de UI -----------------
 
-        // 5) Status e histórico
+    private void refresh() {
+        // 1) Tabuleiro: peças e realces (o componente só repinta as casas que mudaram)
+        board.setPosition(game.snapshot());
+        board.setHighlights(selected, legalForSelected, lastFrom, lastTo);
+
+        undoItem.setEnabled(game.canUndo());
+        redoItem.setEnabled(game.canRedo());
+
+        // 2) Status e histórico
         String side = game.whiteToMove() ? "Brancas" : "Pretas";
         String chk = game.inCheck(game.whiteToMove()) ? " — Xeque!" : "";
         if (aiThinking) chk = " — PC pensando...";
+        else if (ponderJob != null) chk += " (PC ponderando)";
         status.setText("Vez: " + side + chk);
 
-        StringBuilder sb = new StringBuilder();
-        var hist = game.history();
-        for (int i = 0; i < hist.size(); i++) {
-            if (i % 2 == 0) sb.append((i / 2) + 1).append('.').append(' ');
-            sb.append(hist.get(i)).append(' ');
-            if (i % 2 == 1) sb.append('\n');
-        }
-        history.setText(sb.toString());
-        history.setCaretPosition(history.getDocument().getLength());
+        moveList.sync(game.snapshot()); // só acrescenta/remove os plies que mudaram
+
+        updateExplorer();
 
         // atualiza labels do relógio
         updateClockLabels();
     }
 
+    // estatísticas do explorador para a posição atual (lances mais jogados primeiro)
+    private void updateExplorer() {
+        if (explorer == null) return;
+        long key = game.zobristKey();
+        if (explorer == explorerShownIndex && key == explorerShownKey) return;
+        explorerShownIndex = explorer;
+        explorerShownKey = key;
+        int first = explorer.find(key);
+        if (first < 0) {
+            explorerArea.setText("Explorador: posição fora do índice");
+            return;
+        }
+        int n = explorer.count(first, key);
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = first + i;
+        Arrays.sort(order, (a, b) -> Integer.compare(explorer.games(b), explorer.games(a)));
+
+        // SAN de todos os lances legais numa passada só, indexado pelo código do lance no índice
+        List<model.board.Move> legal = game.legalMoves();
+        List<String> sans = San.formatAll(game, legal);
+        Map<Integer, String> sanByCode = new HashMap<>();
+        for (int j = 0; j < legal.size(); j++) sanByCode.put(ExplorerIndex.moveCode(legal.get(j)), sans.get(j));
+
+        StringBuilder sb = new StringBuilder("Lance   Partidas  B%  E%  P%\n");
+        for (int i : order) {
+            String san = sanByCode.getOrDefault(explorer.moveCode(i), "?");
+            int total = Math.max(1, explorer.games(i));
+            sb.append(String.format("%-7s %8d %3d %3d %3d%n", san, explorer.games(i),
+                    100 * explorer.whiteWins(i) / total, 100 * explorer.draws(i) / total,
+                    100 * explorer.blackWins(i) / total));
+        }
+        explorerArea.setText(sb.toString());
+        explorerArea.setCaretPosition(0);
+    }
+
+    private void abrirExplorador() {
+        JFileChooser fc = new JFileChooser();
+        if (fc.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            ExplorerIndex idx = ExplorerIndex.open(fc.getSelectedFile().toPath());
+            if (explorer != null) explorer.close();
+            explorer = idx;
+            refresh();
+        } catch (java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "Erro ao abrir índice: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private void maybeAnnounceEnd() {
         if (!game.isGameOver()) return;
         String msg;
-        // se a última linha do histórico indicar timeout, mostra mensagem apropriada
-        List<String> h = game.history();
-        if (!h.isEmpty()) {
-            String last = h.get(h.size()-1);
-            if (last.startsWith("Timeout")) {
-                msg = "Tempo esgotado — " + (last.contains("White") ? "Brancas perdem por tempo." : "Pretas perdem por tempo.");
-                JOptionPane.showMessageDialog(this, msg, "Fim de Jogo", JOptionPane.INFORMATION_MESSAGE);
-                return;
-            }
-        }
-
-        if (game.inCheck(game.whiteToMove())) {
+        // se o motivo do fim for timeout, mostra mensagem apropriada
+        String reason = game.endReason();
+        if (reason != null && reason.startsWith("Timeout")) {
+            msg = "Tempo esgotado — " + (reason.contains("White") ? "Brancas perdem por tempo." : "Pretas perdem por tempo.");
+        } else if (reason != null && reason.equals("Draw: insufficient material")) {
+            msg = "Empate por material insuficiente.";
+        } else if (game.inCheck(game.whiteToMove())) {
             msg = "Xeque-mate! " + (game.whiteToMove() ? "Brancas" : "Pretas") + " estão em mate.";
         } else {
             msg = "Empate por afogamento (stalemate).";
         }
+        revisarPartida(); // o relatório de erros vai chegando enquanto o diálogo está aberto
         JOptionPane.showMessageDialog(this, msg, "Fim de Jogo", JOptionPane.INFORMATION_MESSAGE);
     }
 
-    private String toUnicode(String sym, boolean white) {
-        return switch (sym) {
-            case "K" -> white ? "\u2654" : "\u265A";
-            case "Q" -> white ? "\u2655" : "\u265B";
-            case "R" -> white ? "\u2656" : "\u265C";
-            case "B" -> white ? "\u2657" : "\u265D";
-            case "N" -> white ? "\u2658" : "\u265E";
-            case "P" -> white ? "\u2659" : "\u265F";
-            default -> "";
-        };
-    }
+    private void escolherCoresTabuleiro() {
+        Color novaClara = JColorChooser.showDialog(this, "Escolha a cor das casas claras", board.getLightSquareColor());
+        if (novaClara == null) novaClara = board.getLightSquareColor();
 
-    private int computeSquareIconSize() {
-        JButton b = squares[0][0];
-        int w = Math.max(1, b.getWidth());
-        int h = Math.max(1, b.getHeight());
-        int side = Math.min(w, h);
-        if (side <= 1) return 64;
-        return Math.max(24, side - 8);
-    }
+        Color novaEscura = JColorChooser.showDialog(this, "Escolha a cor das casas escuras", board.getDarkSquareColor());
+        if (novaEscura == null) novaEscura = board.getDarkSquareColor();
 
-    private void escolherCoresTabuleiro() {
-        Color novaClara = JColorChooser.showDialog(this, "Escolha a cor das casas claras", lightSquareColor);
-        if (novaClara != null) {
-            lightSquareColor = novaClara;
-        }
+        board.setSquareColors(novaClara, novaEscura); // redesenha o tabuleiro com as novas cores
+    }
 
-        Color novaEscura = JColorChooser.showDialog(this, "Escolha a cor das casas escuras", darkSquareColor);
-        if (novaEscura != null) {
-            darkSquareColor = novaEscura;
+    private void salvarPgn() {
+        JFileChooser fc = new JFileChooser();
+        fc.setSelectedFile(new java.io.File("partida.pgn"));
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        java.util.Map<String, String> tags = new java.util.LinkedHashMap<>();
+        tags.put("Event", "Partida casual");
+        tags.put("Date", new java.text.SimpleDateFormat("yyyy.MM.dd").format(new java.util.Date()));
+        tags.put("White", "Humano");
+        tags.put("Black", pcAsBlack.isSelected() ? "PC" : "Humano");
+        try {
+            java.nio.file.Files.writeString(fc.getSelectedFile().toPath(), PgnWriter.toPgn(game, tags));
+        } catch (java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "Erro ao salvar PGN: " + ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
         }
-
-        refresh(); // redesenha o tabuleiro com as novas cores
     }
 
     // ----------------------------- Relógio: implementação -----------------------------
 
     private void initClockTimer() {
-        // timer de UI que "marca" com base em System.currentTimeMillis() (preciso)
-        clockTimer = new javax.swing.Timer(200, e -> {
-            if (!clockRunning || game.isGameOver() || !enableClockCheck.isSelected()) return;
-
-            long now = System.currentTimeMillis();
-            long delta = (lastTimerTick == 0L) ? 0L : (now - lastTimerTick);
-            lastTimerTick = now;
-
-            if (delta <= 0) return;
-
-            if (whiteClockActive) {
-                whiteMillis -= delta;
-                if (whiteMillis <= 0) {
-                    whiteMillis = 0;
-                    clockRunning = false;
-                    // Brancas perderam por tempo
-                    game.flagTimeout(true);
-                    JOptionPane.showMessageDialog(this, "Tempo esgotado: Brancas perdem por tempo.", "Tempo", JOptionPane.INFORMATION_MESSAGE);
-                    refresh();
-                    return;
-                }
-            } else {
-                blackMillis -= delta;
-                if (blackMillis <= 0) {
-                    blackMillis = 0;
-                    clockRunning = false;
-                    // Pretas perderam por tempo
-                    game.flagTimeout(false);
-                    JOptionPane.showMessageDialog(this, "Tempo esgotado: Pretas perdem por tempo.", "Tempo", JOptionPane.INFORMATION_MESSAGE);
-                    refresh();
-                    return;
-                }
-            }
-            updateClockLabels();
-        });
+        // só exibição: o tempo é contado pelo ChessClock (nanoTime) e a queda de bandeira é agendada por ele
+        clockTimer = new javax.swing.Timer(100, e -> updateClockLabels());
         clockTimer.setRepeats(true);
         clockTimer.start();
     }
@@ -553,28 +723,44 @@ public class ChessGUI extends JFrame {
     private void initClocksForNewGame() {
         int minutes = ((Integer) timeMinutesSpinner.getValue()).intValue();
         int inc = ((Integer) incrementSecondsSpinner.getValue()).intValue();
-        whiteMillis = minutes * 60_000L;
-        blackMillis = minutes * 60_000L;
-        whiteClockActive = game.whiteToMove();
+        if (clock != null) clock.pause();
+        clock = new ChessClock(minutes * 60_000L, inc * 1000L, ChessClock.Mode.INCREMENT);
+        final ChessClock c = clock;
+        clock.setFlagListener(whiteLost -> SwingUtilities.invokeLater(() -> onFlag(c, whiteLost)));
         // só inicia o relógio se checkbox estiver ativo
-        clockRunning = enableClockCheck != null && enableClockCheck.isSelected() && !game.isGameOver();
-        lastTimerTick = clockRunning ? System.currentTimeMillis() : 0L;
-        startPauseClockBtn.setText(clockRunning ? "Pausar" : "Start");
+        if (enableClockCheck != null && enableClockCheck.isSelected() && !game.isGameOver()) {
+            clock.start(game.whiteToMove());
+        }
+        startPauseClockBtn.setText(clock.isRunning() ? "Pausar" : "Start");
         updateClockLabels();
     }
 
     private void toggleClockRunning() {
-        clockRunning = !clockRunning;
-        if (clockRunning) {
-            lastTimerTick = System.currentTimeMillis();
-            startPauseClockBtn.setText("Pausar");
-        } else {
+        if (clock.isRunning()) {
+            clock.pause();
             startPauseClockBtn.setText("Start");
+        } else {
+            clock.resume();
+            startPauseClockBtn.setText("Pausar");
         }
     }
 
+    // Bandeira caiu (agendada pelo relógio, entregue na EDT)
+    private void onFlag(ChessClock source, boolean whiteLost) {
+        if (source != clock || game.isGameOver()) return; // relógio de uma partida anterior
+        game.flagTimeout(whiteLost);
+        cancelSearches();
+        startPauseClockBtn.setText("Start");
+        refresh();
+        JOptionPane.showMessageDialog(this, "Tempo esgotado: " + (whiteLost ? "Brancas" : "Pretas") + " perdem por tempo.",
+                "Tempo", JOptionPane.INFORMATION_MESSAGE);
+    }
+
     private void updateClockLabels() {
         // mostra mm:ss
+        if (clock == null) return;
+        long whiteMillis = clock.remainingMillis(true), blackMillis = clock.remainingMillis(false);
+        boolean whiteClockActive = clock.whiteActive();
         whiteClockLabel.setText("Brancas: " + formatTime(whiteMillis) + (whiteClockActive ? " ◀" : ""));
         blackClockLabel.setText("Pretas: " + formatTime(blackMillis) + (!whiteClockActive ? " ◀" : ""));
 
@@ -593,59 +779,14 @@ public class ChessGUI extends JFrame {
 
     /**
      * Deve ser chamado sempre depois de um game.move(...) (humano ou IA).
-     * Cuida de subtrair o delta até o momento do movimento, aplicar incremento ao que acabou de mover e
-     * alternar o relógio para o próximo jogador.
+     * O relógio cobra o tempo exato do lance, aplica o incremento a quem moveu e passa a vez.
      */
     private void onMoveProcessed() {
         if (enableClockCheck == null || !enableClockCheck.isSelected()) return;
+        if (!clock.press()) return; // bandeira já tinha caído: onFlag encerra a partida
 
-        long now = System.currentTimeMillis();
-        if (lastTimerTick == 0L) lastTimerTick = now;
-        long delta = now - lastTimerTick;
-        lastTimerTick = now;
-
-        // subtrai o tempo que passou para o relógio ativo até o momento do movimento
-        if (clockRunning) {
-            if (whiteClockActive) {
-                whiteMillis -= delta;
-                if (whiteMillis <= 0) {
-                    whiteMillis = 0;
-                    clockRunning = false;
-                    game.flagTimeout(true);
-                    JOptionPane.showMessageDialog(this, "Tempo esgotado: Brancas perdem por tempo.", "Tempo", JOptionPane.INFORMATION_MESSAGE);
-                    refresh();
-                    return;
-                }
-            } else {
-                blackMillis -= delta;
-                if (blackMillis <= 0) {
-                    blackMillis = 0;
-                    clockRunning = false;
-                    game.flagTimeout(false);
-                    JOptionPane.showMessageDialog(this, "Tempo esgotado: Pretas perdem por tempo.", "Tempo", JOptionPane.INFORMATION_MESSAGE);
-                    refresh();
-                    return;
-                }
-            }
-        }
-
-        // Aplica incremento ao jogador que acabou de mover:
-        boolean movedByWhite = !game.whiteToMove(); // after move, whiteToMove changed -> the mover is the opposite
-        long incMs = ((Integer) incrementSecondsSpinner.getValue()).intValue() * 1000L;
-        if (movedByWhite) whiteMillis += incMs; else blackMillis += incMs;
-
-        // alterna relógio para o lado que tem vez agora
-        whiteClockActive = game.whiteToMove();
-
-        // reinicia contagem (se permitido)
-        if (!game.isGameOver() && enableClockCheck.isSelected()) {
-            clockRunning = true;
-            lastTimerTick = System.currentTimeMillis();
-        } else {
-            clockRunning = false;
-        }
-
-        updateClockLabels();
+        if (game.isGameOver()) clock.pause(); else clock.resume();
+        startPauseClockBtn.setText(clock.isRunning() ? "Pausar" : "Start");
     }
 
     // ----------------------------- fim relógio -----------------------------
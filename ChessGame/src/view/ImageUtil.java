@@ -4,9 +4,14 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.net.URL;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 
@@ -17,7 +22,8 @@ import javax.swing.*;
  *   2) classpath: /<filename>
  *   3) disco:     resources/<filename>
  *
- * Mantém um cache LRU por (filename|size) de ImageIcon escalado com alta qualidade.
+ * Mantém um cache concorrente por (filename|size) de ImageIcon escalado com alta qualidade
+ * e, para o tabuleiro, atlas com as 12 peças por tamanho, renderizados fora da EDT.
  */
 public final class ImageUtil {
 
@@ -27,20 +33,30 @@ public final class ImageUtil {
     // Capacidade máxima do cache (ícones escalados)
     private static final int MAX_CACHE = 256;
 
-    // Cache LRU simples e sincronizado
-    private static final Map<String, ImageIcon> ICON_CACHE =
-            new LinkedHashMap<>(128, 0.75f, true) {
-                @Override
-                protected boolean removeEldestEntry(Map.Entry<String, ImageIcon> eldest) {
-                    return size() > MAX_CACHE;
-                }
-            };
+    // Cache sem locks; ao estourar a capacidade é esvaziado (ícones são baratos de refazer)
+    private static final Map<String, ImageIcon> ICON_CACHE = new ConcurrentHashMap<>();
+
+    // Atlas por tamanho (px); o future fica pronto quando o renderizador termina
+    private static final int MAX_ATLASES = 8;
+    private static final String ATLAS_ORDER = "KQRBNP";
+    private static final Map<Integer, CompletableFuture<SpriteAtlas>> ATLASES = new ConcurrentHashMap<>();
+    private static final ExecutorService RENDERER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sprite-atlas");
+        t.setDaemon(true);
+        return t;
+    });
+    // Tamanho que cada componente quer agora; chaves fracas: componente descartado sai sozinho
+    private static final Map<Object, Integer> WANTED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // PNGs originais (brancas 0..5, pretas 6..11 na ordem de ATLAS_ORDER), lidos uma vez
+    private static volatile BufferedImage[] sources;
 
     private ImageUtil() { /* utilitário */ }
 
-    /** Limpa o cache LRU de ícones escalados. */
-    public static synchronized void clearCache() {
+    /** Limpa os caches de ícones escalados e de atlas. */
+    public static void clearCache() {
         ICON_CACHE.clear();
+        ATLASES.clear();
     }
 
     /** Pré-carrega uma lista de arquivos no tamanho especificado (ignora falhas). */
@@ -92,10 +108,8 @@ public final class ImageUtil {
     public static ImageIcon getIcon(String filename, int size) {
         size = sanitizeSize(size);
         String cacheKey = filename + "|" + size;
-        synchronized (ImageUtil.class) {
-            ImageIcon cached = ICON_CACHE.get(cacheKey);
-            if (cached != null) return cached;
-        }
+        ImageIcon cached = ICON_CACHE.get(cacheKey);
+        if (cached != null) return cached;
 
         BufferedImage img = loadBuffered(filename);
         if (img == null) return null;
@@ -103,9 +117,8 @@ public final class ImageUtil {
         BufferedImage scaled = scaleImageHQ(img, size, size);
         ImageIcon icon = new ImageIcon(scaled);
 
-        synchronized (ImageUtil.class) {
-            ICON_CACHE.put(cacheKey, icon);
-        }
+        if (ICON_CACHE.size() >= MAX_CACHE) ICON_CACHE.clear();
+        ICON_CACHE.put(cacheKey, icon);
         return icon;
     }
 
@@ -183,6 +196,119 @@ public final class ImageUtil {
         return new ImageIcon(img);
     }
 
+    // ---------- Atlas de sprites ----------
+
+    /** As 12 peças num único tamanho, numa só imagem (6 colunas K,Q,R,B,N,P; brancas em cima). */
+    public static final class SpriteAtlas {
+        private final int size;
+        private final BufferedImage image;
+
+        private SpriteAtlas(int size, BufferedImage image) {
+            this.size = size;
+            this.image = image;
+        }
+
+        public int size() { return size; }
+
+        /** Desenha a peça em (x, y) com lado drawSize (escala se drawSize != size()). */
+        public void draw(Graphics g, boolean isWhite, char pieceChar, int x, int y, int drawSize) {
+            int idx = ATLAS_ORDER.indexOf(Character.toUpperCase(pieceChar));
+            if (idx < 0) return;
+            int sx = idx * size, sy = isWhite ? 0 : size;
+            g.drawImage(image, x, y, x + drawSize, y + drawSize, sx, sy, sx + size, sy + size, null);
+        }
+    }
+
+    /**
+     * Atlas no tamanho pedido, sem bloquear quem pinta. Se ainda não existe, agenda a
+     * renderização numa thread própria e devolve o atlas pronto de tamanho mais próximo (para
+     * ser desenhado escalado) ou null; `onReady` roda na EDT quando o tamanho pedido ficar pronto.
+     * `requester` identifica quem pinta (o tabuleiro): cada um tem seu tamanho desejado, então
+     * tabuleiros de tamanhos diferentes não descartam os atlas uns dos outros.
+     */
+    public static SpriteAtlas atlas(Object requester, int size, Runnable onReady) {
+        int s = sanitizeSize(size);
+        WANTED.put(requester, s);
+        CompletableFuture<SpriteAtlas> f = ATLASES.get(s);
+        if (f == null) {
+            CompletableFuture<SpriteAtlas> created = new CompletableFuture<>();
+            f = ATLASES.putIfAbsent(s, created);
+            if (f == null) {
+                f = created;
+                RENDERER.execute(() -> renderAsync(s, created));
+            }
+        }
+        SpriteAtlas ready = f.getNow(null);
+        if (ready != null) return ready;
+        if (onReady != null) f.thenRun(() -> SwingUtilities.invokeLater(onReady));
+        return nearestReady(s);
+    }
+
+    private static void renderAsync(int size, CompletableFuture<SpriteAtlas> target) {
+        // durante um redimensionamento, tamanhos intermediários que ninguém mais quer são descartados
+        if (!isWanted(size)) {
+            ATLASES.remove(size, target);
+            target.complete(null);
+            return;
+        }
+        target.complete(renderAtlas(size));
+        if (ATLASES.size() > MAX_ATLASES) {
+            ATLASES.keySet().removeIf(k -> k != size && !isWanted(k));
+        }
+    }
+
+    private static boolean isWanted(int size) {
+        synchronized (WANTED) {
+            return WANTED.containsValue(size);
+        }
+    }
+
+    private static SpriteAtlas nearestReady(int size) {
+        SpriteAtlas best = null;
+        for (CompletableFuture<SpriteAtlas> f : ATLASES.values()) {
+            SpriteAtlas a = f.getNow(null);
+            if (a != null && (best == null || Math.abs(a.size - size) < Math.abs(best.size - size))) best = a;
+        }
+        return best;
+    }
+
+    /** Renderiza as 12 peças num tamanho, numa única passada sobre uma só imagem. */
+    public static SpriteAtlas renderAtlas(int size) {
+        size = sanitizeSize(size);
+        BufferedImage[] src = sources();
+        BufferedImage img = new BufferedImage(6 * size, 2 * size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,  RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING,     RenderingHints.VALUE_RENDER_QUALITY);
+            for (int i = 0; i < 12; i++) {
+                boolean white = i < 6;
+                int x = (i % 6) * size, y = white ? 0 : size;
+                if (src[i] != null) {
+                    g.drawImage(src[i], x, y, size, size, null);
+                } else {
+                    g.drawImage(placeholderIcon(ATLAS_ORDER.charAt(i % 6), white, size).getImage(), x, y, null);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        return new SpriteAtlas(size, img);
+    }
+
+    private static BufferedImage[] sources() {
+        BufferedImage[] src = sources;
+        if (src == null) {
+            src = new BufferedImage[12];
+            for (int i = 0; i < 12; i++) {
+                src[i] = loadBuffered((i < 6 ? "w" : "b") + ATLAS_ORDER.charAt(i % 6) + ".png");
+            }
+            sources = src;
+        }
+        return src;
+    }
+
     // ---------- Helpers ----------
 
     private static int sanitizeSize(int size) {
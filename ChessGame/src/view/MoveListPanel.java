@@ -0,0 +1,66 @@
+package view;
+
+import controller.GameSnapshot;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+/**
+ * Lista de lances ("1. e4 e5" por linha) atualizada de forma incremental:
+ * compara o novo snapshot com o último exibido e só remove/insere os plies
+ * que mudaram no documento. Cliques sem lance não tocam o documento.
+ */
+public class MoveListPanel extends JScrollPane {
+    private static final long serialVersionUID = 1L;
+
+    private final JTextArea text = new JTextArea(10, 20);
+
+    private GameSnapshot shown;
+    // offset no documento onde começa o texto de cada ply exibido
+    private int[] offsets = new int[128];
+    private int plies;
+    private int resultStart = -1; // offset do resultado ("1-0"...), -1 se não exibido
+
+    public MoveListPanel() {
+        text.setEditable(false);
+        setViewportView(text);
+    }
+
+    /** Sincroniza com a posição; custo proporcional aos plies alterados. */
+    public void sync(GameSnapshot pos) {
+        if (pos == shown) return;
+        Document doc = text.getDocument();
+        int keep = shown == null ? 0 : Math.min(plies, pos.commonPlies(shown));
+        try {
+            // 1) remove o resultado e os plies que não valem mais (desfazer, nova partida)
+            int cut = keep < plies ? offsets[keep] : resultStart >= 0 ? resultStart : doc.getLength();
+            if (cut < doc.getLength()) doc.remove(cut, doc.getLength() - cut);
+            plies = keep;
+            resultStart = -1;
+
+            // 2) acrescenta só os novos
+            List<String> added = pos.historyFrom(keep);
+            StringBuilder sb = new StringBuilder(added.size() * 8 + 8);
+            int base = doc.getLength();
+            for (String san : added) {
+                if (plies == offsets.length) offsets = Arrays.copyOf(offsets, plies * 2);
+                offsets[plies] = base + sb.length();
+                if (plies % 2 == 0) sb.append(plies / 2 + 1).append(". ");
+                sb.append(san).append(' ');
+                if (plies % 2 == 1) sb.append('\n');
+                plies++;
+            }
+            if (pos.isGameOver()) {
+                resultStart = base + sb.length();
+                sb.append(pos.result());
+            }
+            if (sb.length() > 0) doc.insertString(base, sb.toString(), null);
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+        shown = pos;
+        text.setCaretPosition(doc.getLength());
+    }
+}
@@ -0,0 +1,127 @@
+package controller;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import testing.Check;
+
+// ChessClock on a fake time source: accounting is exact, only flag-fall uses the real scheduler
+public final class ChessClockTest {
+
+    private static final long MS = 1_000_000L;
+
+    public static void testIncrementChargesExactElapsedTime() {
+        AtomicLong now = new AtomicLong(1_000 * MS);
+        ChessClock clock = new ChessClock(60_000, 2_000, ChessClock.Mode.INCREMENT, now::get);
+        clock.start(true);
+
+        now.addAndGet(1_234 * MS + 567);
+        Check.isTrue(clock.press(), "white moves in time");
+        Check.equal(60_000 * MS - 1_234 * MS - 567 + 2_000 * MS, clock.remainingNanos(true), "white after move");
+        Check.isTrue(!clock.whiteActive(), "black to move");
+
+        now.addAndGet(500 * MS);
+        Check.equal(59_500 * MS, clock.remainingNanos(false), "black while thinking");
+        clock.press();
+        Check.equal(61_500 * MS, clock.remainingNanos(false), "black after move");
+    }
+
+    public static void testDelayIsNotCharged() {
+        AtomicLong now = new AtomicLong();
+        ChessClock clock = new ChessClock(10_000, 3_000, ChessClock.Mode.DELAY, now::get);
+        clock.start(true);
+
+        now.addAndGet(2_000 * MS); // inside the delay
+        clock.press();
+        Check.equal(10_000 * MS, clock.remainingNanos(true), "move within the delay costs nothing");
+
+        now.addAndGet(5_000 * MS); // 2 s over the delay
+        Check.equal(8_000 * MS, clock.remainingNanos(false), "only the time past the delay counts");
+        clock.press();
+        Check.equal(8_000 * MS, clock.remainingNanos(false), "no increment in delay mode");
+    }
+
+    public static void testPauseStopsCharging() {
+        AtomicLong now = new AtomicLong();
+        ChessClock clock = new ChessClock(10_000, 0, ChessClock.Mode.INCREMENT, now::get);
+        clock.start(true);
+        now.addAndGet(1_000 * MS);
+        clock.pause();
+        now.addAndGet(60_000 * MS);
+        Check.equal(9_000 * MS, clock.remainingNanos(true), "paused time is free");
+        clock.resume();
+        now.addAndGet(1_000 * MS);
+        Check.equal(8_000 * MS, clock.remainingNanos(true), "resumed");
+    }
+
+    public static void testSwitchToGivesNoIncrement() {
+        AtomicLong now = new AtomicLong();
+        ChessClock clock = new ChessClock(10_000, 5_000, ChessClock.Mode.INCREMENT, now::get);
+        clock.start(true);
+        now.addAndGet(1_000 * MS);
+        clock.switchTo(false); // takeback
+        Check.equal(9_000 * MS, clock.remainingNanos(true), "takeback charges without increment");
+        Check.isTrue(!clock.whiteActive(), "black to move after takeback");
+    }
+
+    // a flag fall is not a move: taking moves back must not reopen a game whose clock has flagged
+    public static void testNoTakebackPastFlagFall() {
+        AtomicLong now = new AtomicLong();
+        ChessClock clock = new ChessClock(1_000, 0, ChessClock.Mode.INCREMENT, now::get);
+        Game game = new Game();
+        clock.setFlagListener(game::flagTimeout);
+        clock.start(true);
+
+        game.move(FenTest.legal(game, "e2e4"));
+        Check.isTrue(clock.press(), "white in time");
+        now.addAndGet(2_000 * MS);
+        game.move(FenTest.legal(game, "e7e5"));
+        Check.isTrue(!clock.press(), "black's late move does not count");
+
+        Check.isTrue(game.isGameOver(), "game over on time");
+        Check.equal("1-0", game.result(), "black lost on time");
+        Check.isTrue(!game.canUndo() && !game.undo(), "no undo after the flag");
+        Check.isTrue(!game.canRedo() && !game.redo(), "no redo after the flag");
+        Check.isTrue(game.isGameOver(), "still over after the refused undo");
+
+        // positions() walks the moves internally and still leaves the flag in place
+        Check.equal(3, game.positions().size(), "positions of the flagged game");
+        Check.isTrue(game.isGameOver() && !game.canUndo(), "flag kept after positions()");
+        Check.equal("1-0", game.positions().get(2).result(), "last position carries the result");
+
+        game.newGame();
+        Check.isTrue(!game.isGameOver(), "new game");
+        game.move(FenTest.legal(game, "d2d4"));
+        Check.isTrue(game.canUndo(), "undo allowed again in a new game");
+    }
+
+    public static void testLateMoveFlagsInsteadOfCounting() {
+        AtomicLong now = new AtomicLong();
+        ChessClock clock = new ChessClock(1_000, 5_000, ChessClock.Mode.INCREMENT, now::get);
+        AtomicReference<Boolean> lost = new AtomicReference<>();
+        clock.setFlagListener(lost::set);
+        clock.start(true);
+        now.addAndGet(1_001 * MS);
+        Check.isTrue(!clock.press(), "a move after the flag does not count");
+        Check.equal(Boolean.TRUE, clock.flaggedWhite(), "white flagged");
+        Check.equal(Boolean.TRUE, lost.get(), "listener told white lost");
+        Check.equal(0L, clock.remainingNanos(true), "no time left");
+    }
+
+    public static void testFlagFallIsScheduled() throws InterruptedException {
+        AtomicLong now = new AtomicLong();
+        ChessClock clock = new ChessClock(50, 0, ChessClock.Mode.INCREMENT, now::get);
+        CountDownLatch fell = new CountDownLatch(1);
+        AtomicReference<Boolean> lost = new AtomicReference<>();
+        clock.setFlagListener(whiteLost -> {
+            lost.set(whiteLost);
+            fell.countDown();
+        });
+        clock.start(false);
+        now.addAndGet(60 * MS); // the fake clock is already past the flag when the timer fires
+        Check.isTrue(fell.await(2, TimeUnit.SECONDS), "flag fell without any press");
+        Check.equal(Boolean.FALSE, lost.get(), "black lost on time");
+        Check.isTrue(!clock.isRunning(), "clock stopped");
+    }
+}
@@ -0,0 +1,64 @@
+package controller;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import model.board.Move;
+import testing.Check;
+
+// FEN parsing and printing, including castling rights and the en passant square
+public final class FenTest {
+
+    private static final String[] FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r3k2r/8/8/8/8/8/8/R3K2R b Kq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 1",
+            "8/8/8/4k3/8/3n4/2B1B3/4K3 w - - 0 1",
+    };
+
+    public static void testRoundTrip() {
+        for (String fen : FENS) Check.equal(fen, Game.fromFen(fen).fen(), "fromFen(fen).fen()");
+    }
+
+    public static void testMovesUpdateFen() {
+        Game g = new Game();
+        g.move(legal(g, "e2e4"));
+        Check.equal("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", g.fen(), "after 1. e4");
+        g.move(legal(g, "e7e5"));
+        g.move(legal(g, "e1e2"));
+        Check.equal("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 0 2", g.fen(), "king move drops castling");
+    }
+
+    // every position of random games survives a FEN round trip with the same key and moves
+    public static void testRandomGamesRoundTrip() {
+        Random rnd = new Random(7);
+        for (int game = 0; game < 30; game++) {
+            Game g = new Game();
+            for (int ply = 0; ply < 80 && !g.isGameOver(); ply++) {
+                Game back = Game.fromFen(g.fen());
+                Check.equal(g.zobristKey(), back.zobristKey(), "key of " + g.fen());
+                Check.equal(codes(g.legalMoves()), codes(back.legalMoves()), "legal moves of " + g.fen());
+                List<Move> moves = g.legalMoves();
+                g.move(moves.get(rnd.nextInt(moves.size())));
+            }
+        }
+    }
+
+    static Move legal(Game g, String coord) {
+        for (Move m : g.legalMoves()) {
+            String c = "" + (char) ('a' + m.getFrom().getColumn()) + (8 - m.getFrom().getRow())
+                    + (char) ('a' + m.getTo().getColumn()) + (8 - m.getTo().getRow());
+            if (c.equals(coord)) return m;
+        }
+        throw new AssertionError("illegal move " + coord + " in " + g.fen());
+    }
+
+    private static Set<Integer> codes(List<Move> moves) {
+        Set<Integer> s = new HashSet<>();
+        for (Move m : moves) s.add(m.code());
+        return s;
+    }
+}
@@ -0,0 +1,53 @@
+package db;
+
+import controller.Game;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import notation.San;
+import testing.Check;
+
+// Índice do explorador construído de um PGN: contagens por lance, partidas com FEN e partidas quebradas
+public final class ExplorerIndexTest {
+
+    private static final String FEN = "4k3/8/8/8/8/8/4P3/4K3 b - - 0 1";
+
+    public static void testBuildCountsResultsPerMove() throws IOException, InterruptedException {
+        String pgn = "1. e4 e5 1-0\n\n1. e4 c5 0-1\n\n1. d4 d5 1/2-1/2\n\n1. e4 e5 1/2-1/2\n\n1. c4 *\n\n"
+                + "[SetUp \"1\"]\n[FEN \"" + FEN + "\"]\n\n1... Kd7 2. e4 0-1\n\n"
+                + "[SetUp \"1\"]\n[FEN \"não é FEN\"]\n\n1. e4 1-0\n\n";
+        Path in = Files.createTempFile("explorer-test", ".pgn");
+        Path out = Files.createTempFile("explorer-test", ".idx");
+        try {
+            Files.writeString(in, pgn);
+            ExplorerIndex.build(in, out, 10, 2);
+            try (ExplorerIndex idx = ExplorerIndex.open(out)) {
+                Game start = new Game();
+                int first = idx.find(start.zobristKey());
+                Check.equal(2, idx.count(first, start.zobristKey()), "lances da posição inicial (sem resultado não conta)");
+                int e4 = record(idx, start, "e4");
+                Check.equal(1, idx.whiteWins(e4), "1. e4: vitórias brancas");
+                Check.equal(1, idx.draws(e4), "1. e4: empates");
+                Check.equal(1, idx.blackWins(e4), "1. e4: vitórias pretas");
+                Check.equal(1, idx.games(record(idx, start, "d4")), "1. d4");
+
+                // a partida com FEN entra a partir da posição dela; a de FEN inválido é ignorada
+                Game custom = Game.fromFen(FEN);
+                Check.equal(1, idx.blackWins(record(idx, custom, "Kd7")), "lance a partir do FEN");
+                Check.equal(2 + 2 + 1 + 2, idx.size(), "registros (posição, lance)");
+            }
+        } finally {
+            Files.delete(in);
+            Files.delete(out);
+        }
+    }
+
+    private static int record(ExplorerIndex idx, Game g, String san) {
+        long key = g.zobristKey();
+        int code = ExplorerIndex.moveCode(San.parse(g, san));
+        int first = idx.find(key);
+        Check.isTrue(first >= 0, "posição de " + san + " no índice");
+        for (int i = first; i < first + idx.count(first, key); i++) if (idx.moveCode(i) == code) return i;
+        throw new AssertionError("lance " + san + " fora do índice");
+    }
+}
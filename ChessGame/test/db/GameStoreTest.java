@@ -0,0 +1,73 @@
+package db;
+
+import controller.Game;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import model.board.Move;
+import testing.Check;
+
+// Índice de posições: consultas iguais com entradas pendentes, runs em disco, reabertura e compact()
+public final class GameStoreTest {
+
+    public static void testPositionQueriesAcrossFlushesAndReopen() throws IOException {
+        Path dir = Files.createTempDirectory("gamestore-test");
+        try {
+            Random rnd = new Random(3);
+            Map<Long, TreeSet<Long>> truth = new HashMap<>();
+            List<Long> probes = new ArrayList<>();
+            List<String> firstMoves = null;
+            long firstPtr = -1;
+            try (GameStore store = GameStore.open(dir)) {
+                for (int gi = 0; gi < 120; gi++) {
+                    Game g = new Game();
+                    List<Long> keys = new ArrayList<>();
+                    keys.add(g.zobristKey());
+                    for (int ply = 0; ply < 30 && !g.isGameOver(); ply++) {
+                        List<Move> moves = g.legalMoves();
+                        g.move(moves.get(rnd.nextInt(moves.size())));
+                        keys.add(g.zobristKey());
+                    }
+                    long ptr = store.append(g);
+                    if (firstPtr < 0) {
+                        firstPtr = ptr;
+                        firstMoves = new ArrayList<>(g.history());
+                    }
+                    for (long k : keys) truth.computeIfAbsent(k, x -> new TreeSet<>()).add(ptr);
+                    probes.add(keys.get(rnd.nextInt(keys.size())));
+                    if (gi % 17 == 0) store.flush();
+                    // parte no disco, parte ainda pendente
+                    checkAll(store, truth, probes);
+                }
+            }
+            try (GameStore store = GameStore.open(dir)) {
+                checkAll(store, truth, probes);
+                Check.equal(firstMoves, store.read(firstPtr).getMoves(), "partida lida de volta");
+                store.compact();
+                Check.equal(1, store.indexRuns(), "um run depois de compact()");
+                checkAll(store, truth, probes);
+                Check.equal(0, store.gamesWithPosition(12345L).length, "posição ausente");
+            }
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path p : files.toList()) Files.delete(p);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static void checkAll(GameStore store, Map<Long, TreeSet<Long>> truth, List<Long> probes) {
+        for (long key : probes) {
+            long[] got = store.gamesWithPosition(key);
+            long[] expected = truth.get(key).stream().mapToLong(Long::longValue).toArray();
+            Check.equal(Arrays.toString(expected), Arrays.toString(got), "partidas da posição " + key);
+        }
+    }
+}
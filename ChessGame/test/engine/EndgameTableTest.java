@@ -0,0 +1,51 @@
+package engine;
+
+import controller.Game;
+import testing.Check;
+
+// Vereditos da tabela de finais (cor dos bispos, menor x menor) e o efeito na busca
+public final class EndgameTableTest {
+
+    public static void testBishopColourDecidesKbbk() {
+        Check.isTrue(drawn("8/8/8/4k3/8/8/3B1B2/4K3 w - - 0 1"), "bispos na mesma cor: empate morto");
+        Check.equal(0, eval("8/8/8/4k3/8/8/3B1B2/4K3 w - - 0 1"), "avaliação do empate");
+        Check.isTrue(!drawn("8/8/8/4k3/8/8/3BB3/4K3 w - - 0 1"), "bispos de cores opostas");
+        Check.isTrue(eval("8/8/8/4k3/8/8/3BB3/4K3 w - - 0 1") > 2000, "KBB x K é vitória conhecida");
+        Check.isTrue(eval("8/8/8/4k3/8/8/3BB3/4K3 b - - 0 1") < -2000, "do ponto de vista das pretas");
+    }
+
+    public static void testDeadDraws() {
+        Check.isTrue(drawn("4k3/8/8/8/8/8/8/4K3 w - - 0 1"), "K x K");
+        Check.isTrue(drawn("4k3/8/8/8/8/8/8/2B1K3 w - - 0 1"), "KB x K");
+        Check.isTrue(drawn("4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1"), "KB x KB na mesma cor");
+    }
+
+    // mate possível mas não forçado: avaliação perto de 0, mas a busca continua
+    public static void testMinorVersusMinorIsSearched() {
+        Check.isTrue(!drawn("4kn2/8/8/8/8/8/8/2B1K3 w - - 0 1"), "KB x KN");
+        Check.isTrue(!drawn("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1"), "KNN x K");
+        Check.isTrue(Math.abs(eval("4kn2/8/8/8/8/8/8/2B1K3 w - - 0 1")) < 50, "KB x KN perto de 0");
+
+        // Bb7#: o cavalo preto em a7 tira a última casa do próprio rei
+        SearchResult r = new Engine().search(Game.fromFen("k1B5/n1K5/8/8/8/8/8/8 w - - 0 1"), SearchLimits.depth(2));
+        Check.equal(Engine.MATE - 1, r.getScore(), "mate em 1 com KB x KN");
+    }
+
+    // com bispos da mesma cor depois de Bxd3 o final é empate: o motor não troca a vantagem por ele
+    public static void testSearchAvoidsDeadDraw() {
+        Game g = Game.fromFen("8/8/8/4k3/8/3n4/2B1B3/4K3 w - - 0 1");
+        for (int depth = 1; depth <= 4; depth++) {
+            SearchResult r = new Engine().search(g, SearchLimits.depth(depth));
+            Check.isTrue(r.getBestMove().getCaptured() == null, "profundidade " + depth + ": não captura em d3");
+            Check.isTrue(r.getScore() < 500, "profundidade " + depth + ": score " + r.getScore());
+        }
+    }
+
+    private static boolean drawn(String fen) {
+        return EndgameTable.isDrawn(Game.fromFen(fen).board());
+    }
+
+    private static int eval(String fen) {
+        return EndgameTable.evaluate(Game.fromFen(fen), new ClassicalEvaluator());
+    }
+}
@@ -0,0 +1,32 @@
+package engine;
+
+import controller.Game;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import notation.San;
+import testing.Check;
+
+// Revisão: lado e número de cada lance vêm da posição, inclusive em partidas que começam com as pretas
+public final class GameReviewTest {
+
+    public static void testSideAndNumberFollowSideToMove() throws Exception {
+        check(new Game(), new String[] {"e4", "e5", "Nf3"}, new String[] {"1. e4", "1... e5", "2. Nf3"});
+        check(Game.fromFen("4k3/8/8/8/8/8/4P3/4K3 b - - 0 1"), new String[] {"Kd7", "e4", "Kd6"},
+                new String[] {"1... Kd7", "2. e4", "2... Kd6"});
+    }
+
+    private static void check(Game g, String[] moves, String[] expected) throws Exception {
+        for (String san : moves) g.move(San.parse(g, san));
+        try (GameReview review = new GameReview(2, 1)) {
+            List<GameReview.MoveReview> r = review.review(g.positions(), SearchLimits.depth(1), null)
+                    .get(30, TimeUnit.SECONDS);
+            Check.equal(expected.length, r.size(), "lances revisados");
+            for (int i = 0; i < expected.length; i++) {
+                GameReview.MoveReview m = r.get(i);
+                Check.equal(i, m.getPly(), "ply");
+                Check.equal(expected[i].contains("..."), !m.isWhite(), "lado de " + expected[i]);
+                Check.isTrue(m.toString().startsWith(expected[i]), m + " começa com " + expected[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package engine;
+
+import controller.Game;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import model.board.Move;
+import testing.Check;
+
+// O picker em estágios entrega exatamente os lances legais (perft igual ao da geração completa)
+public final class MovePickerTest {
+
+    private static final String[] FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+    };
+    private static final long[] DEPTH_3 = {8902, 97862, 2812, 9467, 62379};
+
+    public static void testPerftMatchesLegalGeneration() {
+        for (int i = 0; i < FENS.length; i++) {
+            Game g = Game.fromFen(FENS[i]);
+            Check.equal(DEPTH_3[i], perftLegal(g, 3), "perft(3) da geração completa em " + FENS[i]);
+            Check.equal(DEPTH_3[i], perftPicker(g, 3), "perft(3) do picker em " + FENS[i]);
+        }
+    }
+
+    // em cada nó de uma árvore rasa: mesmo conjunto de lances, sem repetição, com TT e killers quaisquer
+    public static void testSameMovesWithTtAndKillers() {
+        for (String fen : FENS) checkTree(Game.fromFen(fen), 2);
+    }
+
+    public static void testCapturesOnlyYieldsTactical() {
+        for (String fen : FENS) {
+            Game g = Game.fromFen(fen);
+            Set<Integer> expected = new HashSet<>();
+            for (Move m : g.legalMoves()) if (MovePicker.isTactical(m)) expected.add(m.code());
+            Set<Integer> got = new HashSet<>();
+            MovePicker p = new MovePicker(g, 0, new int[0], true);
+            for (Move m = p.next(); m != null; m = p.next()) Check.isTrue(got.add(m.code()), "repetido em " + fen);
+            Check.equal(expected, got, "capturas e promoções de " + fen);
+        }
+    }
+
+    private static void checkTree(Game g, int depth) {
+        List<Move> legal = g.legalMoves();
+        Set<Integer> expected = new HashSet<>();
+        int quiet = 0;
+        for (Move m : legal) {
+            expected.add(m.code());
+            if (!MovePicker.isTactical(m)) quiet = m.code();
+        }
+        // lance da TT e killers: um legal de verdade e códigos que não são lances aqui
+        int tt = legal.isEmpty() ? 0 : legal.get(legal.size() / 2).code();
+        int[] killers = {quiet, (1 << 9) | (2 << 3)};
+        MovePicker p = new MovePicker(g, tt, killers, false);
+        List<Move> got = new ArrayList<>();
+        for (Move m = p.next(); m != null; m = p.next()) got.add(m);
+
+        Set<Integer> codes = new HashSet<>();
+        for (Move m : got) Check.isTrue(codes.add(m.code()), "lance repetido em " + g.fen());
+        Check.equal(expected, codes, "lances de " + g.fen());
+        if (tt != 0) Check.equal(tt, got.get(0).code(), "lance da TT primeiro em " + g.fen());
+
+        if (depth == 0) return;
+        for (Move m : got) {
+            g.makeSearchMove(m);
+            checkTree(g, depth - 1);
+            g.undo();
+        }
+    }
+
+    private static long perftLegal(Game g, int depth) {
+        if (depth == 0) return 1;
+        long n = 0;
+        for (Move m : g.legalMoves()) {
+            g.move(m);
+            n += perftLegal(g, depth - 1);
+            g.undo();
+        }
+        return n;
+    }
+
+    private static long perftPicker(Game g, int depth) {
+        if (depth == 0) return 1;
+        long n = 0;
+        MovePicker p = new MovePicker(g, 0, new int[2], false);
+        for (Move m = p.next(); m != null; m = p.next()) {
+            g.makeSearchMove(m);
+            n += perftPicker(g, depth - 1);
+            g.undo();
+        }
+        return n;
+    }
+}
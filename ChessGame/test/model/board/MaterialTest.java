@@ -0,0 +1,48 @@
+package model.board;
+
+import controller.Game;
+import testing.Check;
+
+// Regra de material insuficiente e assinatura incremental
+public final class MaterialTest {
+
+    public static void testInsufficient() {
+        insufficient(true, "4k3/8/8/8/8/8/8/4K3 w - - 0 1", "K x K");
+        insufficient(true, "4k3/8/8/8/8/8/8/2B1K3 w - - 0 1", "KB x K");
+        insufficient(true, "4k3/8/8/8/8/8/8/1N2K3 b - - 0 1", "KN x K");
+        insufficient(true, "8/8/8/4k3/8/8/3B1B2/4K3 w - - 0 1", "KBB x K, bispos d2 e f2 (casas escuras)");
+        insufficient(true, "4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1", "KB x KB, mesma cor");
+        insufficient(false, "8/8/8/4k3/8/8/3BB3/4K3 w - - 0 1", "KBB x K, cores opostas");
+        insufficient(false, "4k1b1/8/8/8/8/8/8/2B1K3 w - - 0 1", "KB x KB, cores opostas");
+        insufficient(false, "4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1", "KNN x K");
+        insufficient(false, "4kn2/8/8/8/8/8/8/2B1K3 w - - 0 1", "KB x KN");
+        insufficient(false, "4k3/8/8/8/8/8/8/4K2R w - - 0 1", "KR x K");
+        insufficient(false, "4k3/8/8/8/8/8/4P3/4K3 w - - 0 1", "KP x K");
+    }
+
+    public static void testGameEndsOnInsufficientMaterial() {
+        Game g = Game.fromFen("4k3/8/8/8/8/8/3q4/4KB2 w - - 0 1");
+        for (model.board.Move m : g.legalMoves()) {
+            if (m.getTo().equals(new Position(6, 3))) {
+                g.move(m); // Kxd2 deixa KB x K
+                break;
+            }
+        }
+        Check.isTrue(g.isGameOver(), "fim de jogo");
+        Check.equal("Draw: insufficient material", g.endReason(), "motivo");
+        Check.equal("1/2-1/2", g.result(), "resultado");
+    }
+
+    public static void testSignatureCounts() {
+        long sig = Game.fromFen("r1bqkbnr/pppppppp/2n5/8/8/8/PPPPPPPP/RNBQKB1R w KQkq - 0 1").board().materialSignature();
+        Check.equal(8, Material.count(sig, true, Material.PAWN), "peões brancos");
+        Check.equal(1, Material.count(sig, true, Material.KNIGHT), "cavalos brancos");
+        Check.equal(2, Material.count(sig, false, Material.KNIGHT), "cavalos pretos");
+        Check.equal(2, Material.count(sig, false, Material.BISHOP), "bispos pretos");
+        Check.equal(1, Material.count(sig, true, Material.QUEEN), "dama branca");
+    }
+
+    private static void insufficient(boolean expected, String fen, String what) {
+        Check.equal(expected, Material.insufficient(Game.fromFen(fen).board()), what);
+    }
+}
@@ -0,0 +1,100 @@
+package notation;
+
+import controller.Game;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import model.board.Move;
+import testing.Check;
+
+// Leitura de PGN (tags, comentários, variantes, NAGs) e resolução de SAN
+public final class PgnReaderTest {
+
+    private static final String TWO_GAMES =
+            "[Event \"Teste \\\"aspas\\\"\"]\n"
+            + "[White \"Branco\"]\n"
+            + "[Result \"1-0\"]\n"
+            + "\n"
+            + "1. e4 {abertura} e5 2.Nf3 $1 Nc6 (2... d6 3. d4 (3. Bc4) exd4) 3. Bb5 ; Ruy Lopez\n"
+            + "3... a6 4. Ba4!? Nf6 5. O-O 1-0\n"
+            + "\n"
+            + "[Event \"Segunda\"]\n"
+            + "\n"
+            + "1. d4 d5 2. c4 *\n";
+
+    public static void testTagsCommentsAndVariations() throws IOException {
+        try (PgnReader reader = reader(TWO_GAMES)) {
+            PgnGame first = reader.next();
+            Check.equal("Teste \"aspas\"", first.tag("Event"), "tag com aspas escapadas");
+            Check.equal("Branco", first.tag("White"), "tag White");
+            Check.equal(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O"), first.moves(),
+                    "lances sem comentários, variantes e NAGs");
+            Check.equal("1-0", first.result(), "resultado");
+
+            PgnGame second = reader.next();
+            Check.equal("Segunda", second.tag("Event"), "segunda partida");
+            Check.equal(List.of("d4", "d5", "c4"), second.moves(), "lances da segunda");
+            Check.equal("*", second.result(), "resultado desconhecido");
+
+            Check.isTrue(reader.next() == null, "fim do arquivo");
+        }
+    }
+
+    public static void testGameWithoutResultEndsAtNextTags() throws IOException {
+        try (PgnReader reader = reader("1. e4 e5\n\n[Event \"B\"]\n1. c4 0-1\n")) {
+            Check.equal(List.of("e4", "e5"), reader.next().moves(), "primeira partida");
+            PgnGame b = reader.next();
+            Check.equal("B", b.tag("Event"), "tags da segunda");
+            Check.equal("0-1", b.result(), "resultado da segunda");
+        }
+    }
+
+    public static void testReadMovesReplay() throws IOException {
+        try (PgnReader reader = reader(TWO_GAMES)) {
+            Game g = new Game();
+            for (String san : reader.next().moves()) {
+                Move m = San.parse(g, san);
+                Check.isTrue(m != null, san + " em " + g.fen());
+                g.move(m);
+            }
+            Check.equal("r1bqkb1r/1ppp1ppp/p1n2n2/4p3/B3P3/5N2/PPPP1PPP/RNBQ1RK1 b kq - 0 5", g.fen(), "posição final (sem contagem de meio-lances)");
+        }
+    }
+
+    public static void testParseResolvesAndRejects() {
+        Game g = Game.fromFen("k7/4P3/8/8/8/5N2/8/RN2K2R w KQ - 0 1");
+        Check.isTrue(San.parse(g, "Nd2") == null, "ambíguo entre b1 e f3");
+        Check.equal(7, San.parse(g, "Nbd2").getFrom().getRow(), "desambiguação por coluna");
+        Check.equal(5, San.parse(g, "Nfd2").getFrom().getRow(), "outro cavalo");
+        Check.isTrue(San.parse(g, "0-0").isCastleKingSide(), "roque com zeros");
+        Check.isTrue(San.parse(g, "O-O-O") == null, "b1 ocupado: sem roque grande");
+        Check.equal(Character.valueOf('N'), San.parse(g, "e8N").getPromotion(), "promoção sem '='");
+        Check.isTrue(San.parse(g, "Ke3+") == null, "lance ilegal");
+        Check.isTrue(San.parse(g, "Zz9") == null, "mal formado");
+        Check.isTrue(San.parse(g, "") == null, "vazio");
+    }
+
+    public static void testSetUpStartsFromFenTag() throws IOException {
+        String fen = "4k3/8/8/8/8/8/4P3/4K3 b - - 0 1";
+        try (PgnReader reader = reader("[SetUp \"1\"]\n[FEN \"" + fen + "\"]\n\n1... Kd7 2. e4 *\n"
+                + "[SetUp \"0\"]\n[FEN \"" + fen + "\"]\n\n1. e4 *\n1. e4 *\n")) {
+            PgnGame custom = reader.next();
+            Check.isTrue(custom.hasSetUp(), "tag FEN com SetUp 1");
+            Game g = custom.startingGame();
+            Check.equal(fen, g.fen(), "posição do tag FEN");
+            for (String san : custom.moves()) g.move(San.parse(g, san));
+            Check.equal("8/3k4/8/8/4P3/8/8/4K3 b - e3 0 2", g.fen(), "lances a partir do FEN");
+
+            Check.isTrue(!reader.next().hasSetUp(), "SetUp 0 ignora o FEN");
+            PgnGame plain = reader.next();
+            Check.isTrue(!plain.hasSetUp(), "sem tags");
+            Check.equal(new Game().fen(), plain.startingGame().fen(), "posição inicial padrão");
+        }
+    }
+
+    static PgnReader reader(String pgn) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,127 @@
+package notation;
+
+import controller.Game;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import model.board.Move;
+import testing.Check;
+
+// SAN formatado e lido de volta, e PGN escrito e relido
+public final class SanTest {
+
+    public static void testSpecialMoves() {
+        Check.equal("O-O", san("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", 7, 4, 7, 6), "roque pequeno");
+        Check.equal("O-O-O", san("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", 7, 4, 7, 2), "roque grande");
+        Check.equal("exd6", san("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", 3, 4, 2, 3), "en passant");
+        Check.equal("Nbd2", san("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1", 7, 1, 6, 3), "desambiguação por coluna");
+        Check.equal("Ne3", san("4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1", 7, 5, 5, 4), "sem ambiguidade");
+    }
+
+    public static void testPromotionWithCheck() {
+        Game g = Game.fromFen("k7/4P3/8/8/8/8/8/4K3 w - - 0 1");
+        Move promo = null;
+        for (Move m : g.legalMoves()) if (m.getPromotion() != null && m.getPromotion() == 'Q') promo = m;
+        Check.equal("e8=Q+", San.format(g, promo), "promoção com xeque");
+        Check.equal(promo.code(), San.parse(g, "e8=Q+").code(), "promoção lida de volta");
+    }
+
+    public static void testMateSuffix() {
+        Game g = Game.fromFen("k7/2K5/8/8/8/8/8/1R6 w - - 0 1");
+        Check.equal("Ra1#", San.format(g, San.parse(g, "Ra1")), "mate");
+        Check.isTrue(g.history().isEmpty(), "format não altera o jogo");
+    }
+
+    // em partidas aleatórias, todo lance vira SAN e volta ao mesmo lance
+    public static void testRandomGamesRoundTrip() {
+        Random rnd = new Random(11);
+        for (int game = 0; game < 30; game++) {
+            Game g = new Game();
+            for (int ply = 0; ply < 100 && !g.isGameOver(); ply++) {
+                for (Move m : g.legalMoves()) {
+                    String s = San.format(g, m);
+                    Move back = San.parse(g, s);
+                    Check.isTrue(back != null && back.code() == m.code(), s + " em " + g.fen());
+                }
+                List<Move> moves = g.legalMoves();
+                Move m = moves.get(rnd.nextInt(moves.size()));
+                String s = San.format(g, m);
+                g.move(m);
+                Check.equal(s, g.history().get(g.history().size() - 1), "histórico em SAN");
+            }
+        }
+    }
+
+    // formatAll (uma cópia, faz/desfaz) dá o mesmo SAN que format lance a lance
+    public static void testFormatAllMatchesFormat() {
+        Random rnd = new Random(17);
+        for (int game = 0; game < 10; game++) {
+            Game g = new Game();
+            for (int ply = 0; ply < 80 && !g.isGameOver(); ply++) {
+                List<Move> moves = g.legalMoves();
+                String fen = g.fen();
+                List<String> all = San.formatAll(g, moves);
+                Check.equal(moves.size(), all.size(), "um SAN por lance");
+                for (int i = 0; i < moves.size(); i++) {
+                    Check.equal(San.format(g, moves.get(i)), all.get(i), "SAN em " + fen);
+                }
+                Check.equal(fen, g.fen(), "formatAll não altera o jogo");
+                g.move(moves.get(rnd.nextInt(moves.size())));
+            }
+        }
+    }
+
+    public static void testPgnRoundTrip() throws IOException {
+        Random rnd = new Random(5);
+        Game g = new Game();
+        for (int ply = 0; ply < 120 && !g.isGameOver(); ply++) {
+            List<Move> moves = g.legalMoves();
+            g.move(moves.get(rnd.nextInt(moves.size())));
+        }
+        String pgn = PgnWriter.toPgn(g, null);
+        try (PgnReader reader = new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))))) {
+            PgnGame read = reader.next();
+            Check.equal(g.history(), read.moves(), "lances");
+            Check.equal(g.result(), read.result(), "resultado");
+            Check.isTrue(reader.next() == null, "uma partida só");
+
+            Game replay = new Game();
+            for (String s : read.moves()) replay.move(San.parse(replay, s));
+            Check.equal(g.fen(), replay.fen(), "posição final");
+        }
+    }
+
+    // partida a partir de FEN com as pretas a jogar: tags SetUp/FEN e numeração "1..."
+    public static void testPgnFromBlackToMoveFen() throws IOException {
+        String fen = "4k3/8/8/8/8/8/4P3/4K3 b - - 0 1";
+        Game g = Game.fromFen(fen);
+        for (String s : new String[] {"Kd7", "e4", "Kd6"}) g.move(San.parse(g, s));
+        String pgn = PgnWriter.toPgn(g, null);
+        Check.isTrue(pgn.contains("[SetUp \"1\"]\n[FEN \"" + fen + "\"]\n"), pgn);
+        Check.isTrue(pgn.contains("\n1... Kd7 2. e4 Kd6 *\n"), pgn);
+
+        try (PgnReader reader = new PgnReader(Channels.newChannel(
+                new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))))) {
+            PgnGame read = reader.next();
+            Game replay = read.startingGame();
+            for (String s : read.moves()) replay.move(San.parse(replay, s));
+            Check.equal(g.fen(), replay.fen(), "posição final");
+        }
+        Check.isTrue(!PgnWriter.toPgn(new Game(), null).contains("FEN"), "posição padrão sem tag FEN");
+    }
+
+    private static String san(String fen, int fromRow, int fromCol, int toRow, int toCol) {
+        Game g = Game.fromFen(fen);
+        for (Move m : g.legalMoves()) {
+            if (m.getFrom().getRow() == fromRow && m.getFrom().getColumn() == fromCol
+                    && m.getTo().getRow() == toRow && m.getTo().getColumn() == toCol) {
+                return San.format(g, m);
+            }
+        }
+        throw new AssertionError("lance ilegal em " + fen);
+    }
+}
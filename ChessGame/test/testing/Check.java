@@ -0,0 +1,25 @@
+package testing;
+
+import java.util.Objects;
+
+/** Asserções mínimas para os testes (o projeto não depende de framework de testes). */
+public final class Check {
+
+    private Check() { /* utilitário */ }
+
+    public static void isTrue(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+
+    public static void equal(Object expected, Object actual, String what) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(what + ": esperado <" + expected + ">, obtido <" + actual + ">");
+        }
+    }
+
+    public static void equal(long expected, long actual, String what) {
+        if (expected != actual) {
+            throw new AssertionError(what + ": esperado <" + expected + ">, obtido <" + actual + ">");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package testing;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Roda os testes: cada método `public static void testXxx()` das classes listadas.
+ * Sai com código 1 se algum falhar.
+ *
+ * Uso (de ChessGame/):
+ *   javac -encoding UTF-8 -d out-test @sources.txt @tests.txt
+ *   java -cp out-test testing.RunTests
+ */
+public final class RunTests {
+
+    private static final String[] CLASSES = {
+            "notation.PgnReaderTest",
+            "notation.SanTest",
+            "controller.FenTest",
+            "controller.ChessClockTest",
+            "model.board.MaterialTest",
+            "engine.EndgameTableTest",
+            "engine.MovePickerTest",
+            "db.GameStoreTest",
+            "db.ExplorerIndexTest",
+            "tools.PgnReplayTest",
+            "engine.GameReviewTest",
+    };
+
+    private RunTests() { /* utilitário */ }
+
+    public static void main(String[] args) throws Exception {
+        int passed = 0, failed = 0;
+        for (String name : args.length > 0 ? args : CLASSES) {
+            for (Method m : Class.forName(name).getDeclaredMethods()) {
+                if (!m.getName().startsWith("test") || !Modifier.isStatic(m.getModifiers())
+                        || m.getParameterCount() != 0) continue;
+                String label = name + "." + m.getName();
+                try {
+                    m.invoke(null);
+                    passed++;
+                    System.out.println("ok    " + label);
+                } catch (InvocationTargetException e) {
+                    failed++;
+                    System.out.println("FALHA " + label + ": " + e.getCause());
+                }
+            }
+        }
+        System.out.println(passed + " ok, " + failed + " falha(s)");
+        if (failed > 0) System.exit(1);
+    }
+}
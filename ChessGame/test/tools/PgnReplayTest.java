@@ -0,0 +1,45 @@
+package tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import testing.Check;
+
+// Replay em lote: partidas com FEN próprio e partidas que quebram o replay não param os workers
+public final class PgnReplayTest {
+
+    public static void testBrokenGamesAreCountedAndWorkersSurvive() throws Exception {
+        StringBuilder pgn = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            pgn.append("[SetUp \"1\"]\n[FEN \"isto não é FEN\"]\n\n1. e4 *\n\n");         // lança exceção
+            pgn.append("[SetUp \"1\"]\n[FEN \"4k3/8/8/8/8/8/4P3/4K3 b - - 0 1\"]\n\n1... Kd7 2. e4 *\n\n");
+            pgn.append("1. e4 e5 2. Nf3 Nc6 1-0\n\n");
+            pgn.append("1. e4 e5 2. Ke3 *\n\n");                                         // lance ilegal
+        }
+        String out = run(pgn.toString(), "--threads", "2", "--queue", "1");
+        Check.isTrue(out.contains("80 partidas (40 inválidas), 160 lances"), out);
+    }
+
+    private static String run(String pgn, String... options) throws IOException {
+        Path file = Files.createTempFile("replay-test", ".pgn");
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        try {
+            Files.writeString(file, pgn);
+            String[] args = new String[options.length + 1];
+            args[0] = file.toString();
+            System.arraycopy(options, 0, args, 1, options.length);
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            PgnReplay.main(args);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        } finally {
+            System.setOut(stdout);
+            Files.delete(file);
+        }
+        return captured.toString(StandardCharsets.UTF_8);
+    }
+}